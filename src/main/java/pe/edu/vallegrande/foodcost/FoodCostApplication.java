@@ -1,13 +1,23 @@
 package pe.edu.vallegrande.foodcost;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import pe.edu.vallegrande.foodcost.csvimport.CsvImportCommand;
+
 @SpringBootApplication
 public class FoodCostApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(FoodCostApplication.class, args);
+		SpringApplication application = new SpringApplication(FoodCostApplication.class);
+		// Importación por línea de comandos: sin servidor web, termina con el código de CsvImportCommand
+		if (CsvImportCommand.requested(args)) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+			application.setAdditionalProfiles(CsvImportCommand.PROFILE);
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,416 @@
+package pe.edu.vallegrande.foodcost.analytics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import pe.edu.vallegrande.foodcost.csvimport.CsvImportCommand;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShedCostSummaryDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.WeeklyCostPointDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.event.FoodCostsBulkChangedEvent;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Índice en memoria de los costos semanales activos por galpón, en columnas de primitivos
+ * (inicio de semana en epoch-day, total_kg y total_cost en punto fijo). Se carga al iniciar desde
+ * un snapshot mapeado en memoria y luego desde la base de datos, y se mantiene al día con los
+ * eventos que publican los servicios de escritura. Las consultas no tocan la base de datos.
+ */
+@Component
+public class FoodCostTimeSeriesIndex {
+
+    // total_kg con 3 decimales (gramos) y total_cost con 2 decimales (céntimos)
+    static final int KG_SCALE = 3;
+    static final int COST_SCALE = 2;
+
+    private static final int SNAPSHOT_MAGIC = 0x46435453; // "FCTS"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Comparator<FoodCost> SHED_ORDER = Comparator.comparing(FoodCost::getShedId)
+            .thenComparing(FoodCost::getStartDate)
+            .thenComparing(FoodCost::getIdFoodCosts);
+
+    private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final Path snapshotPath;
+
+    private final Object writeLock = new Object();
+    private volatile Map<Long, ShedSeries> series = new ConcurrentHashMap<>();
+    private Map<Long, Long> shedById = new HashMap<>();
+    // No es null mientras hay una recarga en curso: guarda los eventos para aplicarlos sobre el resultado
+    private List<FoodCostChangedEvent> pendingEvents;
+    private boolean reloadRequested;
+
+    public FoodCostTimeSeriesIndex(FoodCostsRepository foodCostsRepository,
+                                   ShardRouter shardRouter,
+                                   @Value("${analytics.snapshot-path:./data/food-cost-series.bin}") String snapshotPath) {
+        this.foodCostsRepository = foodCostsRepository;
+        this.shardRouter = shardRouter;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Paths.get(snapshotPath);
+    }
+
+    // El snapshot permite responder consultas de inmediato; la recarga desde la base corre en segundo plano.
+    // No corre en la importación por CLI, que cierra el contexto al terminar
+    @EventListener(value = ApplicationReadyEvent.class, condition = "!@environment.matchesProfiles('" + CsvImportCommand.PROFILE + "')")
+    public void onApplicationReady() {
+        loadSnapshot();
+        reload()
+                .flatMap(rows -> Mono.fromRunnable(this::saveSnapshot).subscribeOn(Schedulers.boundedElastic()).thenReturn(rows))
+                .subscribe(
+                        rows -> System.out.println("Índice de series cargado: " + rows + " registros"),
+                        error -> System.out.println("No se pudo cargar el índice de series: " + error.getMessage()));
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        saveSnapshot();
+    }
+
+    @EventListener
+    public void onFoodCostChanged(FoodCostChangedEvent event) {
+        synchronized (writeLock) {
+            apply(series, shedById, event);
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        }
+    }
+
+    // Los cambios masivos no traen las filas afectadas: se relee todo
+    @EventListener
+    public void onFoodCostsBulkChanged(FoodCostsBulkChangedEvent event) {
+        if (event.getAffectedRows() > 0) {
+            reload().subscribe(
+                    rows -> System.out.println("Índice de series recargado tras " + event.getSource()),
+                    error -> System.out.println("No se pudo recargar el índice de series: " + error.getMessage()));
+        }
+    }
+
+    // Método para reconstruir el índice desde todos los shards; devuelve la cantidad de filas cargadas
+    public Mono<Long> reload() {
+        return Mono.defer(() -> {
+            synchronized (writeLock) {
+                if (pendingEvents != null) {
+                    // Ya hay una recarga leyendo la base; se repite al terminar para no perder este cambio
+                    reloadRequested = true;
+                    return Mono.<Long>empty();
+                }
+                pendingEvents = new ArrayList<>();
+            }
+            Map<Long, ShedSeries> loaded = new ConcurrentHashMap<>();
+            Map<Long, Long> loadedShedById = new HashMap<>();
+            SeriesBuilder builder = new SeriesBuilder(loaded, loadedShedById);
+            // Las filas llegan ordenadas por (galpón, fecha, id) desde cada shard y se mezclan en ese orden:
+            // cada galpón se cierra al aparecer el siguiente y solo se retienen sus columnas de primitivos
+            return shardRouter.scatterSorted(shard -> foodCostsRepository.findAllActiveOrderByShedAndStartDate(), SHED_ORDER)
+                    .doOnNext(builder::add)
+                    .count()
+                    .map(rows -> {
+                        builder.finish();
+                        synchronized (writeLock) {
+                            pendingEvents.forEach(event -> apply(loaded, loadedShedById, event));
+                            series = loaded;
+                            shedById = loadedShedById;
+                        }
+                        return rows;
+                    })
+                    .doFinally(signal -> {
+                        boolean again;
+                        synchronized (writeLock) {
+                            pendingEvents = null;
+                            again = reloadRequested;
+                            reloadRequested = false;
+                        }
+                        if (again) {
+                            reload().subscribe();
+                        }
+                    });
+        });
+    }
+
+    // Método para obtener los periodos de un galpón entre dos fechas (inclusive)
+    public List<WeeklyCostPointDto> range(Long shedId, LocalDate from, LocalDate to) {
+        ShedSeries shed = series.getOrDefault(shedId, ShedSeries.EMPTY);
+        int start = shed.lowerBound(fromDay(from));
+        int end = shed.upperBound(toDay(to));
+        List<WeeklyCostPointDto> points = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            points.add(point(shed.epochDays[i], shed.totalKg[i], shed.totalCost[i]));
+        }
+        return points;
+    }
+
+    // Método para el promedio móvil de las últimas "window" semanas; usa semanas previas al rango si existen
+    public List<WeeklyCostPointDto> movingAverage(Long shedId, LocalDate from, LocalDate to, int window) {
+        ShedSeries shed = series.getOrDefault(shedId, ShedSeries.EMPTY);
+        int start = shed.lowerBound(fromDay(from));
+        int end = shed.upperBound(toDay(to));
+        List<WeeklyCostPointDto> points = new ArrayList<>(Math.max(0, end - start));
+        int first = Math.max(0, start - window + 1);
+        long kgSum = 0;
+        long costSum = 0;
+        for (int i = first; i < end; i++) {
+            kgSum += shed.totalKg[i];
+            costSum += shed.totalCost[i];
+            if (i - first >= window) {
+                kgSum -= shed.totalKg[i - window];
+                costSum -= shed.totalCost[i - window];
+            }
+            if (i >= start) {
+                int count = Math.min(window, i - first + 1);
+                points.add(new WeeklyCostPointDto(LocalDate.ofEpochDay(shed.epochDays[i]),
+                        average(kgSum, count, KG_SCALE), average(costSum, count, COST_SCALE)));
+            }
+        }
+        return points;
+    }
+
+    // Método para comparar los totales de varios galpones en el mismo rango; sin galpones compara todos
+    public List<ShedCostSummaryDto> compare(Collection<Long> shedIds, LocalDate from, LocalDate to) {
+        Map<Long, ShedSeries> snapshot = series;
+        Collection<Long> targets = shedIds == null || shedIds.isEmpty() ? snapshot.keySet() : shedIds;
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        List<ShedCostSummaryDto> summaries = new ArrayList<>(targets.size());
+        for (Long shedId : targets) {
+            ShedSeries shed = snapshot.getOrDefault(shedId, ShedSeries.EMPTY);
+            int start = shed.lowerBound(fromDay);
+            int end = shed.upperBound(toDay);
+            long kgSum = 0;
+            long costSum = 0;
+            for (int i = start; i < end; i++) {
+                kgSum += shed.totalKg[i];
+                costSum += shed.totalCost[i];
+            }
+            int weeks = end - start;
+            BigDecimal totalKg = BigDecimal.valueOf(kgSum, KG_SCALE);
+            BigDecimal totalCost = BigDecimal.valueOf(costSum, COST_SCALE);
+            summaries.add(new ShedCostSummaryDto(shedId, weeks, totalKg, totalCost,
+                    weeks > 0 ? average(costSum, weeks, COST_SCALE) : BigDecimal.ZERO.setScale(COST_SCALE),
+                    kgSum > 0 ? totalCost.divide(totalKg, 4, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(4)));
+        }
+        summaries.sort(Comparator.comparing(ShedCostSummaryDto::getShedId));
+        return summaries;
+    }
+
+    // Método para guardar el índice en disco: se escribe en un archivo temporal y se reemplaza de forma atómica
+    public void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        // Copia única de las entradas: el mapa sigue cambiando con los eventos, y el tamaño del archivo
+        // y lo que se escribe deben salir de los mismos datos
+        List<Map.Entry<Long, ShedSeries>> snapshot = new ArrayList<>();
+        series.forEach((shedId, shed) -> snapshot.add(Map.entry(shedId, shed)));
+        long size = 12;
+        for (Map.Entry<Long, ShedSeries> entry : snapshot) {
+            size += 12 + (long) entry.getValue().size() * (8 + 4 + 8 + 8);
+        }
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "food-cost-series", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(snapshot.size());
+                for (Map.Entry<Long, ShedSeries> entry : snapshot) {
+                    ShedSeries shed = entry.getValue();
+                    buffer.putLong(entry.getKey()).putInt(shed.size());
+                    putLongs(buffer, shed.ids);
+                    for (int day : shed.epochDays) {
+                        buffer.putInt(day);
+                    }
+                    putLongs(buffer, shed.totalKg);
+                    putLongs(buffer, shed.totalCost);
+                }
+                buffer.force();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("No se pudo guardar el snapshot de series: " + e.getMessage());
+        }
+    }
+
+    // Método para cargar el snapshot; si no existe o es de otra versión se ignora y se espera a la base
+    public boolean loadSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        Map<Long, ShedSeries> loaded = new ConcurrentHashMap<>();
+        Map<Long, Long> loadedShedById = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                System.out.println("Snapshot de series con formato desconocido, se ignora: " + snapshotPath);
+                return false;
+            }
+            int sheds = buffer.getInt();
+            for (int s = 0; s < sheds; s++) {
+                long shedId = buffer.getLong();
+                int n = buffer.getInt();
+                long[] ids = getLongs(buffer, n);
+                int[] days = new int[n];
+                for (int i = 0; i < n; i++) {
+                    days[i] = buffer.getInt();
+                }
+                ShedSeries shed = new ShedSeries(ids, days, getLongs(buffer, n), getLongs(buffer, n));
+                loaded.put(shedId, shed);
+                for (long id : ids) {
+                    loadedShedById.put(id, shedId);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("No se pudo leer el snapshot de series: " + e.getMessage());
+            return false;
+        }
+        synchronized (writeLock) {
+            series = loaded;
+            shedById = loadedShedById;
+        }
+        System.out.println("Snapshot de series cargado: " + loaded.size() + " galpones");
+        return true;
+    }
+
+    // Solo se indexan los registros activos; cualquier otro estado o un borrado lo saca del índice
+    private static void apply(Map<Long, ShedSeries> target, Map<Long, Long> targetShedById, FoodCostChangedEvent event) {
+        Long id = event.getIdFoodCosts();
+        if (id == null) {
+            return;
+        }
+        FoodCost after = event.getAfter();
+        Long previousShed = targetShedById.remove(id);
+        if (previousShed != null) {
+            target.computeIfPresent(previousShed, (shedId, shed) -> {
+                ShedSeries remaining = shed.without(id);
+                return remaining.size() == 0 ? null : remaining;
+            });
+        }
+        if (indexable(after)) {
+            targetShedById.put(id, after.getShedId());
+            target.compute(after.getShedId(), (shedId, shed) -> (shed == null ? ShedSeries.EMPTY : shed).withUpsert(id,
+                    Math.toIntExact(after.getStartDate().toEpochDay()),
+                    toFixed(after.getTotalKg(), KG_SCALE),
+                    toFixed(after.getTotalCost(), COST_SCALE)));
+        }
+    }
+
+    private static boolean indexable(FoodCost row) {
+        return row != null && row.getIdFoodCosts() != null && row.getShedId() != null
+                && row.getStartDate() != null && "A".equals(row.getStatus());
+    }
+
+    private static long toFixed(BigDecimal value, int scale) {
+        return value == null ? 0 : value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal average(long sum, int count, int scale) {
+        return BigDecimal.valueOf(sum, scale).divide(BigDecimal.valueOf(count), scale, RoundingMode.HALF_UP);
+    }
+
+    private static WeeklyCostPointDto point(int epochDay, long kg, long cost) {
+        return new WeeklyCostPointDto(LocalDate.ofEpochDay(epochDay),
+                BigDecimal.valueOf(kg, KG_SCALE), BigDecimal.valueOf(cost, COST_SCALE));
+    }
+
+    private static int fromDay(LocalDate from) {
+        return from == null ? Integer.MIN_VALUE : Math.toIntExact(from.toEpochDay());
+    }
+
+    private static int toDay(LocalDate to) {
+        return to == null ? Integer.MAX_VALUE : Math.toIntExact(to.toEpochDay());
+    }
+
+    private static void putLongs(ByteBuffer buffer, long[] values) {
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+    }
+
+    private static long[] getLongs(ByteBuffer buffer, int n) {
+        long[] values = new long[n];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + n * Long.BYTES);
+        return values;
+    }
+
+    // Arma las series de un flujo ordenado por (galpón, fecha, id); add() se llama en orden desde un único flujo
+    private static final class SeriesBuilder {
+
+        private final Map<Long, ShedSeries> target;
+        private final Map<Long, Long> targetShedById;
+        private Long shedId;
+        private long[] ids = new long[64];
+        private int[] days = new int[64];
+        private long[] kg = new long[64];
+        private long[] cost = new long[64];
+        private int n;
+
+        private SeriesBuilder(Map<Long, ShedSeries> target, Map<Long, Long> targetShedById) {
+            this.target = target;
+            this.targetShedById = targetShedById;
+        }
+
+        private void add(FoodCost row) {
+            if (!indexable(row)) {
+                return;
+            }
+            if (!row.getShedId().equals(shedId)) {
+                finish();
+                shedId = row.getShedId();
+            }
+            if (n == ids.length) {
+                int capacity = n * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                kg = Arrays.copyOf(kg, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+            }
+            ids[n] = row.getIdFoodCosts();
+            days[n] = Math.toIntExact(row.getStartDate().toEpochDay());
+            kg[n] = toFixed(row.getTotalKg(), KG_SCALE);
+            cost[n] = toFixed(row.getTotalCost(), COST_SCALE);
+            targetShedById.put(ids[n], shedId);
+            n++;
+        }
+
+        // Cierra la serie del galpón actual; los arreglos de trabajo se reutilizan para el siguiente
+        private void finish() {
+            if (n > 0) {
+                target.put(shedId, new ShedSeries(Arrays.copyOf(ids, n), Arrays.copyOf(days, n),
+                        Arrays.copyOf(kg, n), Arrays.copyOf(cost, n)));
+            }
+            n = 0;
+        }
+    }
+}
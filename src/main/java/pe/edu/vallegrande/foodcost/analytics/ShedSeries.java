@@ -0,0 +1,119 @@
+package pe.edu.vallegrande.foodcost.analytics;
+
+/**
+ * Serie semanal de un galpón en formato columnar: un arreglo primitivo por columna, ordenado por
+ * (epochDay, id). Es inmutable; cada cambio devuelve una copia nueva, así las consultas leen sin
+ * bloqueo mientras los listeners de escritura reemplazan la referencia.
+ */
+final class ShedSeries {
+
+    static final ShedSeries EMPTY = new ShedSeries(new long[0], new int[0], new long[0], new long[0]);
+
+    final long[] ids;
+    final int[] epochDays;
+    final long[] totalKg;
+    final long[] totalCost;
+
+    ShedSeries(long[] ids, int[] epochDays, long[] totalKg, long[] totalCost) {
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.totalKg = totalKg;
+        this.totalCost = totalCost;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Inserta o reemplaza el periodo con ese id manteniendo el orden por fecha
+    ShedSeries withUpsert(long id, int epochDay, long kg, long cost) {
+        ShedSeries base = without(id);
+        int n = base.size();
+        int at = 0;
+        while (at < n && (base.epochDays[at] < epochDay || (base.epochDays[at] == epochDay && base.ids[at] < id))) {
+            at++;
+        }
+        long[] newIds = new long[n + 1];
+        int[] newDays = new int[n + 1];
+        long[] newKg = new long[n + 1];
+        long[] newCost = new long[n + 1];
+        copyAround(base, at, newIds, newDays, newKg, newCost);
+        newIds[at] = id;
+        newDays[at] = epochDay;
+        newKg[at] = kg;
+        newCost[at] = cost;
+        return new ShedSeries(newIds, newDays, newKg, newCost);
+    }
+
+    ShedSeries without(long id) {
+        int at = indexOf(id);
+        if (at < 0) {
+            return this;
+        }
+        int n = size() - 1;
+        long[] newIds = new long[n];
+        int[] newDays = new int[n];
+        long[] newKg = new long[n];
+        long[] newCost = new long[n];
+        System.arraycopy(ids, 0, newIds, 0, at);
+        System.arraycopy(epochDays, 0, newDays, 0, at);
+        System.arraycopy(totalKg, 0, newKg, 0, at);
+        System.arraycopy(totalCost, 0, newCost, 0, at);
+        System.arraycopy(ids, at + 1, newIds, at, n - at);
+        System.arraycopy(epochDays, at + 1, newDays, at, n - at);
+        System.arraycopy(totalKg, at + 1, newKg, at, n - at);
+        System.arraycopy(totalCost, at + 1, newCost, at, n - at);
+        return new ShedSeries(newIds, newDays, newKg, newCost);
+    }
+
+    // Primer índice con epochDay >= day
+    int lowerBound(int day) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primer índice con epochDay > day
+    int upperBound(int day) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void copyAround(ShedSeries base, int at, long[] newIds, int[] newDays, long[] newKg, long[] newCost) {
+        int n = base.size();
+        System.arraycopy(base.ids, 0, newIds, 0, at);
+        System.arraycopy(base.epochDays, 0, newDays, 0, at);
+        System.arraycopy(base.totalKg, 0, newKg, 0, at);
+        System.arraycopy(base.totalCost, 0, newCost, 0, at);
+        System.arraycopy(base.ids, at, newIds, at + 1, n - at);
+        System.arraycopy(base.epochDays, at, newDays, at + 1, n - at);
+        System.arraycopy(base.totalKg, at, newKg, at + 1, n - at);
+        System.arraycopy(base.totalCost, at, newCost, at + 1, n - at);
+    }
+}
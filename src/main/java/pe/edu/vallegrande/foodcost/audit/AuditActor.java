@@ -0,0 +1,30 @@
+package pe.edu.vallegrande.foodcost.audit;
+
+import io.micrometer.context.ContextRegistry;
+
+/**
+ * Usuario que origina un cambio, disponible para los listeners de eventos que corren en el mismo
+ * hilo que la escritura. AuditActorWebFilter lo guarda en el contexto de Reactor y la propagación
+ * automática de contexto (spring.reactor.context-propagation=auto) lo restaura en este ThreadLocal
+ * en cada operador. Fuera de una petición (tareas en segundo plano) el actor es "system".
+ */
+public final class AuditActor {
+
+    public static final String CONTEXT_KEY = AuditActor.class.getName();
+    public static final String SYSTEM = "system";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private AuditActor() {
+    }
+
+    // Registrar la misma clave otra vez reemplaza el accessor anterior, por lo que es idempotente
+    static void registerAccessor() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CONTEXT_KEY, CURRENT::get, CURRENT::set, CURRENT::remove);
+    }
+
+    public static String current() {
+        String actor = CURRENT.get();
+        return actor != null ? actor : SYSTEM;
+    }
+}
@@ -0,0 +1,40 @@
+package pe.edu.vallegrande.foodcost.audit;
+
+import java.security.Principal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import pe.edu.vallegrande.foodcost.config.CustomAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+/**
+ * Después de la cadena de seguridad, deja en el contexto de Reactor quién hace la petición
+ * (email del JWT o, si no lo trae, el sub) para que la auditoría lo registre.
+ */
+@Component
+@ConditionalOnWebApplication
+public class AuditActorWebFilter implements WebFilter {
+
+    public AuditActorWebFilter() {
+        AuditActor.registerAccessor();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return exchange.getPrincipal()
+                .map(this::actorOf)
+                .defaultIfEmpty(AuditActor.SYSTEM)
+                .flatMap(actor -> chain.filter(exchange).contextWrite(ctx -> ctx.put(AuditActor.CONTEXT_KEY, actor)));
+    }
+
+    private String actorOf(Principal principal) {
+        if (principal instanceof CustomAuthenticationToken token) {
+            String email = token.getJwt().getClaimAsString("email");
+            return email != null ? email : token.getName();
+        }
+        return principal.getName();
+    }
+}
@@ -0,0 +1,202 @@
+package pe.edu.vallegrande.foodcost.audit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.model.FoodCostAudit;
+import pe.edu.vallegrande.foodcost.repository.FoodCostAuditBatchRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+
+/**
+ * Registro de auditoría asíncrono: cada FoodCostChangedEvent se encola en un MpscRingBuffer
+ * (sin bloqueos ni I/O en el hilo de la petición) y un único hilo de fondo lo vacía cada
+ * audit.flush-interval, agrupando por shard e insertando lotes de hasta audit.batch-size filas.
+ * Si el buffer está lleno el evento se descarta y se cuenta en audit.overflow; un lote que falla
+ * se reintenta en los siguientes ciclos antes de descartarse (audit.dropped).
+ */
+@Component
+public class FoodCostAuditWriter {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MpscRingBuffer<PendingAudit> buffer;
+    private final FoodCostAuditBatchRepository auditBatchRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration writeTimeout;
+    private final ScheduledExecutorService executor;
+    private final Counter overflowCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Timer flushTimer;
+
+    // Solo los usa el hilo escritor
+    private final List<FailedBatch> failedBatches = new ArrayList<>();
+    private volatile long flushLagMillis;
+
+    public FoodCostAuditWriter(FoodCostAuditBatchRepository auditBatchRepository,
+                               ShardRouter shardRouter,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${audit.buffer-capacity:65536}") int bufferCapacity,
+                               @Value("${audit.batch-size:500}") int batchSize,
+                               @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+                               @Value("${audit.write-timeout:10s}") Duration writeTimeout) {
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.auditBatchRepository = auditBatchRepository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.writeTimeout = writeTimeout;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "foodcost-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("audit.queue.size", buffer, MpscRingBuffer::size)
+                .description("Entradas de auditoría pendientes de escribir")
+                .register(meterRegistry);
+        Gauge.builder("audit.flush.lag", this, writer -> writer.flushLagMillis)
+                .description("Milisegundos entre el cambio y la escritura de la entrada más antigua del último lote")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("audit.overflow").register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.dropped").register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.duration").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Al apagar se detiene el ciclo y se escribe lo que quede en el buffer
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        // El buffer tiene un único consumidor: solo se vacía aquí si el hilo escritor ya terminó
+        if (executor.awaitTermination(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            flush();
+        }
+    }
+
+    // Corre en el hilo que hizo la escritura: solo captura el actor y encola
+    @EventListener
+    public void onFoodCostChanged(FoodCostChangedEvent event) {
+        if (event.getIdFoodCosts() == null) {
+            return;
+        }
+        if (!buffer.offer(new PendingAudit(event, AuditActor.current(), Instant.now(), System.nanoTime()))) {
+            overflowCounter.increment();
+        }
+    }
+
+    void flush() {
+        try {
+            retryFailedBatches();
+            List<PendingAudit> drained = new ArrayList<>(batchSize);
+            while (buffer.drainTo(drained, batchSize) > 0) {
+                long start = System.nanoTime();
+                flushLagMillis = TimeUnit.NANOSECONDS.toMillis(start - drained.get(0).enqueuedNanos());
+                toEntriesByShard(drained).forEach((shard, entries) -> write(shard, entries, 1));
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                drained.clear();
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría el ciclo programado
+            System.out.println("Error al escribir la auditoría: " + e.getMessage());
+        }
+    }
+
+    private void retryFailedBatches() {
+        if (failedBatches.isEmpty()) {
+            return;
+        }
+        List<FailedBatch> retries = new ArrayList<>(failedBatches);
+        failedBatches.clear();
+        retries.forEach(failed -> write(failed.shard(), failed.entries(), failed.attempt() + 1));
+    }
+
+    // El hilo escritor es propio, por lo que puede esperar el resultado de cada lote
+    private void write(String shard, List<FoodCostAudit> entries, int attempt) {
+        try {
+            shardRouter.onShard(shard, auditBatchRepository.insertAll(entries)).block(writeTimeout);
+            writtenCounter.increment(entries.size());
+        } catch (RuntimeException e) {
+            if (attempt < MAX_ATTEMPTS) {
+                failedBatches.add(new FailedBatch(shard, entries, attempt));
+            } else {
+                droppedCounter.increment(entries.size());
+                System.out.println("Se descartaron " + entries.size() + " entradas de auditoría del shard " + shard + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, List<FoodCostAudit>> toEntriesByShard(List<PendingAudit> pending) {
+        Map<String, List<FoodCostAudit>> byShard = new LinkedHashMap<>();
+        for (PendingAudit audit : pending) {
+            FoodCostAudit entry = toEntry(audit);
+            byShard.computeIfAbsent(shardRouter.shardFor(entry.getShedId()), shard -> new ArrayList<>()).add(entry);
+        }
+        return byShard;
+    }
+
+    private FoodCostAudit toEntry(PendingAudit pending) {
+        FoodCostChangedEvent event = pending.event();
+        FoodCost image = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        FoodCostAudit entry = new FoodCostAudit();
+        entry.setIdFoodCosts(event.getIdFoodCosts());
+        entry.setShedId(image.getShedId());
+        entry.setAction(event.getType().name());
+        entry.setActor(pending.actor());
+        entry.setBeforeImage(toJson(event.getBefore()));
+        entry.setAfterImage(toJson(event.getAfter()));
+        entry.setChangedAt(pending.changedAt());
+        return entry;
+    }
+
+    private String toJson(FoodCost image) {
+        if (image == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(image);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el registro " + image.getIdFoodCosts(), e);
+        }
+    }
+
+    private record PendingAudit(FoodCostChangedEvent event, String actor, Instant changedAt, long enqueuedNanos) {
+    }
+
+    private record FailedBatch(String shard, List<FoodCostAudit> entries, int attempt) {
+    }
+}
@@ -0,0 +1,200 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadWebFilter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Control de admisión delante de /api/food-costs: se ejecuta después de la cadena de seguridad,
+ * aplica un token bucket por sujeto del JWT (capacidad según rol ADMIN/USER) y un límite de
+ * concurrencia adaptativo a las peticiones INTERACTIVE. Rechaza con 429 cuando el cliente excede
+ * su cuota y con 503 cuando el servicio está saturado, antes de que se agote el pool de conexiones.
+ * Los endpoints BULK (listados en streaming, procesos por lotes) solo pasan por el token bucket:
+ * duran por diseño más que la latencia objetivo y bajarían el límite de las altas y ediciones;
+ * su concurrencia ya la acotan sus propios pools y el BulkGovernor.
+ * El mapa de buckets está acotado: un barrido periódico, fuera del camino de las peticiones, quita
+ * los inactivos y, si aún sobran, los de actividad más antigua. Mientras el mapa está lleno los
+ * clientes nuevos comparten un bucket de desborde hasta el siguiente barrido.
+ */
+@Component
+@ConditionalOnWebApplication
+public class AdmissionControlWebFilter implements WebFilter {
+
+    private static final String API_PATH = "/api/food-costs";
+    private static final String ANONYMOUS = "anonymous";
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+    // El barrido deja lugar para los clientes nuevos hasta el siguiente
+    private static final int SWEEP_TARGET_CLIENTS = MAX_TRACKED_CLIENTS * 9 / 10;
+    private static final long IDLE_BUCKET_NANOS = Duration.ofMinutes(10).toNanos();
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(30);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final WorkloadWebFilter workloadClassifier;
+    private final boolean enabled;
+    private final long adminCapacity;
+    private final double adminRefillPerSecond;
+    private final long userCapacity;
+    private final double userRefillPerSecond;
+    private final Counter rateLimitRejections;
+    private final Counter concurrencyRejections;
+    private Disposable sweep;
+
+    public AdmissionControlWebFilter(MeterRegistry meterRegistry,
+                                     WorkloadWebFilter workloadClassifier,
+                                     @Value("${admission.enabled:true}") boolean enabled,
+                                     @Value("${admission.rate-limit.admin.capacity:50}") long adminCapacity,
+                                     @Value("${admission.rate-limit.admin.refill-per-second:20}") double adminRefillPerSecond,
+                                     @Value("${admission.rate-limit.user.capacity:100}") long userCapacity,
+                                     @Value("${admission.rate-limit.user.refill-per-second:50}") double userRefillPerSecond,
+                                     @Value("${admission.concurrency.initial-limit:10}") int initialLimit,
+                                     @Value("${admission.concurrency.min-limit:2}") int minLimit,
+                                     @Value("${admission.concurrency.max-limit:40}") int maxLimit,
+                                     @Value("${admission.concurrency.target-latency:500ms}") Duration targetLatency,
+                                     @Value("${admission.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.workloadClassifier = workloadClassifier;
+        this.adminCapacity = adminCapacity;
+        this.adminRefillPerSecond = adminRefillPerSecond;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.overflowBucket = new TokenBucket(userCapacity, userRefillPerSecond, System.nanoTime());
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, targetLatency.toNanos(), backoffRatio);
+
+        Gauge.builder("admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Límite de concurrencia adaptativo actual")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests admitidos en curso")
+                .register(meterRegistry);
+        Gauge.builder("admission.rate-limit.clients", buckets, Map::size)
+                .description("Clientes con token bucket activo")
+                .register(meterRegistry);
+        this.rateLimitRejections = Counter.builder("admission.rejections").tag("reason", "rate-limit").register(meterRegistry);
+        this.concurrencyRejections = Counter.builder("admission.rejections").tag("reason", "concurrency").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweep = Flux.interval(SWEEP_INTERVAL, SWEEP_INTERVAL)
+                .subscribe(tick -> sweepBuckets(System.nanoTime()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweep != null) {
+            sweep.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled || !exchange.getRequest().getPath().value().startsWith(API_PATH)) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(this::bucketFor)
+                .switchIfEmpty(Mono.fromSupplier(() -> bucket(ANONYMOUS, userCapacity, userRefillPerSecond)))
+                .flatMap(bucket -> workloadClassifier.classify(exchange) == WorkloadClass.BULK
+                        ? admitBulk(exchange, chain, bucket)
+                        : admit(exchange, chain, bucket));
+    }
+
+    // El permiso de concurrencia se toma antes que el token: un 503 no le gasta cuota al cliente
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, TokenBucket bucket) {
+        if (!limiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        long now = System.nanoTime();
+        if (!bucket.tryConsume(now)) {
+            limiter.abandon();
+            return rejectRateLimited(exchange, bucket, now);
+        }
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(System.nanoTime() - now, isOverloaded(exchange, signal)));
+    }
+
+    private Mono<Void> admitBulk(ServerWebExchange exchange, WebFilterChain chain, TokenBucket bucket) {
+        long now = System.nanoTime();
+        return bucket.tryConsume(now) ? chain.filter(exchange) : rejectRateLimited(exchange, bucket, now);
+    }
+
+    private Mono<Void> rejectRateLimited(ServerWebExchange exchange, TokenBucket bucket, long now) {
+        rateLimitRejections.increment();
+        long retryAfterSeconds = Math.max(1, Duration.ofNanos(bucket.nanosUntilNextToken(now)).toSeconds());
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return reject(exchange, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private boolean isOverloaded(ServerWebExchange exchange, SignalType signal) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        return exchange.getResponse().setComplete();
+    }
+
+    // El principal es el CustomAuthenticationToken construido por SecurityConfig.convertJwt
+    private TokenBucket bucketFor(Principal principal) {
+        boolean admin = principal instanceof CustomAuthenticationToken token
+                && token.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch("ROLE_ADMIN"::equals);
+        return admin
+                ? bucket(principal.getName(), adminCapacity, adminRefillPerSecond)
+                : bucket(principal.getName(), userCapacity, userRefillPerSecond);
+    }
+
+    // Solo lecturas e inserciones O(1): el tamaño del mapa lo controla sweepBuckets
+    private TokenBucket bucket(String client, long capacity, double refillPerSecond) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_TRACKED_CLIENTS) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillPerSecond, System.nanoTime()));
+    }
+
+    // Quita los buckets inactivos y, si todavía hay más de SWEEP_TARGET_CLIENTS, los de actividad más antigua
+    void sweepBuckets(long now) {
+        buckets.values().removeIf(idle -> now - idle.lastActivityNanos() > IDLE_BUCKET_NANOS);
+        int excess = buckets.size() - SWEEP_TARGET_CLIENTS;
+        if (excess > 0) {
+            buckets.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastActivityNanos()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(buckets::remove);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Negociación de contenido para consumidores internos: además de JSON (por defecto),
+ * las respuestas y los cuerpos de petición aceptan application/cbor y application/x-jackson-smile
+ * usando la misma configuración de Jackson que JSON (fechas, nulos, módulos).
+ * Las respuestas JSON de FoodCost usan un encoder dedicado (FoodCostJsonEncoder).
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+    private final int foodCostFlushThreshold;
+
+    public CodecConfig(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                       @Value("${codec.food-cost.flush-threshold:8192}") int foodCostFlushThreshold) {
+        this.cborMapper = binaryMapper(objectMapperBuilder, new CBORFactory());
+        this.smileMapper = binaryMapper(objectMapperBuilder, new SmileFactory());
+        this.foodCostFlushThreshold = foodCostFlushThreshold;
+    }
+
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder objectMapperBuilder, JsonFactory factory) {
+        return objectMapperBuilder.factory(factory).build();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // Smile viene registrado por defecto al estar en el classpath; se reemplaza por la versión configurada
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+        configurer.defaultCodecs().jackson2SmileEncoder(new CollectingJackson2Encoder(new Jackson2SmileEncoder(smileMapper)));
+
+        // Los codecs personalizados de objetos se evalúan después de JSON, que sigue siendo el formato por defecto
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        configurer.customCodecs().register(new CollectingJackson2Encoder(new Jackson2CborEncoder(cborMapper)));
+
+        // Encoder tipado: solo acepta FoodCost, por lo que se evalúa antes que el Jackson genérico de JSON
+        configurer.customCodecs().register(new FoodCostJsonEncoder(foodCostFlushThreshold));
+    }
+}
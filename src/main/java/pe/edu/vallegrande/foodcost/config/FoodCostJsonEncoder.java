@@ -0,0 +1,411 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Encoder JSON dedicado a FoodCost. Evita la serialización reflexiva de Jackson: los nombres de
+ * campo van pre-codificados en UTF-8, los números, fechas y decimales se escriben dígito a dígito en
+ * un arreglo de trabajo por hilo que se reutiliza entre respuestas, y cada elemento se copia de una vez al
+ * DataBuffer en curso (en el servidor, un ByteBuf del pool de Netty). Un Flux se escribe como arreglo
+ * JSON en buffers de codec.food-cost.flush-threshold bytes: cuando el siguiente elemento no cabe se
+ * emite el buffer actual y se pide otro, así ninguno crece ni se copia.
+ * La salida es la misma que produce el ObjectMapper de Spring Boot para FoodCost.
+ */
+public class FoodCostJsonEncoder implements HttpMessageEncoder<FoodCost> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON);
+
+    private static final byte[] ID_FOOD_COSTS = field("idFoodCosts", true);
+    private static final byte[] WEEK_NUMBER = field("weekNumber", false);
+    private static final byte[] FOOD_TYPE = field("foodType", false);
+    private static final byte[] GRAMS_PER_CHICKEN = field("gramsPerChicken", false);
+    private static final byte[] TOTAL_KG = field("totalKg", false);
+    private static final byte[] TOTAL_COST = field("totalCost", false);
+    private static final byte[] START_DATE = field("startDate", false);
+    private static final byte[] END_DATE = field("endDate", false);
+    private static final byte[] SHED_NAME = field("shedName", false);
+    private static final byte[] SHED_ID = field("shedId", false);
+    private static final byte[] HENS_ID = field("hensId", false);
+    private static final byte[] STATUS = field("status", false);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    // Un arreglo de trabajo que creció por un elemento enorme no se conserva por encima de este tamaño
+    private static final int MAX_RETAINED_SCRATCH = 64 * 1024;
+    // Cada escritura es síncrona y copia el resultado antes de volver, por eso alcanza uno por hilo
+    private static final ThreadLocal<JsonOutput> SCRATCH = ThreadLocal.withInitial(JsonOutput::new);
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final int flushThreshold;
+
+    public FoodCostJsonEncoder(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return FoodCost.class.equals(elementType.resolve())
+                && (mimeType == null || mimeType.isWildcardType()
+                || MediaType.APPLICATION_JSON.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends FoodCost> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        return Flux.defer(() -> {
+            ArrayWriter writer = new ArrayWriter(bufferFactory);
+            return Flux.<FoodCost>from(inputStream)
+                    .<DataBuffer>handle((foodCost, sink) -> {
+                        DataBuffer full = writer.write(foodCost);
+                        if (full != null) {
+                            sink.next(full);
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(writer::finish))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doOnError(error -> writer.release())
+                    .doOnCancel(writer::release);
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(FoodCost value, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        JsonOutput out = scratch();
+        out.writeFoodCost(value);
+        DataBuffer buffer = bufferFactory.allocateBuffer(out.size);
+        buffer.write(out.bytes, 0, out.size);
+        return buffer;
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return Collections.emptyList();
+    }
+
+    private static JsonOutput scratch() {
+        JsonOutput out = SCRATCH.get();
+        if (out.bytes.length > MAX_RETAINED_SCRATCH) {
+            out = new JsonOutput();
+            SCRATCH.set(out);
+        }
+        out.size = 0;
+        return out;
+    }
+
+    private static byte[] field(String name, boolean first) {
+        return ((first ? "{\"" : ",\"") + name + "\":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Estado de un único Flux: el buffer en curso
+    private final class ArrayWriter {
+
+        private final DataBufferFactory bufferFactory;
+        private DataBuffer current;
+        private boolean first = true;
+
+        private ArrayWriter(DataBufferFactory bufferFactory) {
+            this.bufferFactory = bufferFactory;
+        }
+
+        // Devuelve el buffer anterior cuando el elemento ya no cabe en él, o null si sigue acumulando.
+        // Cada buffer reserva un byte para el ']' final
+        private DataBuffer write(FoodCost foodCost) {
+            JsonOutput out = scratch();
+            out.writeByte(first ? (byte) '[' : (byte) ',');
+            first = false;
+            out.writeFoodCost(foodCost);
+            DataBuffer full = null;
+            if (current != null && current.writableByteCount() < out.size + 1) {
+                full = current;
+                current = null;
+            }
+            if (current == null) {
+                current = bufferFactory.allocateBuffer(Math.max(flushThreshold, out.size) + 1);
+            }
+            current.write(out.bytes, 0, out.size);
+            return full;
+        }
+
+        private DataBuffer finish() {
+            DataBuffer last = current != null ? current : bufferFactory.allocateBuffer(2);
+            current = null;
+            if (first) {
+                last.write((byte) '[');
+            }
+            last.write((byte) ']');
+            return last;
+        }
+
+        private void release() {
+            DataBuffer pending = current;
+            current = null;
+            if (pending != null) {
+                DataBufferUtils.release(pending);
+            }
+        }
+    }
+
+    // Arreglo de bytes que crece según haga falta; se reutiliza para todos los elementos de un Flux
+    private static final class JsonOutput {
+
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        private void writeFoodCost(FoodCost foodCost) {
+            writeBytes(ID_FOOD_COSTS);
+            writeLong(foodCost.getIdFoodCosts());
+            writeBytes(WEEK_NUMBER);
+            writeString(foodCost.getWeekNumber());
+            writeBytes(FOOD_TYPE);
+            writeString(foodCost.getFoodType());
+            writeBytes(GRAMS_PER_CHICKEN);
+            writeDecimal(foodCost.getGramsPerChicken());
+            writeBytes(TOTAL_KG);
+            writeDecimal(foodCost.getTotalKg());
+            writeBytes(TOTAL_COST);
+            writeDecimal(foodCost.getTotalCost());
+            writeBytes(START_DATE);
+            writeDate(foodCost.getStartDate());
+            writeBytes(END_DATE);
+            writeDate(foodCost.getEndDate());
+            writeBytes(SHED_NAME);
+            writeString(foodCost.getShedName());
+            writeBytes(SHED_ID);
+            writeLong(foodCost.getShedId());
+            writeBytes(HENS_ID);
+            writeLong(foodCost.getHensId());
+            writeBytes(STATUS);
+            writeString(foodCost.getStatus());
+            writeByte((byte) '}');
+        }
+
+        private void writeLong(Long value) {
+            if (value == null) {
+                writeBytes(NULL);
+            } else {
+                writeDigits(value);
+            }
+        }
+
+        private void writeDigits(long value) {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(Long.toString(value));
+                return;
+            }
+            ensure(20);
+            if (value < 0) {
+                bytes[size++] = '-';
+                value = -value;
+            }
+            int end = size + digitCount(value);
+            for (int i = end - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size = end;
+        }
+
+        // Igual que BigDecimal.toString(): notación plana salvo exponente negativo o exponente ajustado < -6
+        private void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                writeBytes(NULL);
+                return;
+            }
+            int scale = value.scale();
+            BigInteger unscaled = value.unscaledValue();
+            if (scale < 0 || scale > 18 || unscaled.bitLength() > 62) {
+                writeAscii(value.toString());
+                return;
+            }
+            long digits = unscaled.longValue();
+            boolean negative = digits < 0;
+            long magnitude = Math.abs(digits);
+            int precision = digitCount(magnitude);
+            if (precision - scale - 1 < -6) {
+                writeAscii(value.toString());
+                return;
+            }
+            ensure(precision + scale + 3);
+            if (negative) {
+                bytes[size++] = '-';
+            }
+            if (scale == 0) {
+                writeDigits(magnitude);
+                return;
+            }
+            long pow = POWERS_OF_TEN[scale];
+            writeDigits(magnitude / pow);
+            bytes[size++] = '.';
+            long fraction = magnitude % pow;
+            for (int i = size + scale - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            size += scale;
+        }
+
+        // yyyy-MM-dd como LocalDate.toString() (formato de fechas de Spring Boot); años fuera de 0..9999 usan toString
+        private void writeDate(LocalDate date) {
+            if (date == null) {
+                writeBytes(NULL);
+                return;
+            }
+            int year = date.getYear();
+            if (year < 0 || year > 9999) {
+                writeByte((byte) '"');
+                writeAscii(date.toString());
+                writeByte((byte) '"');
+                return;
+            }
+            ensure(12);
+            bytes[size++] = '"';
+            bytes[size++] = (byte) ('0' + year / 1000);
+            bytes[size++] = (byte) ('0' + year / 100 % 10);
+            bytes[size++] = (byte) ('0' + year / 10 % 10);
+            bytes[size++] = (byte) ('0' + year % 10);
+            bytes[size++] = '-';
+            writeTwoDigits(date.getMonthValue());
+            bytes[size++] = '-';
+            writeTwoDigits(date.getDayOfMonth());
+            bytes[size++] = '"';
+        }
+
+        private void writeTwoDigits(int value) {
+            bytes[size++] = (byte) ('0' + value / 10);
+            bytes[size++] = (byte) ('0' + value % 10);
+        }
+
+        // Codifica UTF-8 a mano y escapa como Jackson: comillas, barra invertida y caracteres de control
+        private void writeString(String value) {
+            if (value == null) {
+                writeBytes(NULL);
+                return;
+            }
+            int length = value.length();
+            ensure(length * 6 + 2);
+            bytes[size++] = '"';
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x80) {
+                    writeEscaped(c);
+                } else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Surrogate suelto: se escapa para que el JSON siga siendo UTF-8 válido
+                    writeUnicodeEscape(c);
+                } else {
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            bytes[size++] = '"';
+        }
+
+        private void writeEscaped(char c) {
+            bytes[size++] = '\\';
+            switch (c) {
+                case '"' -> bytes[size++] = '"';
+                case '\\' -> bytes[size++] = '\\';
+                case '\n' -> bytes[size++] = 'n';
+                case '\r' -> bytes[size++] = 'r';
+                case '\t' -> bytes[size++] = 't';
+                case '\b' -> bytes[size++] = 'b';
+                case '\f' -> bytes[size++] = 'f';
+                default -> {
+                    size--;
+                    writeUnicodeEscape(c);
+                }
+            }
+        }
+
+        private void writeUnicodeEscape(char c) {
+            bytes[size++] = '\\';
+            bytes[size++] = 'u';
+            bytes[size++] = HEX[(c >> 12) & 0xF];
+            bytes[size++] = HEX[(c >> 8) & 0xF];
+            bytes[size++] = HEX[(c >> 4) & 0xF];
+            bytes[size++] = HEX[c & 0xF];
+        }
+
+        private void writeAscii(String value) {
+            int length = value.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeBytes(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
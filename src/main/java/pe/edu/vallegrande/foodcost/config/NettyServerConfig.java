@@ -0,0 +1,51 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Ajustes del servidor Reactor Netty que Spring Boot no expone como propiedades:
+ * backlog de conexiones pendientes y event loops propios del servidor HTTP.
+ * HTTP/2 (h2c), compresión e idle-timeout se configuran en application.yml (server.*).
+ */
+@Configuration
+@ConditionalOnWebApplication
+public class NettyServerConfig {
+
+    /**
+     * Event loops exclusivos del servidor para no compartirlos con los WebClient de Food y Hens.
+     * Como bean, Spring los libera al cerrar el contexto, después de detener el servidor.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnExpression("${http-server.worker-threads:0} > 0")
+    public LoopResources httpServerLoopResources(
+            @Value("${http-server.select-threads:1}") int selectThreads,
+            @Value("${http-server.worker-threads:0}") int workerThreads) {
+        return LoopResources.create("foodcost-http", selectThreads, workerThreads, true);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> nettyServerCustomizer(
+            @Value("${http-server.accept-backlog:1024}") int acceptBacklog,
+            ObjectProvider<LoopResources> httpServerLoopResources) {
+        return factory -> factory.addServerCustomizers(
+                httpServer -> tune(httpServer, acceptBacklog, httpServerLoopResources.getIfAvailable()));
+    }
+
+    private HttpServer tune(HttpServer httpServer, int acceptBacklog, LoopResources loopResources) {
+        HttpServer tuned = httpServer.option(ChannelOption.SO_BACKLOG, acceptBacklog);
+        if (loopResources != null) {
+            tuned = tuned.runOn(loopResources);
+        }
+        return tuned;
+    }
+}
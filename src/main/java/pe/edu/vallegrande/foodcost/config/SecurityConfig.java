@@ -1,6 +1,7 @@
 package pe.edu.vallegrande.foodcost.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,6 +26,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 
 @Configuration
+@ConditionalOnWebApplication
 @EnableWebFluxSecurity
 @EnableReactiveMethodSecurity
 public class SecurityConfig {
@@ -47,7 +49,11 @@ public class SecurityConfig {
                 .authorizeExchange(auth -> auth
                         .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .pathMatchers("/swagger-ui.html", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.GET, "/api/food-costs/**").hasAnyRole("USER", "ADMIN")
+                        // La proyección no modifica datos: es un POST solo porque recibe los escenarios en el cuerpo
+                        .pathMatchers(HttpMethod.POST, "/api/food-costs/projections").hasAnyRole("USER", "ADMIN")
                         .pathMatchers(HttpMethod.POST, "/api/food-costs/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PUT, "/api/food-costs/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.DELETE, "/api/food-costs/**").hasRole("ADMIN")
@@ -0,0 +1,52 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sin locks: el estado (tokens disponibles, último recargo) es inmutable
+ * y se reemplaza con compareAndSet, de modo que muchos requests del mismo cliente
+ * pueden consumir en paralelo sin bloquear el event loop.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    public boolean tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double available = refill(current, nowNanos);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, Math.max(nowNanos, current.lastRefillNanos)))) {
+                return true;
+            }
+        }
+    }
+
+    // Nanosegundos hasta que haya un token disponible (para el header Retry-After)
+    public long nanosUntilNextToken(long nowNanos) {
+        double missing = 1 - refill(state.get(), nowNanos);
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    public long lastActivityNanos() {
+        return state.get().lastRefillNanos;
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.lastRefillNanos);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+    }
+}
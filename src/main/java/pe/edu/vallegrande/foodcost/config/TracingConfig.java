@@ -0,0 +1,27 @@
+package pe.edu.vallegrande.foodcost.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Trazas distribuidas: Spring Boot crea los spans de cada ruta de los controladores, de cada llamada
+ * de los WebClient (que además propagan traceparent) y de cada sentencia R2DBC (r2dbc-proxy).
+ * El muestreo se controla con management.tracing.sampling.probability; la exportación va al colector
+ * OTLP si se define management.otlp.tracing.endpoint y/o a un archivo local con tracing.file.enabled.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file.path:./logs/traces.jsonl}") String path) throws IOException {
+        return new FileSpanExporter(Paths.get(path));
+    }
+}
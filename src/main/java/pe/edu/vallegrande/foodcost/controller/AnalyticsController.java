@@ -0,0 +1,60 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.analytics.FoodCostTimeSeriesIndex;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShedCostSummaryDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.WeeklyCostPointDto;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidAnalyticsQueryException;
+import reactor.core.publisher.Flux;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/analytics")
+@AllArgsConstructor
+public class AnalyticsController {
+
+    private static final int MAX_WINDOW = 52;
+
+    private final FoodCostTimeSeriesIndex timeSeriesIndex;
+
+    // Las consultas se resuelven en el índice en memoria, sin ir a la base de datos
+    @GetMapping("/sheds/{shedId}/series")
+    public Flux<WeeklyCostPointDto> getSeries(@PathVariable Long shedId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        validateRange(from, to);
+        return Flux.fromIterable(timeSeriesIndex.range(shedId, from, to));
+    }
+
+    @GetMapping("/sheds/{shedId}/moving-average")
+    public Flux<WeeklyCostPointDto> getMovingAverage(@PathVariable Long shedId,
+                                                     @RequestParam(defaultValue = "4") int window,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        validateRange(from, to);
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new InvalidAnalyticsQueryException("La ventana debe estar entre 1 y " + MAX_WINDOW + " semanas");
+        }
+        return Flux.fromIterable(timeSeriesIndex.movingAverage(shedId, from, to, window));
+    }
+
+    // Sin shedIds compara todos los galpones con registros activos
+    @GetMapping("/compare")
+    public Flux<ShedCostSummaryDto> compareSheds(@RequestParam(required = false) List<Long> shedIds,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        validateRange(from, to);
+        return Flux.fromIterable(timeSeriesIndex.compare(shedIds, from, to));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidAnalyticsQueryException("El rango de fechas es inválido");
+        }
+    }
+}
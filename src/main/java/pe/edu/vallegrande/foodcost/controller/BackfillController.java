@@ -0,0 +1,28 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.BackfillReportDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.BackfillRequestDto;
+import pe.edu.vallegrande.foodcost.service.BackfillService;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/backfill")
+@AllArgsConstructor
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    // Con dryRun=true (por defecto) solo reporta los periodos faltantes sin insertar
+    @PostMapping
+    @Workload(WorkloadClass.BULK)
+    public Mono<ResponseEntity<BackfillReportDto>> backfill(@RequestBody BackfillRequestDto dto) {
+        return backfillService.backfill(dto)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,29 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostAuditDto;
+import pe.edu.vallegrande.foodcost.service.FoodCostAuditService;
+import reactor.core.publisher.Flux;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/audit")
+@AllArgsConstructor
+public class FoodCostAuditController {
+
+    private final FoodCostAuditService foodCostAuditService;
+
+    // Historial de un registro, del cambio más reciente al más antiguo
+    @GetMapping("/{idFoodCosts}")
+    public Flux<FoodCostAuditDto> getAuditByFoodCost(@PathVariable Long idFoodCosts,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        return foodCostAuditService.getByFoodCost(idFoodCosts, limit);
+    }
+
+    @GetMapping("/sheds/{shedId}")
+    public Flux<FoodCostAuditDto> getAuditByShed(@PathVariable Long shedId,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        return foodCostAuditService.getByShed(shedId, limit);
+    }
+}
@@ -0,0 +1,30 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.CsvImportReportDto;
+import pe.edu.vallegrande.foodcost.service.FoodCostImportService;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/imports")
+@AllArgsConstructor
+public class FoodCostImportController {
+
+    private final FoodCostImportService foodCostImportService;
+
+    // El cuerpo es el CSV crudo (text/csv) y se procesa mientras llega; con validateOnly=true no se escribe nada
+    @PostMapping(consumes = {"text/csv", "text/plain"})
+    @Workload(WorkloadClass.BULK)
+    public Mono<ResponseEntity<CsvImportReportDto>> importCsv(@RequestBody Flux<DataBuffer> content,
+                                                              @RequestParam(defaultValue = "false") boolean validateOnly) {
+        return foodCostImportService.importCsv(content, validateOnly)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,15 +1,23 @@
 package pe.edu.vallegrande.foodcost.controller;
 
 import lombok.AllArgsConstructor;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.service.FoodCostSearchService;
 import pe.edu.vallegrande.foodcost.service.FoodCostsService;
+import pe.edu.vallegrande.foodcost.service.IdempotencyService;
 import pe.edu.vallegrande.foodcost.service.UpdateCostService;
 import pe.edu.vallegrande.foodcost.service.InsertCostService;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostPageDto;
 import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostRequestDto;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -22,37 +30,81 @@ public class FoodCostsController {
     private final FoodCostsService foodCostsService;
     private final UpdateCostService updateCostService;
     private final InsertCostService insertCostService;
+    private final IdempotencyService idempotencyService;
+    private final FoodCostSearchService foodCostSearchService;
 
 
+    // Búsqueda paginada: para la página siguiente se envía el nextCursor de la respuesta anterior
+    @GetMapping
+    public Mono<ResponseEntity<FoodCostPageDto>> searchCosts(
+            @RequestParam(required = false) Long shedId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String foodType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FoodCostSearchService.DEFAULT_PAGE_SIZE) int limit) {
+        return foodCostSearchService.search(shedId, from, to, foodType, cursor, limit)
+                .map(ResponseEntity::ok);
+    }
+
+    // Los listados completos corren como carga BULK (pools propios) para no competir con las altas
     @GetMapping("/actives")
+    @Workload(WorkloadClass.BULK)
     public Flux<FoodCost> getAllActiveCost() {
         return foodCostsService.getAllActiveCosts();
     }
 
+    // Con ?fields=weekNumber,shedName,totalCost solo se consultan y serializan esas propiedades
+    @GetMapping(value = "/actives", params = "fields")
+    @Workload(WorkloadClass.BULK)
+    public Flux<Map<String, Object>> getAllActiveCostFields(@RequestParam String fields) {
+        return foodCostsService.getAllActiveCosts(fields);
+    }
+
     @GetMapping("/inactives")
+    @Workload(WorkloadClass.BULK)
     public Flux<FoodCost> getAllInactiveCost() {
         return foodCostsService.getAllInactiveCosts();
     }
 
+    @GetMapping(value = "/inactives", params = "fields")
+    @Workload(WorkloadClass.BULK)
+    public Flux<Map<String, Object>> getAllInactiveCostFields(@RequestParam String fields) {
+        return foodCostsService.getAllInactiveCosts(fields);
+    }
+
     @GetMapping("/search/{weekNumber}")
     public Flux<FoodCost> getByWeekNumber(@PathVariable String weekNumber) {
         return foodCostsService.getByWeekNumber(weekNumber);
     }
 
+    @GetMapping(value = "/search/{weekNumber}", params = "fields")
+    public Flux<Map<String, Object>> getByWeekNumberFields(@PathVariable String weekNumber, @RequestParam String fields) {
+        return foodCostsService.getByWeekNumber(weekNumber, fields);
+    }
+
     @PostMapping
-    public Mono<ResponseEntity<Map<String, String>>> createFoodCost(@RequestBody FoodCostRequestDto dto) {
-        return insertCostService.addFoodCost(dto)
-                .thenReturn(ResponseEntity.ok(Collections.singletonMap("message", "Registro insertado correctamente")));
+    public Mono<ResponseEntity<Map<String, String>>> createFoodCost(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody FoodCostRequestDto dto,
+            Principal principal) {
+
+        return idempotencyService.execute(idempotencyKey, principal.getName(), "POST /api/food-costs", dto,
+                () -> insertCostService.addFoodCost(dto)
+                        .thenReturn(ResponseEntity.ok(Collections.singletonMap("message", "Registro insertado correctamente"))));
     }
 
     @PutMapping("/{idFoodCosts}")
     public Mono<ResponseEntity<Map<String, String>>> updateFoodCost(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @PathVariable Long idFoodCosts,
-            @RequestBody FoodCostRequestDto dto) {
+            @RequestBody FoodCostRequestDto dto,
+            Principal principal) {
 
-        return updateCostService.updateFoodCost(idFoodCosts, dto)
-                .thenReturn(
-                        ResponseEntity.ok(Collections.singletonMap("message", "Registro actualizado correctamente")));
+        return idempotencyService.execute(idempotencyKey, principal.getName(), "PUT /api/food-costs/" + idFoodCosts, dto,
+                () -> updateCostService.updateFoodCost(idFoodCosts, dto)
+                        .thenReturn(
+                                ResponseEntity.ok(Collections.singletonMap("message", "Registro actualizado correctamente"))));
     }
 
     @PutMapping("/delete/{id}")
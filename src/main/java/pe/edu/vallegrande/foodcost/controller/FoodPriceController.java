@@ -0,0 +1,45 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodPriceRequestDto;
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import pe.edu.vallegrande.foodcost.service.FoodPriceService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/prices")
+@AllArgsConstructor
+public class FoodPriceController {
+
+    private final FoodPriceService foodPriceService;
+
+    @GetMapping("/foods/{foodId}")
+    public Flux<FoodPrice> getHistory(@PathVariable Long foodId) {
+        return foodPriceService.getHistory(foodId);
+    }
+
+    // Precio vigente del alimento en la fecha indicada (hoy por defecto)
+    @GetMapping("/foods/{foodId}/effective")
+    public Mono<ResponseEntity<Map<String, Object>>> getEffectivePrice(
+            @PathVariable Long foodId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate effectiveDate = date != null ? date : LocalDate.now();
+        return foodPriceService.resolveUnitPrice(foodId, effectiveDate)
+                .map(unitPrice -> ResponseEntity.ok(Map.<String, Object>of("foodId", foodId, "date", effectiveDate, "unitPrice", unitPrice)));
+    }
+
+    @PostMapping("/foods/{foodId}")
+    public Mono<ResponseEntity<FoodPrice>> addPrice(@PathVariable Long foodId, @RequestBody FoodPriceRequestDto dto) {
+        return foodPriceService.addPrice(foodId, dto)
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
+    }
+}
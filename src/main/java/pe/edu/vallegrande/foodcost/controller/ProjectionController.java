@@ -0,0 +1,25 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionReportDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionRequestDto;
+import pe.edu.vallegrande.foodcost.service.FeedCostProjectionService;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/projections")
+@AllArgsConstructor
+public class ProjectionController {
+
+    private final FeedCostProjectionService feedCostProjectionService;
+
+    // Proyecta las próximas semanas de cada galpón bajo cada escenario; no escribe en la base
+    @PostMapping
+    public Mono<ResponseEntity<ProjectionReportDto>> project(@RequestBody ProjectionRequestDto dto) {
+        return feedCostProjectionService.project(dto)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,34 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.RecalculationJobDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.RecalculationRequestDto;
+import pe.edu.vallegrande.foodcost.service.RecalculationService;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/recalculations")
+@AllArgsConstructor
+public class RecalculationController {
+
+    private final RecalculationService recalculationService;
+
+    @PostMapping
+    @Workload(WorkloadClass.BULK)
+    public Mono<ResponseEntity<RecalculationJobDto>> startRecalculation(@RequestBody RecalculationRequestDto dto) {
+        return recalculationService.startRecalculation(dto)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job));
+    }
+
+    @GetMapping("/{jobId}")
+    public Mono<ResponseEntity<RecalculationJobDto>> getRecalculation(@PathVariable String jobId) {
+        return recalculationService.getJob(jobId)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,33 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.ReconciliationReportDto;
+import pe.edu.vallegrande.foodcost.service.ReconciliationService;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/reconciliations")
+@AllArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping
+    @Workload(WorkloadClass.BULK)
+    public Mono<ResponseEntity<ReconciliationReportDto>> startReconciliation() {
+        return reconciliationService.startReconciliation()
+                .map(report -> ResponseEntity.status(HttpStatus.ACCEPTED).body(report));
+    }
+
+    @GetMapping("/{jobId}")
+    public Mono<ResponseEntity<ReconciliationReportDto>> getReconciliation(@PathVariable String jobId) {
+        return reconciliationService.getReport(jobId)
+                .map(ResponseEntity::ok);
+    }
+}
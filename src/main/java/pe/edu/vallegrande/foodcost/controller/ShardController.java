@@ -0,0 +1,35 @@
+package pe.edu.vallegrande.foodcost.controller;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShardRebalanceReportDto;
+import pe.edu.vallegrande.foodcost.sharding.ShardRebalanceService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.workload.Workload;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import reactor.core.publisher.Mono;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/food-costs/shards")
+@AllArgsConstructor
+public class ShardController {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalanceService shardRebalanceService;
+
+    @GetMapping("/sheds/{shedId}")
+    public Mono<ResponseEntity<Map<String, Object>>> getShardForShed(@PathVariable Long shedId) {
+        return Mono.just(ResponseEntity.ok(Map.of("shedId", shedId, "shard", shardRouter.shardFor(shedId))));
+    }
+
+    @PostMapping("/rebalance")
+    @Workload(WorkloadClass.BULK)
+    public Mono<ResponseEntity<ShardRebalanceReportDto>> rebalance(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return shardRebalanceService.rebalance(dryRun)
+                .map(ResponseEntity::ok);
+    }
+}
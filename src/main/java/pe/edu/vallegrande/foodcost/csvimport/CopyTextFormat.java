@@ -0,0 +1,57 @@
+package pe.edu.vallegrande.foodcost.csvimport;
+
+import java.util.UUID;
+
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+
+/**
+ * Escribe filas en el formato text de COPY de PostgreSQL: columnas separadas por tabulador, una
+ * fila por línea, NULL como \N y barra invertida, tabulador, salto de línea y retorno de carro
+ * escapados. El orden de las columnas es el de FoodCostImportRepository.COPY_SQL.
+ */
+public final class CopyTextFormat {
+
+    private static final String NULL = "\\N";
+
+    private CopyTextFormat() {
+    }
+
+    public static void appendRow(StringBuilder out, UUID importId, long lineNumber, FoodCost row) {
+        out.append(importId).append('\t').append(lineNumber);
+        appendText(out, row.getWeekNumber());
+        appendText(out, row.getFoodType());
+        appendValue(out, row.getGramsPerChicken() == null ? null : row.getGramsPerChicken().toPlainString());
+        appendValue(out, row.getTotalKg() == null ? null : row.getTotalKg().toPlainString());
+        appendValue(out, row.getTotalCost() == null ? null : row.getTotalCost().toPlainString());
+        appendValue(out, row.getStartDate());
+        appendValue(out, row.getEndDate());
+        appendText(out, row.getShedName());
+        appendValue(out, row.getShedId());
+        appendValue(out, row.getHensId());
+        appendText(out, row.getStatus());
+        out.append('\n');
+    }
+
+    // Números y fechas no necesitan escape
+    private static void appendValue(StringBuilder out, Object value) {
+        out.append('\t').append(value == null ? NULL : value.toString());
+    }
+
+    private static void appendText(StringBuilder out, String value) {
+        out.append('\t');
+        if (value == null) {
+            out.append(NULL);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+}
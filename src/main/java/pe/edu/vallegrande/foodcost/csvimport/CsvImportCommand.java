@@ -0,0 +1,84 @@
+package pe.edu.vallegrande.foodcost.csvimport;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.CsvImportReportDto;
+import pe.edu.vallegrande.foodcost.service.FoodCostImportService;
+
+/**
+ * Modo CLI de la importación: con --import-csv=<ruta> (y opcionalmente --validate-only) el servicio
+ * importa el archivo, imprime el reporte y termina. FoodCostApplication detecta la opción antes de
+ * arrancar y levanta el contexto sin servidor web y con el perfil csv-import, que deja fuera el
+ * warmup y las cargas de índices en memoria; el código de salida lo toma SpringApplication.exit.
+ */
+@Component
+@Profile(CsvImportCommand.PROFILE)
+public class CsvImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "csv-import";
+
+    private static final String IMPORT_OPTION = "import-csv";
+    private static final String VALIDATE_ONLY_OPTION = "validate-only";
+
+    private final FoodCostImportService foodCostImportService;
+    private int exitCode;
+
+    public CsvImportCommand(FoodCostImportService foodCostImportService) {
+        this.foodCostImportService = foodCostImportService;
+    }
+
+    // Se evalúa antes de crear el contexto para decidir cómo arrancar
+    public static boolean requested(String[] args) {
+        String option = "--" + IMPORT_OPTION;
+        return Arrays.stream(args).anyMatch(arg -> arg.equals(option) || arg.startsWith(option + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> paths = args.getOptionValues(IMPORT_OPTION);
+        if (paths == null || paths.isEmpty()) {
+            System.out.println("Falta la ruta del archivo: --" + IMPORT_OPTION + "=<ruta>");
+            exitCode = 2;
+            return;
+        }
+        Path path = Path.of(paths.get(0));
+        if (!Files.isReadable(path)) {
+            System.out.println("No se puede leer el archivo " + path);
+            exitCode = 2;
+        } else {
+            exitCode = importFile(path, args.containsOption(VALIDATE_ONLY_OPTION));
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    // 0 si todas las líneas fueron válidas, 1 si hubo rechazos o la importación falló
+    private int importFile(Path path, boolean validateOnly) {
+        try {
+            CsvImportReportDto report = foodCostImportService.importFile(path, validateOnly).block();
+            System.out.printf("Importación %s: %d líneas, %d válidas, %d rechazadas, %d copiadas, %d insertadas, "
+                            + "%d omitidas por periodo existente o repetido%n",
+                    report.getImportId(), report.getTotalRows(), report.getValidRows(), report.getRejectedRows(),
+                    report.getStagedRows(), report.getMergedRows(), report.getSkippedDuplicates());
+            System.out.printf("Tiempo: %d ms (%.0f filas/s), heap usado: %d MB al inicio, %d MB pico%n",
+                    report.getElapsedMillis(), report.getRowsPerSecond(), report.getHeapUsedStartMb(), report.getHeapUsedPeakMb());
+            report.getErrors().forEach(error -> System.out.println("  línea " + error.getLine() + ": " + error.getMessage()));
+            return report.getRejectedRows() > 0 ? 1 : 0;
+        } catch (RuntimeException e) {
+            System.out.println("La importación falló: " + e.getMessage());
+            return 1;
+        }
+    }
+}
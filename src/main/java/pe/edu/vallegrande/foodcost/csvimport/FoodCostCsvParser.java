@@ -0,0 +1,226 @@
+package pe.edu.vallegrande.foodcost.csvimport;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import pe.edu.vallegrande.foodcost.exception.service.InvalidCsvImportException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.service.FoodCostCalculator;
+
+/**
+ * Valida y normaliza las líneas de un CSV de costos históricos. La cabecera define el orden de las
+ * columnas; los nombres se comparan sin distinguir mayúsculas ni guiones bajos (start_date = startDate).
+ * Campos con comillas dobles siguen RFC 4180 ("" dentro de comillas), sin saltos de línea embebidos.
+ * Obligatorias: week_number, start_date, shed_id y total_kg. end_date por defecto es start_date + 6
+ * días y status 'A'. Los decimales se redondean a la escala de la columna y se rechazan los que no
+ * caben en ella, para que un valor fuera de rango no aborte el COPY completo.
+ */
+public class FoodCostCsvParser {
+
+    private static final String[] COLUMNS = {"week_number", "food_type", "grams_per_chicken", "total_kg", "total_cost",
+            "start_date", "end_date", "shed_name", "shed_id", "hens_id", "status"};
+    private static final int WEEK_NUMBER = 0;
+    private static final int FOOD_TYPE = 1;
+    private static final int GRAMS_PER_CHICKEN = 2;
+    private static final int TOTAL_KG = 3;
+    private static final int TOTAL_COST = 4;
+    private static final int START_DATE = 5;
+    private static final int END_DATE = 6;
+    private static final int SHED_NAME = 7;
+    private static final int SHED_ID = 8;
+    private static final int HENS_ID = 9;
+    private static final int STATUS = 10;
+
+    // Posición en el CSV de cada columna conocida (-1 si no viene)
+    private final int[] positions;
+    private final int fieldCount;
+
+    private FoodCostCsvParser(int[] positions, int fieldCount) {
+        this.positions = positions;
+        this.fieldCount = fieldCount;
+    }
+
+    public static FoodCostCsvParser forHeader(String header) {
+        List<String> names = split(stripBom(header));
+        int[] positions = new int[COLUMNS.length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < names.size(); i++) {
+            int column = columnOf(names.get(i));
+            if (column < 0) {
+                throw new InvalidCsvImportException("Columna desconocida en la cabecera: " + names.get(i));
+            }
+            if (positions[column] >= 0) {
+                throw new InvalidCsvImportException("Columna repetida en la cabecera: " + names.get(i));
+            }
+            positions[column] = i;
+        }
+        for (int required : new int[] {WEEK_NUMBER, START_DATE, SHED_ID, TOTAL_KG}) {
+            if (positions[required] < 0) {
+                throw new InvalidCsvImportException("Falta la columna obligatoria " + COLUMNS[required]);
+            }
+        }
+        return new FoodCostCsvParser(positions, names.size());
+    }
+
+    public ParsedLine parse(long lineNumber, String line) {
+        List<String> fields = split(line);
+        if (fields.size() != fieldCount) {
+            return ParsedLine.rejected(lineNumber, "Se esperaban " + fieldCount + " campos y hay " + fields.size());
+        }
+        try {
+            FoodCost row = new FoodCost();
+            row.setWeekNumber(text(fields, WEEK_NUMBER, 50, true));
+            row.setFoodType(text(fields, FOOD_TYPE, 100, false));
+            row.setGramsPerChicken(decimal(fields, GRAMS_PER_CHICKEN, 10, 2, false));
+            row.setTotalKg(decimal(fields, TOTAL_KG, 12, 3, true));
+            row.setTotalCost(decimal(fields, TOTAL_COST, 12, 2, false));
+            row.setStartDate(date(fields, START_DATE, true));
+            LocalDate endDate = date(fields, END_DATE, false);
+            row.setEndDate(endDate != null ? endDate : row.getStartDate().plusDays(FoodCostCalculator.DAYS_PER_PERIOD - 1L));
+            if (row.getEndDate().isBefore(row.getStartDate())) {
+                throw new IllegalArgumentException("end_date es anterior a start_date");
+            }
+            row.setShedName(text(fields, SHED_NAME, 100, false));
+            row.setShedId(number(fields, SHED_ID, true));
+            row.setHensId(number(fields, HENS_ID, false));
+            String status = text(fields, STATUS, 1, false);
+            row.setStatus(status == null ? "A" : status.toUpperCase(Locale.ROOT));
+            if (!row.getStatus().equals("A") && !row.getStatus().equals("I")) {
+                throw new IllegalArgumentException("status debe ser A o I");
+            }
+            return ParsedLine.valid(lineNumber, row);
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            return ParsedLine.rejected(lineNumber, e.getMessage());
+        }
+    }
+
+    private String value(List<String> fields, int column) {
+        int position = positions[column];
+        if (position < 0) {
+            return null;
+        }
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String text(List<String> fields, int column, int maxLength, boolean required) {
+        String value = required(fields, column, required);
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(COLUMNS[column] + " supera " + maxLength + " caracteres");
+        }
+        return value;
+    }
+
+    private BigDecimal decimal(List<String> fields, int column, int precision, int scale, boolean required) {
+        String value = required(fields, column, required);
+        if (value == null) {
+            return null;
+        }
+        BigDecimal number;
+        try {
+            number = new BigDecimal(value).setScale(scale, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(COLUMNS[column] + " no es un número: " + value);
+        }
+        if (number.signum() < 0 || number.precision() > precision) {
+            throw new IllegalArgumentException(COLUMNS[column] + " fuera de rango: " + value);
+        }
+        return number;
+    }
+
+    private Long number(List<String> fields, int column, boolean required) {
+        String value = required(fields, column, required);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(COLUMNS[column] + " no es un entero: " + value);
+        }
+    }
+
+    private LocalDate date(List<String> fields, int column, boolean required) {
+        String value = required(fields, column, required);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(COLUMNS[column] + " no es una fecha yyyy-MM-dd: " + value);
+        }
+    }
+
+    private String required(List<String> fields, int column, boolean required) {
+        String value = value(fields, column);
+        if (value == null && required) {
+            throw new IllegalArgumentException("Falta " + COLUMNS[column]);
+        }
+        return value;
+    }
+
+    private static int columnOf(String name) {
+        String normalized = name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].replace("_", "").equals(normalized)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String stripBom(String header) {
+        return !header.isEmpty() && header.charAt(0) == '﻿' ? header.substring(1) : header;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Línea ya validada: row es null cuando fue rechazada y error explica por qué
+    public record ParsedLine(long lineNumber, FoodCost row, String error) {
+
+        static ParsedLine valid(long lineNumber, FoodCost row) {
+            return new ParsedLine(lineNumber, row, null);
+        }
+
+        static ParsedLine rejected(long lineNumber, String error) {
+            return new ParsedLine(lineNumber, null, error);
+        }
+
+        public boolean isValid() {
+            return row != null;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package pe.edu.vallegrande.foodcost.dto.reception;
 
+import java.time.LocalDate;
 import lombok.Data;
 
 /*Dto que consumirá el enpoint del microservicio FOOD*/
 @Data
 public class FoodDto {
     private Long idFood;
+    private String foodType;
     private Integer amount;
+    private LocalDate entryDate;
 }
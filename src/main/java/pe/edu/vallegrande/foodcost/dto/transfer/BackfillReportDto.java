@@ -0,0 +1,22 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackfillReportDto {
+    private boolean dryRun;
+    private int shedsScanned;
+    private int shedsWithGaps;
+    private int shedsSkipped;
+    private long periodsMissing;
+    private long rowsInserted;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ShedBackfillDto> sheds;
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Valores por defecto para galpones sin registros previos; los demás continúan con su último periodo*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackfillRequestDto {
+    private boolean dryRun = true;
+    private String foodType;
+    private BigDecimal gramsPerChicken;
+    private Integer quantity;
+    private BigDecimal costPerKg;
+}
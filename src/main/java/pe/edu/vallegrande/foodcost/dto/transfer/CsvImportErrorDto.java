@@ -0,0 +1,14 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Línea del CSV rechazada por la validación*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CsvImportErrorDto {
+    private long line;
+    private String message;
+}
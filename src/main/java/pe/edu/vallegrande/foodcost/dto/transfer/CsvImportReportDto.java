@@ -0,0 +1,28 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Resultado de una importación CSV: conteos por etapa, velocidad y memoria de heap usada*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CsvImportReportDto {
+    private UUID importId;
+    private boolean validateOnly;
+    private long totalRows;
+    private long validRows;
+    private long rejectedRows;
+    private long stagedRows;
+    private long mergedRows;
+    private long skippedDuplicates;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private long heapUsedStartMb;
+    private long heapUsedPeakMb;
+    private List<CsvImportErrorDto> errors;
+}
@@ -0,0 +1,23 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+
+/*Entrada del historial de cambios de un registro de costo*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FoodCostAuditDto {
+    private Long idAudit;
+    private Long idFoodCosts;
+    private Long shedId;
+    private String action;
+    private String actor;
+    private Instant changedAt;
+    private FoodCost before;
+    private FoodCost after;
+}
@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+
+/*Página de resultados; nextCursor es null cuando no hay más registros*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FoodCostPageDto {
+    private List<FoodCost> items;
+    private String nextCursor;
+}
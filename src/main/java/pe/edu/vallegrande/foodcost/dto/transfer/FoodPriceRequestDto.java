@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Nuevo precio de un alimento; sin effectiveTo queda vigente hasta que se registre otro*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FoodPriceRequestDto {
+    private BigDecimal unitPrice;
+    private LocalDate effectiveFrom;
+    private LocalDate effectiveTo;
+}
@@ -0,0 +1,22 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Resultado de una proyección; skippedCells son combinaciones galpón x escenario sin datos suficientes*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionReportDto {
+    private int weeks;
+    private int sheds;
+    private int scenarios;
+    private int projectedCells;
+    private int skippedCells;
+    private long elapsedMillis;
+    private List<ProjectionScenarioTotalDto> totals;
+    private List<ShedProjectionDto> results;
+}
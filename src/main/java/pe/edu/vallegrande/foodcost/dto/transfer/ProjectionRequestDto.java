@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Proyección de las próximas semanas; sin shedIds se proyectan todos los galpones con periodos activos*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionRequestDto {
+    private int weeks;
+    private List<Long> shedIds;
+    private boolean includeWeeks;
+    private List<ProjectionScenarioDto> scenarios;
+}
@@ -0,0 +1,20 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Escenario de proyección: los valores nulos toman los del último periodo de cada galpón*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionScenarioDto {
+    private String name;
+    private BigDecimal gramsPerChicken;
+    private Integer quantity;
+    private BigDecimal weeklyMortalityPercent;
+    private BigDecimal costPerKg;
+    private BigDecimal weeklyPriceChangePercent;
+}
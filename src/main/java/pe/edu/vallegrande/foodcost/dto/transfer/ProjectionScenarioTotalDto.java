@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Totales de un escenario sumando todos los galpones proyectados*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionScenarioTotalDto {
+    private String scenario;
+    private int sheds;
+    private BigDecimal totalKg;
+    private BigDecimal totalCost;
+}
@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Consumo y costo proyectados de una semana*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionWeekDto {
+    private LocalDate startDate;
+    private BigDecimal totalKg;
+    private BigDecimal totalCost;
+}
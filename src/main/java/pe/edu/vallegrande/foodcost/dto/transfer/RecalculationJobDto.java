@@ -0,0 +1,28 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Estado y progreso de un trabajo de recálculo de costos*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecalculationJobDto {
+    private String jobId;
+    private String status;
+    private String foodType;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private BigDecimal costPerKg;
+    private long totalChunks;
+    private long processedChunks;
+    private long updatedRows;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecalculationRequestDto {
+    private String foodType;
+    private Long foodId;
+    private BigDecimal unitPrice;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+}
@@ -0,0 +1,21 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Mes de un tipo de alimento cuyo consumo registrado no cuadra con lo entregado según el servicio Food*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationDiscrepancyDto {
+    private String foodType;
+    private LocalDate period;
+    private BigDecimal suppliedKg;
+    private BigDecimal consumedKg;
+    private BigDecimal balanceKg;
+    private String reason;
+}
@@ -0,0 +1,24 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Estado y resultado de una conciliación; discrepancies se corta en el máximo configurado*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationReportDto {
+    private String jobId;
+    private String status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long catalogEntries;
+    private long periodsCompared;
+    private long discrepancyCount;
+    private List<ReconciliationDiscrepancyDto> discrepancies;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Resultado del rebalanceo de registros entre shards ("origen->destino" -> cantidad)*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShardRebalanceReportDto {
+    private boolean dryRun;
+    private long scannedRows;
+    private long movedRows;
+    private Map<String, Long> moves;
+    private long elapsedMillis;
+}
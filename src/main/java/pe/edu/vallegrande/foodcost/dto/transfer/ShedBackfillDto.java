@@ -0,0 +1,20 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Periodos faltantes detectados (y generados) para un galpón*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShedBackfillDto {
+    private Long shedId;
+    private String status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int periods;
+    private long insertedRows;
+}
@@ -0,0 +1,20 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Totales de un galpón en un rango de fechas, para comparar galpones entre sí*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShedCostSummaryDto {
+    private Long shedId;
+    private int weeks;
+    private BigDecimal totalKg;
+    private BigDecimal totalCost;
+    private BigDecimal averageWeeklyCost;
+    private BigDecimal costPerKg;
+}
@@ -0,0 +1,25 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Proyección de un galpón bajo un escenario; weeks solo viene con includeWeeks=true*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShedProjectionDto {
+    private Long shedId;
+    private String shedName;
+    private String scenario;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private long endQuantity;
+    private BigDecimal totalKg;
+    private BigDecimal totalCost;
+    private List<ProjectionWeekDto> weeks;
+}
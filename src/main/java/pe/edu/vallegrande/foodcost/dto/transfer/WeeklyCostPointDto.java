@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.dto.transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*Punto semanal de la serie de costos de un galpón (valor puntual o promedio móvil)*/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WeeklyCostPointDto {
+    private LocalDate weekStart;
+    private BigDecimal totalKg;
+    private BigDecimal totalCost;
+}
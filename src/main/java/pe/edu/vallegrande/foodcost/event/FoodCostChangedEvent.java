@@ -0,0 +1,66 @@
+package pe.edu.vallegrande.foodcost.event;
+
+import lombok.Getter;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+
+/**
+ * Evento publicado por cada escritura de un registro de food_costs, con la imagen anterior
+ * (null en inserciones) y la posterior (null en borrados físicos). Las copias se toman en el
+ * momento del cambio para que los listeners no vean mutaciones posteriores de la entidad.
+ */
+@Getter
+public class FoodCostChangedEvent {
+
+    public enum Type { CREATED, UPDATED, STATUS_CHANGED, DELETED }
+
+    private final Type type;
+    private final FoodCost before;
+    private final FoodCost after;
+
+    private FoodCostChangedEvent(Type type, FoodCost before, FoodCost after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static FoodCostChangedEvent created(FoodCost after) {
+        return new FoodCostChangedEvent(Type.CREATED, null, copyOf(after));
+    }
+
+    public static FoodCostChangedEvent updated(FoodCost before, FoodCost after) {
+        return new FoodCostChangedEvent(Type.UPDATED, before, copyOf(after));
+    }
+
+    public static FoodCostChangedEvent statusChanged(FoodCost before, FoodCost after) {
+        return new FoodCostChangedEvent(Type.STATUS_CHANGED, before, copyOf(after));
+    }
+
+    public static FoodCostChangedEvent deleted(FoodCost before) {
+        return new FoodCostChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Long getIdFoodCosts() {
+        return after != null ? after.getIdFoodCosts() : before.getIdFoodCosts();
+    }
+
+    // Copia de la entidad para conservar la imagen "antes" cuando el servicio la modifica en el lugar
+    public static FoodCost copyOf(FoodCost source) {
+        if (source == null) {
+            return null;
+        }
+        FoodCost copy = new FoodCost();
+        copy.setIdFoodCosts(source.getIdFoodCosts());
+        copy.setWeekNumber(source.getWeekNumber());
+        copy.setFoodType(source.getFoodType());
+        copy.setGramsPerChicken(source.getGramsPerChicken());
+        copy.setTotalKg(source.getTotalKg());
+        copy.setTotalCost(source.getTotalCost());
+        copy.setStartDate(source.getStartDate());
+        copy.setEndDate(source.getEndDate());
+        copy.setShedName(source.getShedName());
+        copy.setShedId(source.getShedId());
+        copy.setHensId(source.getHensId());
+        copy.setStatus(source.getStatus());
+        return copy;
+    }
+}
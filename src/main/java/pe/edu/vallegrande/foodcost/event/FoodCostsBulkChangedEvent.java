@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.event;
+
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando un proceso set-based (p. ej. el recálculo de costos) modificó
+ * muchas filas a la vez sin pasar por la entidad; los listeners deben releer los datos.
+ */
+@Getter
+public class FoodCostsBulkChangedEvent {
+
+    private final String source;
+    private final long affectedRows;
+
+    public FoodCostsBulkChangedEvent(String source, long affectedRows) {
+        this.source = source;
+        this.affectedRows = affectedRows;
+    }
+}
@@ -0,0 +1,14 @@
+package pe.edu.vallegrande.foodcost.exception;
+
+/**
+ * Base de las excepciones de dominio y de los clientes HTTP. Son errores esperados (registro no
+ * encontrado, datos inválidos, servicio remoto caído) que se responden como problem+json, así que no
+ * capturan stack trace ni admiten excepciones suprimidas: crearlas cuesta lo mismo que un objeto común
+ * aunque la traza de Reactor sea profunda. El mensaje se devuelve como "detail" de la respuesta.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,39 +1,145 @@
 package pe.edu.vallegrande.foodcost.exception;
 
+import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ServerWebExchange;
+import pe.edu.vallegrande.foodcost.exception.client.FoodClientException;
+import pe.edu.vallegrande.foodcost.exception.client.HensClientException;
+import pe.edu.vallegrande.foodcost.exception.service.BackfillInProgressException;
 import pe.edu.vallegrande.foodcost.exception.service.FoodCostInactiveException;
 import pe.edu.vallegrande.foodcost.exception.service.FoodCostNotFoundException;
 import pe.edu.vallegrande.foodcost.exception.service.FoodNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.FoodPriceNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.HensNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.IdempotencyKeyConflictException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidAnalyticsQueryException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidCsvImportException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidProjectionRequestException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFieldSelectionException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidPageRequestException;
 import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodAmountException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodPriceException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidRecalculationRequestException;
+import pe.edu.vallegrande.foodcost.exception.service.RecalculationCapacityException;
+import pe.edu.vallegrande.foodcost.exception.service.RecalculationJobNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.ReconciliationCapacityException;
+import pe.edu.vallegrande.foodcost.exception.service.ReconciliationJobNotFoundException;
 import reactor.core.publisher.Mono;
 
+// Cada excepción se responde con problem+json (ProblemResponses) y el status indicado en su método
 @RestControllerAdvice
+@AllArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ProblemResponses problemResponses;
+
     @ExceptionHandler(FoodCostNotFoundException.class)
     public Mono<Void> handleFoodCostNotFoundException(ServerWebExchange exchange, FoodCostNotFoundException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
-        return exchange.getResponse().setComplete();
+        return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(FoodCostInactiveException.class)
     public Mono<Void> handleFoodCostInactiveException(ServerWebExchange exchange, FoodCostInactiveException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
-        return exchange.getResponse().setComplete();
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler(FoodNotFoundException.class)
     public Mono<Void> handleFoodNotFoundException(ServerWebExchange exchange, FoodNotFoundException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
-        return exchange.getResponse().setComplete();
+        return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(InvalidFoodAmountException.class)
     public Mono<Void> handleInvalidFoodAmountException(ServerWebExchange exchange, InvalidFoodAmountException ex) {
-        exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
-        return exchange.getResponse().setComplete();
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidRecalculationRequestException.class)
+    public Mono<Void> handleInvalidRecalculationRequestException(ServerWebExchange exchange, InvalidRecalculationRequestException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidAnalyticsQueryException.class)
+    public Mono<Void> handleInvalidAnalyticsQueryException(ServerWebExchange exchange, InvalidAnalyticsQueryException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    public Mono<Void> handleInvalidFieldSelectionException(ServerWebExchange exchange, InvalidFieldSelectionException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public Mono<Void> handleInvalidPageRequestException(ServerWebExchange exchange, InvalidPageRequestException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(RecalculationJobNotFoundException.class)
+    public Mono<Void> handleRecalculationJobNotFoundException(ServerWebExchange exchange, RecalculationJobNotFoundException ex) {
+        return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler(RecalculationCapacityException.class)
+    public Mono<Void> handleRecalculationCapacityException(ServerWebExchange exchange, RecalculationCapacityException ex) {
+        return problemResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS, ex);
+    }
+
+    @ExceptionHandler(BackfillInProgressException.class)
+    public Mono<Void> handleBackfillInProgressException(ServerWebExchange exchange, BackfillInProgressException ex) {
+        return problemResponses.write(exchange, HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public Mono<Void> handleIdempotencyKeyConflictException(ServerWebExchange exchange, IdempotencyKeyConflictException ex) {
+        return problemResponses.write(exchange, HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(InvalidFoodPriceException.class)
+    public Mono<Void> handleInvalidFoodPriceException(ServerWebExchange exchange, InvalidFoodPriceException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(FoodPriceNotFoundException.class)
+    public Mono<Void> handleFoodPriceNotFoundException(ServerWebExchange exchange, FoodPriceNotFoundException ex) {
+        return problemResponses.write(exchange, HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(ReconciliationJobNotFoundException.class)
+    public Mono<Void> handleReconciliationJobNotFoundException(ServerWebExchange exchange, ReconciliationJobNotFoundException ex) {
+        return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler(ReconciliationCapacityException.class)
+    public Mono<Void> handleReconciliationCapacityException(ServerWebExchange exchange, ReconciliationCapacityException ex) {
+        return problemResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS, ex);
+    }
+
+    @ExceptionHandler(HensNotFoundException.class)
+    public Mono<Void> handleHensNotFoundException(ServerWebExchange exchange, HensNotFoundException ex) {
+        return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
+    }
+
+    // Los servicios remotos fallaron: no es un error del cliente ni de este servicio
+    @ExceptionHandler(FoodClientException.class)
+    public Mono<Void> handleFoodClientException(ServerWebExchange exchange, FoodClientException ex) {
+        System.out.println("Error del servicio Food: " + ex.getMessage());
+        return problemResponses.write(exchange, HttpStatus.BAD_GATEWAY, ex);
+    }
+
+    @ExceptionHandler(HensClientException.class)
+    public Mono<Void> handleHensClientException(ServerWebExchange exchange, HensClientException ex) {
+        System.out.println("Error del servicio Hens: " + ex.getMessage());
+        return problemResponses.write(exchange, HttpStatus.BAD_GATEWAY, ex);
+    }
+
+    @ExceptionHandler(InvalidCsvImportException.class)
+    public Mono<Void> handleInvalidCsvImportException(ServerWebExchange exchange, InvalidCsvImportException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidProjectionRequestException.class)
+    public Mono<Void> handleInvalidProjectionRequestException(ServerWebExchange exchange, InvalidProjectionRequestException ex) {
+        return problemResponses.write(exchange, HttpStatus.BAD_REQUEST, ex);
     }
 }
@@ -0,0 +1,99 @@
+package pe.edu.vallegrande.foodcost.exception;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Escribe las respuestas de error como application/problem+json (RFC 7807) sin pasar por Jackson:
+ * por cada par (tipo de excepción, status) se arma una sola vez la parte fija del cuerpo (type, title,
+ * status) ya codificada en UTF-8, y en cada error solo se escapan el mensaje (detail) y la ruta (instance).
+ * Cada par tiene además su contador foodcost.errors (type, status), creado junto con la plantilla.
+ */
+@Component
+public class ProblemResponses {
+
+    private static final String TYPE_PREFIX = "urn:foodcost:problem:";
+    private static final byte[] INSTANCE = ",\"instance\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAIL = "}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TemplateKey, ProblemTemplate> templates = new ConcurrentHashMap<>();
+
+    public ProblemResponses(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, DomainException ex) {
+        ProblemTemplate template = templates.computeIfAbsent(new TemplateKey(ex.getClass(), status),
+                key -> ProblemTemplate.of(key.type(), key.status(), meterRegistry));
+        template.counter().increment();
+
+        byte[] detail = quoted(ex.getMessage());
+        byte[] instance = quoted(exchange.getRequest().getPath().value());
+        int length = template.head().length + detail.length + INSTANCE.length + instance.length + TAIL.length;
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(template.status());
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().setContentLength(length);
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(length)
+                .write(template.head())
+                .write(detail)
+                .write(INSTANCE)
+                .write(instance)
+                .write(TAIL);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static byte[] quoted(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+        byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    // FoodCostNotFoundException -> food-cost-not-found
+    static String problemType(Class<?> type) {
+        String name = type.getSimpleName().replaceFirst("Exception$", "");
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+
+    private record TemplateKey(Class<?> type, HttpStatus status) {
+    }
+
+    private record ProblemTemplate(HttpStatus status, byte[] head, Counter counter) {
+
+        private static ProblemTemplate of(Class<?> type, HttpStatus status, MeterRegistry meterRegistry) {
+            String head = "{\"type\":\"" + TYPE_PREFIX + problemType(type) + "\""
+                    + ",\"title\":\"" + status.getReasonPhrase() + "\""
+                    + ",\"status\":" + status.value()
+                    + ",\"detail\":";
+            Counter counter = Counter.builder("foodcost.errors")
+                    .description("Errores de dominio y de servicios remotos respondidos como problem+json")
+                    .tag("type", type.getSimpleName())
+                    .tag("status", String.valueOf(status.value()))
+                    .register(meterRegistry);
+            return new ProblemTemplate(status, head.getBytes(StandardCharsets.UTF_8), counter);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.client;
 
-public class FoodClientException extends RuntimeException {
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando el servicio Food responde con error o no se puede consultar
+public class FoodClientException extends DomainException {
     public FoodClientException(String message) {
         super(message);
     }
@@ -1,6 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.client;
 
-public class HensClientException extends RuntimeException {
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando el servicio Hens responde con error o no se puede consultar
+public class HensClientException extends DomainException {
     public HensClientException(String message) {
         super(message);
     }
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando se pide un backfill mientras otro sigue en curso
+public class BackfillInProgressException extends DomainException {
+    public BackfillInProgressException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.service;
 
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
 // Excepción cuando el registro ya está inactivo
-public class FoodCostInactiveException extends RuntimeException {
+public class FoodCostInactiveException extends DomainException {
     public FoodCostInactiveException(String message) {
         super(message);
     }
@@ -1,7 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.service;
 
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
 // Excepción cuando el registro no es encontrado
-public class FoodCostNotFoundException extends RuntimeException {
+public class FoodCostNotFoundException extends DomainException {
     public FoodCostNotFoundException(String message) {
         super(message);
     }
@@ -1,7 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.service;
 
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
 // Excepción cuando el alimento no es encontrado
-public class FoodNotFoundException extends RuntimeException {
+public class FoodNotFoundException extends DomainException {
     public FoodNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando se omite el precio unitario y el alimento no tiene un precio vigente para el periodo
+public class FoodPriceNotFoundException extends DomainException {
+    public FoodPriceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando las gallinas no son encontradas o aún no llegaron al galpón
+public class HensNotFoundException extends DomainException {
+    public HensNotFoundException(String message) {
+        super(message);
+    }
+}
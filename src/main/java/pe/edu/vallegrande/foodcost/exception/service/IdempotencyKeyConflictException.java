@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando se reutiliza un Idempotency-Key con un cuerpo distinto
+public class IdempotencyKeyConflictException extends DomainException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando los parámetros de una consulta de series (rango o ventana) son inválidos
+public class InvalidAnalyticsQueryException extends DomainException {
+    public InvalidAnalyticsQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando el archivo a importar está vacío o su cabecera no corresponde a food_costs
+public class InvalidCsvImportException extends DomainException {
+    public InvalidCsvImportException(String message) {
+        super(message);
+    }
+}
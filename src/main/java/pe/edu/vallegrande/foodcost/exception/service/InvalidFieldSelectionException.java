@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando el parámetro fields pide propiedades que no existen en FoodCost
+public class InvalidFieldSelectionException extends DomainException {
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
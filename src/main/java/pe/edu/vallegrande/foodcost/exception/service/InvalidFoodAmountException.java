@@ -1,7 +1,9 @@
 package pe.edu.vallegrande.foodcost.exception.service;
 
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
 // Excepción cuando la cantidad del alimento es inválida
-public class InvalidFoodAmountException extends RuntimeException {
+public class InvalidFoodAmountException extends DomainException {
     public InvalidFoodAmountException(String message) {
         super(message);
     }
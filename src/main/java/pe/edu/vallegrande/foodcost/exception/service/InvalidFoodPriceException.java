@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando un precio es inválido o su vigencia se superpone con otra del mismo alimento
+public class InvalidFoodPriceException extends DomainException {
+    public InvalidFoodPriceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando los filtros, el tamaño de página o el cursor de una búsqueda son inválidos
+public class InvalidPageRequestException extends DomainException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
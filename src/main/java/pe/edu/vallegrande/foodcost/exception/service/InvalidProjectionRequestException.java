@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando los escenarios o el horizonte de una proyección de costos son inválidos
+public class InvalidProjectionRequestException extends DomainException {
+    public InvalidProjectionRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando la solicitud de recálculo está incompleta o es inconsistente
+public class InvalidRecalculationRequestException extends DomainException {
+    public InvalidRecalculationRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando ya corre el máximo de recálculos simultáneos
+public class RecalculationCapacityException extends DomainException {
+    public RecalculationCapacityException(String message) {
+        super(message);
+    }
+}
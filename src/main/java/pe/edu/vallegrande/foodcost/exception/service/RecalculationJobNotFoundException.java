@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando el trabajo de recálculo no existe
+public class RecalculationJobNotFoundException extends DomainException {
+    public RecalculationJobNotFoundException(String message) {
+        super(message);
+    }
+}
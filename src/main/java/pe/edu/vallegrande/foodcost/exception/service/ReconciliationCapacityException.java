@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando ya corre el máximo de conciliaciones simultáneas
+public class ReconciliationCapacityException extends DomainException {
+    public ReconciliationCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.edu.vallegrande.foodcost.exception.service;
+
+import pe.edu.vallegrande.foodcost.exception.DomainException;
+
+// Excepción cuando no existe (o ya se descartó) la conciliación consultada
+public class ReconciliationJobNotFoundException extends DomainException {
+    public ReconciliationJobNotFoundException(String message) {
+        super(message);
+    }
+}
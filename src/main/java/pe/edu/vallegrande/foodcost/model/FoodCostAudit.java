@@ -0,0 +1,38 @@
+package pe.edu.vallegrande.foodcost.model;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import lombok.Data;
+
+@Data
+@Table("food_cost_audit")
+public class FoodCostAudit {
+    @Id
+    @Column("id_audit")
+    private Long idAudit;
+
+    @Column("id_food_costs")
+    private Long idFoodCosts;
+
+    @Column("shed_id")
+    private Long shedId;
+
+    @Column("action")
+    private String action;
+
+    @Column("actor")
+    private String actor;
+
+    // Imágenes del registro en JSON (jsonb); null antes de una inserción o después de un borrado físico
+    @Column("before_image")
+    private String beforeImage;
+
+    @Column("after_image")
+    private String afterImage;
+
+    @Column("changed_at")
+    private Instant changedAt;
+
+}
@@ -0,0 +1,34 @@
+package pe.edu.vallegrande.foodcost.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import lombok.Data;
+
+@Data
+@Table("food_prices")
+public class FoodPrice {
+    @Id
+    @Column("id_food_price")
+    private Long idFoodPrice;
+
+    @Column("food_id")
+    private Long foodId;
+
+    @Column("unit_price")
+    private BigDecimal unitPrice;
+
+    @Column("effective_from")
+    private LocalDate effectiveFrom;
+
+    // null mientras el precio siga vigente
+    @Column("effective_to")
+    private LocalDate effectiveTo;
+
+    @Column("created_at")
+    private Instant createdAt;
+
+}
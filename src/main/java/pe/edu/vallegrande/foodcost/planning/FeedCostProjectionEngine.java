@@ -0,0 +1,201 @@
+package pe.edu.vallegrande.foodcost.planning;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import pe.edu.vallegrande.foodcost.service.FoodCostCalculator;
+
+/**
+ * Proyecta semana a semana el consumo y el costo de alimento de cada combinación galpón x escenario.
+ * Las celdas (galpón, escenario) se reparten con fork-join en un pool propio y cada una recorre sus
+ * semanas en aritmética de punto fijo sobre long: gramos, kg y precios en centésimas, porcentajes en
+ * puntos básicos. Los redondeos son HALF_UP a 2 decimales en los mismos pasos que FoodCostCalculator,
+ * así una semana proyectada cuesta lo mismo que si se registrara con esos valores. Un desborde lanza
+ * ArithmeticException en lugar de devolver un total incorrecto.
+ */
+@Component
+public class FeedCostProjectionEngine {
+
+    // Valor de Seed/Scenario que indica "no informado"
+    public static final long UNSET = -1;
+
+    private static final long GRAMS_PER_KG = 1000;
+    private static final long CENTS = 100;
+    private static final long BASIS_POINTS = 10_000;
+
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    public FeedCostProjectionEngine(@Value("${projection.parallelism:0}") int parallelism,
+                                    @Value("${projection.split-threshold:32}") int splitThreshold) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.splitThreshold = Math.max(1, splitThreshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    // Método para proyectar sin bloquear al llamador: el cálculo corre completo en el pool fork-join
+    public CompletableFuture<Result> projectAsync(Seed[] seeds, Scenario[] scenarios, int weeks, boolean keepWeeks) {
+        return CompletableFuture.supplyAsync(() -> project(seeds, scenarios, weeks, keepWeeks), pool);
+    }
+
+    public Result project(Seed[] seeds, Scenario[] scenarios, int weeks, boolean keepWeeks) {
+        Result result = new Result(seeds.length * scenarios.length, weeks, keepWeeks);
+        CellRange all = new CellRange(seeds, scenarios, result, 0, result.cells());
+        // Desde un hilo del propio pool (projectAsync) se ejecuta directo en lugar de encolar y esperar
+        if (ForkJoinTask.getPool() == pool) {
+            all.invoke();
+        } else {
+            pool.invoke(all);
+        }
+        return result;
+    }
+
+    // Proyecta una celda; devuelve false si al galpón le falta un valor que el escenario tampoco informa
+    static boolean projectCell(Seed seed, Scenario scenario, int weeks, Result result, int cell) {
+        long grams = scenario.gramsCenti() != UNSET ? scenario.gramsCenti() : seed.gramsCenti();
+        long quantity = scenario.quantity() != UNSET ? scenario.quantity() : seed.quantity();
+        long costPerKg = scenario.costPerKgCenti() != UNSET ? scenario.costPerKgCenti() : seed.costPerKgCenti();
+        if (grams == UNSET || quantity == UNSET || costPerKg == UNSET) {
+            return false;
+        }
+        long kgTotal = 0;
+        long costTotal = 0;
+        int offset = cell * weeks;
+        for (int week = 0; week < weeks; week++) {
+            // calculateTotalKg: gramos x cantidad x 7 / 1000, en centésimas de kg
+            long kg = divideHalfUp(Math.multiplyExact(Math.multiplyExact(grams, quantity), FoodCostCalculator.DAYS_PER_PERIOD), GRAMS_PER_KG);
+            // calculateTotalCost: kg x costo por kg, en centavos
+            long cost = divideHalfUp(Math.multiplyExact(kg, costPerKg), CENTS);
+            kgTotal = Math.addExact(kgTotal, kg);
+            costTotal = Math.addExact(costTotal, cost);
+            if (result.weekKg != null) {
+                result.weekKg[offset + week] = kg;
+                result.weekCost[offset + week] = cost;
+            }
+            quantity -= divideHalfUp(Math.multiplyExact(quantity, scenario.mortalityBasisPoints()), BASIS_POINTS);
+            costPerKg = divideHalfUp(Math.multiplyExact(costPerKg, BASIS_POINTS + scenario.priceChangeBasisPoints()), BASIS_POINTS);
+        }
+        result.totalKg[cell] = kgTotal;
+        result.totalCost[cell] = costTotal;
+        result.endQuantity[cell] = quantity;
+        return true;
+    }
+
+    // Los operandos nunca son negativos: mortalidad y variación de precio se validan antes
+    static long divideHalfUp(long dividend, long divisor) {
+        return (dividend + divisor / 2) / divisor;
+    }
+
+    // Rango de celdas [from, to); se parte en mitades hasta quedar bajo el umbral
+    private final class CellRange extends RecursiveAction {
+
+        private final Seed[] seeds;
+        private final Scenario[] scenarios;
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        private CellRange(Seed[] seeds, Scenario[] scenarios, Result result, int from, int to) {
+            this.seeds = seeds;
+            this.scenarios = scenarios;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitThreshold) {
+                for (int cell = from; cell < to; cell++) {
+                    result.projected[cell] = projectCell(seeds[cell / scenarios.length], scenarios[cell % scenarios.length],
+                            result.weeks, result, cell);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CellRange(seeds, scenarios, result, from, middle),
+                    new CellRange(seeds, scenarios, result, middle, to));
+        }
+    }
+
+    // Punto de partida de un galpón, tomado de su último periodo activo
+    public record Seed(long gramsCenti, long quantity, long costPerKgCenti) {
+    }
+
+    // Valores UNSET toman el del galpón; mortalidad y variación de precio se aplican al cerrar cada semana
+    public record Scenario(long gramsCenti, long quantity, long mortalityBasisPoints, long costPerKgCenti,
+                           long priceChangeBasisPoints) {
+    }
+
+    /**
+     * Resultados indexados por celda = galpón * escenarios + escenario; los semanales (si se pidieron)
+     * en celda * semanas + semana. Cada tarea escribe solo sus celdas y el join publica los valores.
+     */
+    public static final class Result {
+
+        private final int weeks;
+        private final boolean[] projected;
+        private final long[] totalKg;
+        private final long[] totalCost;
+        private final long[] endQuantity;
+        private final long[] weekKg;
+        private final long[] weekCost;
+
+        private Result(int cells, int weeks, boolean keepWeeks) {
+            this.weeks = weeks;
+            this.projected = new boolean[cells];
+            this.totalKg = new long[cells];
+            this.totalCost = new long[cells];
+            this.endQuantity = new long[cells];
+            this.weekKg = keepWeeks ? new long[Math.multiplyExact(cells, weeks)] : null;
+            this.weekCost = keepWeeks ? new long[Math.multiplyExact(cells, weeks)] : null;
+        }
+
+        public int cells() {
+            return projected.length;
+        }
+
+        public int weeks() {
+            return weeks;
+        }
+
+        public boolean hasWeeks() {
+            return weekKg != null;
+        }
+
+        public boolean isProjected(int cell) {
+            return projected[cell];
+        }
+
+        public long totalKgCenti(int cell) {
+            return totalKg[cell];
+        }
+
+        public long totalCostCenti(int cell) {
+            return totalCost[cell];
+        }
+
+        // Aves al cierre de la última semana proyectada
+        public long endQuantity(int cell) {
+            return endQuantity[cell];
+        }
+
+        public long weekKgCenti(int cell, int week) {
+            return weekKg[cell * weeks + week];
+        }
+
+        public long weekCostCenti(int cell, int week) {
+            return weekCost[cell * weeks + week];
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package pe.edu.vallegrande.foodcost.pricing;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import pe.edu.vallegrande.foodcost.csvimport.CsvImportCommand;
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import pe.edu.vallegrande.foodcost.repository.FoodPriceRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Índice en memoria del historial de precios: un PriceTimeline por alimento, resuelto con búsqueda
+ * binaria sin consultar la base. El mapa completo se reemplaza de una vez (copy-on-write) al cargar
+ * y el timeline de un alimento se reemplaza entero después de confirmar cada cambio, así una
+ * consulta nunca ve una vigencia a medio actualizar. La recarga periódica recoge los cambios
+ * hechos por otras instancias del servicio. Cada timeline guarda su versión (el mayor id de sus
+ * vigencias: cada registro de precio inserta al menos una fila) y un reemplazo con una lectura más
+ * vieja que la ya aplicada se descarta, así dos registros concurrentes no dejan el índice atrasado.
+ */
+@Component
+public class FoodPriceIndex {
+
+    private final FoodPriceRepository foodPriceRepository;
+    private final ShardRouter shardRouter;
+    private final Duration refreshInterval;
+
+    private final Object writeLock = new Object();
+    private volatile Map<Long, PriceTimeline> timelines = Map.of();
+    // Solo se lee y escribe con writeLock
+    private Map<Long, Long> versions = new HashMap<>();
+    private volatile boolean loaded;
+    // No es null mientras hay una recarga en curso: alimentos cuyo timeline cambió después de que empezó la lectura
+    private Set<Long> replacedDuringReload;
+    private Disposable refresh;
+
+    public FoodPriceIndex(FoodPriceRepository foodPriceRepository,
+                          ShardRouter shardRouter,
+                          @Value("${pricing.refresh-interval:5m}") Duration refreshInterval) {
+        this.foodPriceRepository = foodPriceRepository;
+        this.shardRouter = shardRouter;
+        this.refreshInterval = refreshInterval;
+    }
+
+    // Si el warmup ya lo cargó, la primera recarga espera un intervalo completo. No corre en la importación por CLI
+    @EventListener(value = ApplicationReadyEvent.class, condition = "!@environment.matchesProfiles('" + CsvImportCommand.PROFILE + "')")
+    public void onApplicationReady() {
+        refresh = Flux.interval(loaded ? refreshInterval : Duration.ZERO, refreshInterval)
+                .concatMap(tick -> reload()
+                        .onErrorResume(error -> {
+                            System.out.println("Error al cargar el historial de precios: " + error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Optional<BigDecimal> priceAt(Long foodId, LocalDate date) {
+        PriceTimeline timeline = timelines.get(foodId);
+        return timeline == null
+                ? Optional.empty()
+                : Optional.ofNullable(timeline.priceAt(Math.toIntExact(date.toEpochDay())));
+    }
+
+    // Método para recargar todo el historial; devuelve la cantidad de vigencias cargadas
+    public Mono<Long> reload() {
+        return Mono.defer(() -> {
+            synchronized (writeLock) {
+                replacedDuringReload = new HashSet<>();
+            }
+            return shardRouter.onShard(shardRouter.referenceShard(), foodPriceRepository.findAllByOrderByFoodIdAscEffectiveFromAsc())
+                    .collectList()
+                    .map(rows -> {
+                        Map<Long, List<FoodPrice>> byFood = new HashMap<>();
+                        rows.forEach(row -> byFood.computeIfAbsent(row.getFoodId(), foodId -> new ArrayList<>()).add(row));
+                        Map<Long, PriceTimeline> rebuilt = new HashMap<>();
+                        Map<Long, Long> rebuiltVersions = new HashMap<>();
+                        byFood.forEach((foodId, foodRows) -> {
+                            rebuilt.put(foodId, PriceTimeline.of(foodRows));
+                            rebuiltVersions.put(foodId, version(foodRows));
+                        });
+                        synchronized (writeLock) {
+                            // Lo confirmado durante la lectura es más nuevo que lo leído
+                            for (Long foodId : replacedDuringReload) {
+                                PriceTimeline current = timelines.get(foodId);
+                                if (current != null) {
+                                    rebuilt.put(foodId, current);
+                                    rebuiltVersions.put(foodId, versions.get(foodId));
+                                } else {
+                                    rebuilt.remove(foodId);
+                                    rebuiltVersions.remove(foodId);
+                                }
+                            }
+                            replacedDuringReload = null;
+                            timelines = Map.copyOf(rebuilt);
+                            versions = rebuiltVersions;
+                            loaded = true;
+                        }
+                        return (long) rows.size();
+                    })
+                    .doOnError(error -> {
+                        synchronized (writeLock) {
+                            replacedDuringReload = null;
+                        }
+                    });
+        });
+    }
+
+    // Se llama después del commit con las vigencias confirmadas del alimento, ordenadas por effective_from;
+    // si otro registro ya aplicó una lectura más nueva, esta se descarta
+    public void replace(Long foodId, List<FoodPrice> rows) {
+        long version = version(rows);
+        synchronized (writeLock) {
+            Long current = versions.get(foodId);
+            if (current != null && current > version) {
+                return;
+            }
+            versions.put(foodId, version);
+            Map<Long, PriceTimeline> updated = new HashMap<>(timelines);
+            if (rows.isEmpty()) {
+                updated.remove(foodId);
+            } else {
+                updated.put(foodId, PriceTimeline.of(rows));
+            }
+            timelines = Map.copyOf(updated);
+            if (replacedDuringReload != null) {
+                replacedDuringReload.add(foodId);
+            }
+        }
+    }
+
+    private static long version(List<FoodPrice> rows) {
+        return rows.stream()
+                .map(FoodPrice::getIdFoodPrice)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+    }
+}
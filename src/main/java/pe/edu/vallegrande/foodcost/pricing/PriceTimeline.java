@@ -0,0 +1,61 @@
+package pe.edu.vallegrande.foodcost.pricing;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+
+/**
+ * Vigencias de precio de un alimento en arreglos ordenados por effective_from (epoch-day).
+ * La base garantiza que no se superponen, así que el precio de una fecha es el del último
+ * intervalo que empieza antes o en esa fecha, si todavía no terminó. Es inmutable.
+ */
+final class PriceTimeline {
+
+    private static final int OPEN_END = Integer.MAX_VALUE;
+
+    private final int[] fromDays;
+    private final int[] toDays;
+    private final BigDecimal[] prices;
+
+    private PriceTimeline(int[] fromDays, int[] toDays, BigDecimal[] prices) {
+        this.fromDays = fromDays;
+        this.toDays = toDays;
+        this.prices = prices;
+    }
+
+    // Las filas deben venir ordenadas por effective_from
+    static PriceTimeline of(List<FoodPrice> rows) {
+        int n = rows.size();
+        int[] fromDays = new int[n];
+        int[] toDays = new int[n];
+        BigDecimal[] prices = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            FoodPrice row = rows.get(i);
+            fromDays[i] = Math.toIntExact(row.getEffectiveFrom().toEpochDay());
+            toDays[i] = row.getEffectiveTo() != null ? Math.toIntExact(row.getEffectiveTo().toEpochDay()) : OPEN_END;
+            prices[i] = row.getUnitPrice();
+        }
+        return new PriceTimeline(fromDays, toDays, prices);
+    }
+
+    int size() {
+        return prices.length;
+    }
+
+    BigDecimal priceAt(int day) {
+        // Último índice con fromDays <= day
+        int low = 0;
+        int high = fromDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fromDays[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int at = low - 1;
+        return at >= 0 && toDays[at] >= day ? prices[at] : null;
+    }
+}
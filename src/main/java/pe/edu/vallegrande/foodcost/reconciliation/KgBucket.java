@@ -0,0 +1,38 @@
+package pe.edu.vallegrande.foodcost.reconciliation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Kg de un tipo de alimento en un mes. El tipo se normaliza (trim + minúsculas) igual que en el
+ * SQL y el orden es el de la collation "C" de PostgreSQL (por código de carácter), para que los
+ * flujos de la base y del catálogo se puedan mezclar sin reordenar. period null agrupa las
+ * entradas del catálogo sin fecha, que cuentan como stock inicial del tipo.
+ */
+public record KgBucket(String foodType, LocalDate period, BigDecimal kg) {
+
+    public static final Comparator<KgBucket> ORDER = Comparator.comparing(KgBucket::foodType)
+            .thenComparing(KgBucket::period, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public static String normalize(String foodType) {
+        return foodType == null ? null : foodType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Key key() {
+        return new Key(foodType, period);
+    }
+
+    public boolean sameKey(KgBucket other) {
+        return foodType.equals(other.foodType) && Objects.equals(period, other.period);
+    }
+
+    public KgBucket plus(KgBucket other) {
+        return new KgBucket(foodType, period, kg.add(other.kg));
+    }
+
+    public record Key(String foodType, LocalDate period) {
+    }
+}
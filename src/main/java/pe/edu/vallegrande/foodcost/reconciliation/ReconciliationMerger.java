@@ -0,0 +1,86 @@
+package pe.edu.vallegrande.foodcost.reconciliation;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.ReconciliationDiscrepancyDto;
+
+/**
+ * Merge join de dos secuencias ordenadas por (tipo, mes): los kg entregados según el catálogo de
+ * Food y los kg consumidos según food_costs. Por cada tipo lleva el saldo acumulado (entregado -
+ * consumido); un mes cuyo consumo deja el saldo por debajo de -tolerancia es una discrepancia, igual
+ * que el consumo de un tipo que no figura en el catálogo. Recibe el consumo de a un mes y solo
+ * guarda el estado del tipo en curso, por lo que la memoria no depende del tamaño del historial.
+ * No es thread-safe: se usa desde un único flujo secuencial.
+ */
+public class ReconciliationMerger {
+
+    public static final String NEGATIVE_BALANCE = "NEGATIVE_BALANCE";
+    public static final String NOT_IN_CATALOG = "NOT_IN_CATALOG";
+
+    private final List<KgBucket> supplies;
+    private final BigDecimal tolerance;
+    private int nextSupply;
+
+    private String currentType;
+    private BigDecimal balance = BigDecimal.ZERO;
+    private boolean currentTypeSupplied;
+    private KgBucket lastSupply;
+    private long periodsCompared;
+
+    // supplies debe venir ordenado con KgBucket.ORDER y sin claves repetidas
+    public ReconciliationMerger(List<KgBucket> supplies, BigDecimal tolerance) {
+        this.supplies = supplies;
+        this.tolerance = tolerance;
+    }
+
+    public List<ReconciliationDiscrepancyDto> accept(KgBucket consumption) {
+        // Entregas del mismo mes cuentan antes que el consumo de ese mes
+        while (nextSupply < supplies.size() && KgBucket.ORDER.compare(supplies.get(nextSupply), consumption) <= 0) {
+            applySupply(supplies.get(nextSupply++));
+        }
+        switchType(consumption.foodType());
+        periodsCompared++;
+        balance = balance.subtract(consumption.kg());
+
+        BigDecimal supplied = lastSupply != null && lastSupply.sameKey(consumption) ? lastSupply.kg() : BigDecimal.ZERO;
+        if (!currentTypeSupplied && !hasLaterSupply(consumption.foodType())) {
+            return List.of(discrepancy(consumption, supplied, NOT_IN_CATALOG));
+        }
+        if (balance.compareTo(tolerance.negate()) < 0) {
+            return List.of(discrepancy(consumption, supplied, NEGATIVE_BALANCE));
+        }
+        return Collections.emptyList();
+    }
+
+    public long getPeriodsCompared() {
+        return periodsCompared;
+    }
+
+    // El tipo figura en el catálogo aunque sus entregas sean posteriores a este consumo
+    private boolean hasLaterSupply(String foodType) {
+        return nextSupply < supplies.size() && supplies.get(nextSupply).foodType().equals(foodType);
+    }
+
+    private void applySupply(KgBucket supply) {
+        switchType(supply.foodType());
+        currentTypeSupplied = true;
+        balance = balance.add(supply.kg());
+        lastSupply = supply;
+    }
+
+    private void switchType(String foodType) {
+        if (!foodType.equals(currentType)) {
+            currentType = foodType;
+            balance = BigDecimal.ZERO;
+            currentTypeSupplied = false;
+            lastSupply = null;
+        }
+    }
+
+    private ReconciliationDiscrepancyDto discrepancy(KgBucket consumption, BigDecimal supplied, String reason) {
+        return new ReconciliationDiscrepancyDto(consumption.foodType(), consumption.period(), supplied,
+                consumption.kg(), balance, reason);
+    }
+}
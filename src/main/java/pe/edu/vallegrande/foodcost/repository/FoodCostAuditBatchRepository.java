@@ -0,0 +1,64 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.model.FoodCostAudit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Inserción por lotes del registro de auditoría, con el mismo esquema de FoodCostBatchRepository:
+ * un Statement con un juego de parámetros por fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FoodCostAuditBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO food_cost_audit (id_food_costs, shed_id, action, actor, "
+            + "before_image, after_image, changed_at) VALUES ($1, $2, $3, $4, CAST($5 AS jsonb), CAST($6 AS jsonb), $7)";
+
+    private final DatabaseClient databaseClient;
+
+    // Devuelve la cantidad de filas insertadas
+    public Mono<Long> insertAll(List<FoodCostAudit> entries) {
+        if (entries.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < entries.size(); i++) {
+                bindRow(statement, entries.get(i));
+                if (i < entries.size() - 1) {
+                    statement.add();
+                }
+            }
+            return Flux.from(statement.execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .reduce(0L, Long::sum);
+        });
+    }
+
+    private void bindRow(Statement statement, FoodCostAudit entry) {
+        bind(statement, 0, entry.getIdFoodCosts(), Long.class);
+        bind(statement, 1, entry.getShedId(), Long.class);
+        bind(statement, 2, entry.getAction(), String.class);
+        bind(statement, 3, entry.getActor(), String.class);
+        bind(statement, 4, entry.getBeforeImage(), String.class);
+        bind(statement, 5, entry.getAfterImage(), String.class);
+        bind(statement, 6, entry.getChangedAt(), Instant.class);
+    }
+
+    private void bind(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.model.FoodCostAudit;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface FoodCostAuditRepository extends ReactiveCrudRepository<FoodCostAudit, Long> {
+
+    @Query("SELECT * FROM food_cost_audit WHERE id_food_costs = :idFoodCosts ORDER BY changed_at DESC, id_audit DESC LIMIT :limit")
+    Flux<FoodCostAudit> findLatestByFoodCost(@Param("idFoodCosts") Long idFoodCosts, @Param("limit") int limit);
+
+    @Query("SELECT * FROM food_cost_audit WHERE shed_id = :shedId ORDER BY changed_at DESC, id_audit DESC LIMIT :limit")
+    Flux<FoodCostAudit> findLatestByShed(@Param("shedId") Long shedId, @Param("limit") int limit);
+
+}
@@ -0,0 +1,76 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Inserciones masivas de food_costs: todas las filas de un lote viajan en un único Statement
+ * con varios juegos de parámetros (Statement.add), que el driver envía en pipeline sobre una
+ * sola conexión en lugar de un save() por fila. Un periodo que ya existe activo para el galpón
+ * (índice único de V007) se omite sin fallar el lote.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FoodCostBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO food_costs (week_number, food_type, grams_per_chicken, total_kg, total_cost, "
+            + "start_date, end_date, shed_name, shed_id, hens_id, status) VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11) "
+            + "ON CONFLICT (shed_id, start_date) WHERE status = 'A' DO NOTHING";
+
+    private final DatabaseClient databaseClient;
+
+    // Devuelve la cantidad de filas insertadas y asigna a cada entidad insertada el id generado;
+    // las omitidas por conflicto quedan sin id
+    public Mono<Long> insertAll(List<FoodCost> foodCosts) {
+        if (foodCosts.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < foodCosts.size(); i++) {
+                bindRow(statement, foodCosts.get(i));
+                if (i < foodCosts.size() - 1) {
+                    statement.add();
+                }
+            }
+            statement.returnGeneratedValues("id_food_costs");
+            // Un resultado por juego de parámetros, en el mismo orden en que se agregaron; sin filas si se omitió
+            return Flux.from(statement.execute())
+                    .index()
+                    .concatMap(result -> Flux.from(result.getT2().map((row, metadata) -> row.get(0, Long.class)))
+                            .doOnNext(id -> foodCosts.get(result.getT1().intValue()).setIdFoodCosts(id)))
+                    .count();
+        });
+    }
+
+    private void bindRow(Statement statement, FoodCost foodCost) {
+        bind(statement, 0, foodCost.getWeekNumber(), String.class);
+        bind(statement, 1, foodCost.getFoodType(), String.class);
+        bind(statement, 2, foodCost.getGramsPerChicken(), BigDecimal.class);
+        bind(statement, 3, foodCost.getTotalKg(), BigDecimal.class);
+        bind(statement, 4, foodCost.getTotalCost(), BigDecimal.class);
+        bind(statement, 5, foodCost.getStartDate(), LocalDate.class);
+        bind(statement, 6, foodCost.getEndDate(), LocalDate.class);
+        bind(statement, 7, foodCost.getShedName(), String.class);
+        bind(statement, 8, foodCost.getShedId(), Long.class);
+        bind(statement, 9, foodCost.getHensId(), Long.class);
+        bind(statement, 10, foodCost.getStatus(), String.class);
+    }
+
+    private void bind(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+}
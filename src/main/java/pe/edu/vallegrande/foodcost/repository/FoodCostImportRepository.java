@@ -0,0 +1,99 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.csvimport.CopyTextFormat;
+import pe.edu.vallegrande.foodcost.csvimport.FoodCostCsvParser.ParsedLine;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Carga masiva por el protocolo COPY: las filas validadas llegan a food_costs_import como un flujo
+ * de CopyData (un buffer por lote) sobre una sola conexión, sin parsear ni planificar un INSERT
+ * por fila. Después un único INSERT ... SELECT las pasa a food_costs.
+ */
+@Repository
+public class FoodCostImportRepository {
+
+    private static final String COPY_SQL = "COPY food_costs_import (import_id, line_number, week_number, food_type, "
+            + "grams_per_chicken, total_kg, total_cost, start_date, end_date, shed_name, shed_id, hens_id, status) FROM STDIN";
+
+    // Si el archivo repite un periodo (shed_id, start_date) gana la última línea; los periodos que ya
+    // existen activos en food_costs no se tocan (ON CONFLICT cubre los que se insertan durante la importación).
+    // El DELETE ... RETURNING vacía el staging en la misma sentencia
+    private static final String MERGE_SQL = """
+            WITH staged AS (
+                DELETE FROM food_costs_import WHERE import_id = $1 RETURNING *
+            ), deduplicated AS (
+                SELECT DISTINCT ON (shed_id, start_date) * FROM staged ORDER BY shed_id, start_date, line_number DESC
+            )
+            INSERT INTO food_costs (week_number, food_type, grams_per_chicken, total_kg, total_cost,
+                                    start_date, end_date, shed_name, shed_id, hens_id, status)
+            SELECT d.week_number, d.food_type, d.grams_per_chicken, d.total_kg, d.total_cost,
+                   d.start_date, d.end_date, d.shed_name, d.shed_id, d.hens_id, d.status
+            FROM deduplicated d
+            WHERE NOT EXISTS (SELECT 1 FROM food_costs f
+                              WHERE f.shed_id = d.shed_id AND f.start_date = d.start_date AND f.status = 'A')
+            ON CONFLICT (shed_id, start_date) WHERE status = 'A' DO NOTHING
+            """;
+
+    private static final String DISCARD_SQL = "DELETE FROM food_costs_import WHERE import_id = $1";
+
+    private final DatabaseClient databaseClient;
+    private final int batchSize;
+
+    public FoodCostImportRepository(DatabaseClient databaseClient,
+                                    @Value("${csv-import.batch-size:1000}") int batchSize) {
+        this.databaseClient = databaseClient;
+        this.batchSize = batchSize;
+    }
+
+    // Devuelve la cantidad de filas copiadas; si el flujo falla el driver envía CopyFail y el COPY no deja filas
+    public Mono<Long> copyIn(UUID importId, Flux<ParsedLine> lines) {
+        return databaseClient.inConnection(connection -> postgres(connection).copyIn(COPY_SQL,
+                lines.buffer(batchSize).map(batch -> encode(importId, batch))));
+    }
+
+    // Devuelve la cantidad de filas insertadas en food_costs
+    public Mono<Long> merge(UUID importId) {
+        return databaseClient.sql(MERGE_SQL)
+                .bind(0, importId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> discard(UUID importId) {
+        return databaseClient.sql(DISCARD_SQL)
+                .bind(0, importId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private ByteBuf encode(UUID importId, List<ParsedLine> batch) {
+        StringBuilder text = new StringBuilder(batch.size() * 128);
+        batch.forEach(line -> CopyTextFormat.appendRow(text, importId, line.lineNumber(), line.row()));
+        return ByteBufAllocator.DEFAULT.buffer(text.length()).writeBytes(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // La conexión llega envuelta por el pool y los decoradores de observación
+    private static PostgresqlConnection postgres(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgresql) {
+            return postgresql;
+        }
+        throw new IllegalStateException("COPY requiere una conexión de r2dbc-postgresql, se obtuvo " + connection.getClass().getName());
+    }
+}
@@ -0,0 +1,96 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.r2dbc.spi.Row;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFieldSelectionException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+
+/**
+ * Consultas de listado que solo leen las columnas pedidas en fields=. Los nombres se validan
+ * contra el mapeo de FoodCost (propiedad -> columna) del R2dbcMappingContext, por lo que solo
+ * llegan al SQL columnas conocidas. Cada fila se devuelve como un mapa propiedad -> valor que
+ * siempre incluye idFoodCosts, necesario para ordenar y mezclar los resultados de los shards.
+ */
+@Repository
+public class FoodCostProjectionRepository {
+
+    public static final String ID_PROPERTY = "idFoodCosts";
+
+    private final DatabaseClient databaseClient;
+    private final Map<String, RelationalPersistentProperty> properties = new LinkedHashMap<>();
+    private final RelationalPersistentProperty idProperty;
+
+    public FoodCostProjectionRepository(DatabaseClient databaseClient, R2dbcMappingContext mappingContext) {
+        this.databaseClient = databaseClient;
+        RelationalPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(FoodCost.class);
+        entity.forEach(property -> properties.put(property.getName(), property));
+        this.idProperty = entity.getRequiredIdProperty();
+    }
+
+    // Método para validar fields=a,b,c; conserva el orden pedido y descarta repetidos
+    public List<String> resolveFields(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                requested.add(field.trim());
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new InvalidFieldSelectionException("Debe indicar al menos un campo en fields");
+        }
+        List<String> unknown = requested.stream().filter(field -> !properties.containsKey(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldSelectionException("Campos desconocidos " + unknown + "; permitidos: " + properties.keySet());
+        }
+        return new ArrayList<>(requested);
+    }
+
+    public Flux<Map<String, Object>> findByStatus(List<String> fields, String status) {
+        return databaseClient.sql("SELECT " + selectList(fields) + " FROM food_costs WHERE status = :status ORDER BY id_food_costs")
+                .bind("status", status)
+                .map((row, metadata) -> toMap(row, fields))
+                .all();
+    }
+
+    // Mismo filtro que FoodCostsRepository.findByWeekNumber
+    public Flux<Map<String, Object>> findByWeekNumber(List<String> fields, String weekNumber) {
+        return databaseClient.sql("SELECT " + selectList(fields) + " FROM food_costs "
+                        + "WHERE LOWER(week_number) LIKE LOWER(CONCAT('%', :weekNumber, '%')) AND status = 'A'")
+                .bind("weekNumber", weekNumber)
+                .map((row, metadata) -> toMap(row, fields))
+                .all();
+    }
+
+    private String selectList(List<String> fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(columnOf(idProperty));
+        fields.forEach(field -> columns.add(columnOf(properties.get(field))));
+        return String.join(", ", columns);
+    }
+
+    private Map<String, Object> toMap(Row row, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(ID_PROPERTY, row.get(columnOf(idProperty), Long.class));
+        for (String field : fields) {
+            RelationalPersistentProperty property = properties.get(field);
+            values.put(field, row.get(columnOf(property), property.getType()));
+        }
+        return values;
+    }
+
+    private static String columnOf(RelationalPersistentProperty property) {
+        return property.getColumnName().getReference();
+    }
+}
@@ -0,0 +1,42 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.reconciliation.KgBucket;
+import reactor.core.publisher.Flux;
+
+/**
+ * Consumo registrado por tipo de alimento y mes, agregado en la base: se transfieren solo los
+ * totales (tipos x meses), nunca las filas de food_costs. El tipo se normaliza y se ordena con la
+ * collation "C" para que el orden coincida con KgBucket.ORDER y se pueda mezclar en streaming.
+ */
+@Repository
+public class FoodCostReconciliationRepository {
+
+    private static final String CONSUMPTION_BY_FOOD_TYPE_AND_MONTH = """
+            SELECT LOWER(TRIM(food_type)) COLLATE "C" AS food_type,
+                   CAST(date_trunc('month', start_date) AS date) AS period,
+                   SUM(total_kg) AS total_kg
+            FROM food_costs
+            WHERE status = 'A' AND food_type IS NOT NULL AND start_date IS NOT NULL AND total_kg IS NOT NULL
+            GROUP BY 1, 2
+            ORDER BY 1, 2
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public FoodCostReconciliationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<KgBucket> findConsumptionByFoodTypeAndMonth() {
+        return databaseClient.sql(CONSUMPTION_BY_FOOD_TYPE_AND_MONTH)
+                .map((row, metadata) -> new KgBucket(row.get("food_type", String.class),
+                        row.get("period", LocalDate.class),
+                        row.get("total_kg", BigDecimal.class)))
+                .all();
+    }
+}
@@ -0,0 +1,53 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.time.LocalDate;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+
+/**
+ * Búsqueda por galpón, rango de fechas y tipo de alimento con paginación por cursor (start_date, id).
+ * Los filtros son opcionales, por eso la consulta se arma con Criteria en lugar de un @Query fijo.
+ * Con galpón la resuelve el índice (shed_id, start_date, id_food_costs); sin galpón, el BRIN de start_date.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FoodCostSearchRepository {
+
+    private static final Sort KEYSET_ORDER = Sort.by("startDate", "idFoodCosts");
+
+    private final R2dbcEntityTemplate entityTemplate;
+
+    // afterStartDate/afterId es la última fila de la página anterior (null en la primera página)
+    public Flux<FoodCost> search(Long shedId, LocalDate from, LocalDate to, String foodType, String status,
+                                 LocalDate afterStartDate, Long afterId, int limit) {
+        Criteria criteria = Criteria.where("status").is(status);
+        if (shedId != null) {
+            criteria = criteria.and("shedId").is(shedId);
+        }
+        if (from != null) {
+            criteria = criteria.and("startDate").greaterThanOrEquals(from);
+        }
+        if (to != null) {
+            criteria = criteria.and("startDate").lessThanOrEquals(to);
+        }
+        if (foodType != null) {
+            criteria = criteria.and("foodType").is(foodType);
+        }
+        if (afterStartDate != null) {
+            // (start_date, id) > (d, i) escrito como start_date >= d AND (start_date > d OR id > i):
+            // la primera condición es la que acota el recorrido del índice
+            criteria = criteria.and("startDate").greaterThanOrEquals(afterStartDate)
+                    .and(Criteria.where("startDate").greaterThan(afterStartDate).or("idFoodCosts").greaterThan(afterId));
+        }
+        return entityTemplate.select(FoodCost.class)
+                .matching(Query.query(criteria).sort(KEYSET_ORDER).limit(limit))
+                .all();
+    }
+}
@@ -1,5 +1,9 @@
 package pe.edu.vallegrande.foodcost.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -18,5 +22,42 @@ public interface FoodCostsRepository extends ReactiveCrudRepository<FoodCost, Lo
 
     Mono<FoodCost> findTopByShedIdOrderByStartDateDesc(Long shedId);
 
+    // Registros activos indexables en el orden del índice (shed_id, start_date, id_food_costs): permite
+    // armar las series por galpón a medida que llegan las filas, sin reunir la tabla en memoria
+    @Query("SELECT * FROM food_costs WHERE status = 'A' AND shed_id IS NOT NULL AND start_date IS NOT NULL ORDER BY shed_id, start_date, id_food_costs")
+    Flux<FoodCost> findAllActiveOrderByShedAndStartDate();
+
+    // Último periodo activo de cada galpón. El CTE recursivo salta de un shed_id al siguiente por el
+    // índice (shed_id, start_date, id_food_costs) y el LATERAL lee ese galpón desde el final del mismo
+    // índice: dos búsquedas por galpón en lugar de recorrer y ordenar toda la tabla como DISTINCT ON
+    @Query("""
+            WITH RECURSIVE sheds AS (
+                (SELECT shed_id FROM food_costs WHERE shed_id IS NOT NULL ORDER BY shed_id LIMIT 1)
+                UNION ALL
+                SELECT (SELECT f.shed_id FROM food_costs f WHERE f.shed_id > s.shed_id ORDER BY f.shed_id LIMIT 1)
+                FROM sheds s WHERE s.shed_id IS NOT NULL
+            )
+            SELECT latest.* FROM sheds s
+            CROSS JOIN LATERAL (SELECT * FROM food_costs f WHERE f.shed_id = s.shed_id AND f.status = 'A'
+                                AND f.start_date IS NOT NULL
+                                ORDER BY f.start_date DESC, f.id_food_costs DESC LIMIT 1) latest
+            """)
+    Flux<FoodCost> findLatestActivePerShed();
+
+    // Límites de id de los registros afectados por un recálculo (0 cuando no hay filas).
+    // "+ 0" evita que Postgres resuelva MIN/MAX recorriendo la PK: con datos cronológicos las filas
+    // del rango están lejos del extremo y ese plan lee gran parte de la tabla
+    @Query("SELECT COALESCE(MIN(id_food_costs + 0), 0) FROM food_costs WHERE food_type = :foodType AND start_date BETWEEN :fromDate AND :toDate")
+    Mono<Long> findMinIdForRecalculation(@Param("foodType") String foodType, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT COALESCE(MAX(id_food_costs + 0), 0) FROM food_costs WHERE food_type = :foodType AND start_date BETWEEN :fromDate AND :toDate")
+    Mono<Long> findMaxIdForRecalculation(@Param("foodType") String foodType, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // Recalcula total_cost de un rango de ids en una sola sentencia (mismo redondeo que FoodCostCalculator).
+    // Los inactivos conservan el costo con el que se dieron de baja
+    @Modifying
+    @Query("UPDATE food_costs SET total_cost = ROUND(total_kg * :costPerKg, 2) WHERE food_type = :foodType AND start_date BETWEEN :fromDate AND :toDate AND id_food_costs BETWEEN :fromId AND :toId AND status = 'A'")
+    Mono<Long> recalculateTotalCost(@Param("foodType") String foodType, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                    @Param("costPerKg") BigDecimal costPerKg, @Param("fromId") Long fromId, @Param("toId") Long toId);
 
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package pe.edu.vallegrande.foodcost.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface FoodPriceRepository extends ReactiveCrudRepository<FoodPrice, Long> {
+
+    Flux<FoodPrice> findAllByOrderByFoodIdAscEffectiveFromAsc();
+
+    Flux<FoodPrice> findByFoodIdOrderByEffectiveFromAsc(Long foodId);
+
+    @Query("SELECT * FROM food_prices WHERE food_id = :foodId AND effective_from <= :date "
+            + "AND (effective_to IS NULL OR effective_to >= :date) LIMIT 1")
+    Mono<FoodPrice> findEffective(@Param("foodId") Long foodId, @Param("date") LocalDate date);
+
+    // Precio abierto que empezó antes del nuevo; FOR UPDATE serializa los registros concurrentes del mismo alimento
+    @Query("SELECT * FROM food_prices WHERE food_id = :foodId AND effective_to IS NULL AND effective_from < :date FOR UPDATE")
+    Mono<FoodPrice> findOpenPriceStartingBefore(@Param("foodId") Long foodId, @Param("date") LocalDate date);
+}
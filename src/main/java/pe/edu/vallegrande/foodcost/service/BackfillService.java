@@ -0,0 +1,206 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.BackfillReportDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.BackfillRequestDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShedBackfillDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.exception.service.BackfillInProgressException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostBatchRepository;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Completa los periodos semanales faltantes de cada galpón, desde la llegada de las gallinas
+ * (o el último end_date registrado) hasta hoy. Los galpones se procesan en paralelo con
+ * concurrencia acotada y las filas se insertan en lotes grandes en el shard del galpón.
+ * Los galpones con historial continúan con los valores de su último periodo; los que no tienen
+ * historial usan los valores por defecto de la solicitud o se omiten si no se enviaron.
+ * Corre un solo backfill a la vez; los periodos que otra escritura guardó entre la lectura y la
+ * inserción los omite el índice único (shed_id, start_date) de los registros activos.
+ */
+@Service
+public class BackfillService {
+
+    private final HensClient hensClient;
+    private final FoodCostsRepository foodCostsRepository;
+    private final FoodCostBatchRepository foodCostBatchRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkloadExecutor workloadExecutor;
+    private final int concurrency;
+    private final int batchSize;
+    private final Counter insertedRowsCounter;
+    private final Timer backfillTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BackfillService(HensClient hensClient,
+                           FoodCostsRepository foodCostsRepository,
+                           FoodCostBatchRepository foodCostBatchRepository,
+                           ShardRouter shardRouter,
+                           ApplicationEventPublisher eventPublisher,
+                           WorkloadExecutor workloadExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${backfill.concurrency:4}") int concurrency,
+                           @Value("${backfill.batch-size:500}") int batchSize) {
+        this.hensClient = hensClient;
+        this.foodCostsRepository = foodCostsRepository;
+        this.foodCostBatchRepository = foodCostBatchRepository;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.workloadExecutor = workloadExecutor;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.insertedRowsCounter = Counter.builder("backfill.rows.inserted").register(meterRegistry);
+        this.backfillTimer = Timer.builder("backfill.duration").register(meterRegistry);
+    }
+
+    // El simulado solo lee y no toma el cupo; el real lo toma al suscribirse y lo devuelve al terminar
+    public Mono<BackfillReportDto> backfill(BackfillRequestDto request) {
+        if (request.isDryRun()) {
+            return scan(request);
+        }
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return Mono.error(new BackfillInProgressException("Ya hay un backfill en curso, intente más tarde"));
+            }
+            return scan(request).doFinally(signal -> running.set(false));
+        });
+    }
+
+    private Mono<BackfillReportDto> scan(BackfillRequestDto request) {
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+
+        return hensClient.findAllHens()
+                .filter(hens -> hens.getShedId() != null && hens.getArrivalDate() != null && !hens.getArrivalDate().isAfter(today))
+                .collect(HashMap<Long, HensDto>::new, (sheds, hens) -> sheds.merge(hens.getShedId(), hens,
+                        (current, candidate) -> candidate.getArrivalDate().isBefore(current.getArrivalDate()) ? candidate : current))
+                .flatMapMany(sheds -> Flux.fromIterable(sheds.values()))
+                .flatMap(hens -> backfillShed(hens, request, today), concurrency)
+                .collectList()
+                .map(results -> buildReport(request.isDryRun(), results, System.nanoTime() - start));
+    }
+
+    // Cada galpón se resuelve completo en su shard: último periodo + inserción de los faltantes
+    private Mono<ShedBackfillDto> backfillShed(HensDto hens, BackfillRequestDto request, LocalDate today) {
+        Long shedId = hens.getShedId();
+        return shardRouter.onShed(shedId, foodCostsRepository.findTopByShedIdOrderByStartDateDesc(shedId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(last -> {
+                    if (last.isEmpty() && !hasDefaults(request)) {
+                        return Mono.just(new ShedBackfillDto(shedId, "SKIPPED_NO_DEFAULTS", null, null, 0, 0));
+                    }
+                    List<FoodCost> missing = missingPeriods(hens, last.orElse(null), request, today);
+                    if (missing.isEmpty()) {
+                        return Mono.just(new ShedBackfillDto(shedId, "UP_TO_DATE", null, null, 0, 0));
+                    }
+                    LocalDate from = missing.get(0).getStartDate();
+                    LocalDate to = missing.get(missing.size() - 1).getEndDate();
+                    if (request.isDryRun()) {
+                        return Mono.just(new ShedBackfillDto(shedId, "PENDING", from, to, missing.size(), 0));
+                    }
+                    return Flux.fromIterable(missing)
+                            .buffer(batchSize)
+                            // Cada lote espera un permiso del regulador de carga BULK
+                            .concatMap(batch -> workloadExecutor.governed(foodCostBatchRepository.insertAll(batch))
+                                    // Las filas omitidas por conflicto quedan sin id y no generan evento
+                                    .doOnNext(inserted -> batch.stream()
+                                            .filter(row -> row.getIdFoodCosts() != null)
+                                            .forEach(row -> eventPublisher.publishEvent(FoodCostChangedEvent.created(row)))))
+                            .reduce(0L, Long::sum)
+                            .doOnNext(inserted -> insertedRowsCounter.increment(inserted))
+                            .map(inserted -> new ShedBackfillDto(shedId, "BACKFILLED", from, to, missing.size(), inserted));
+                }));
+    }
+
+    private List<FoodCost> missingPeriods(HensDto hens, FoodCost last, BackfillRequestDto request, LocalDate today) {
+        List<FoodCost> periods = new ArrayList<>();
+        LocalDate startDate = last != null ? last.getEndDate().plusDays(1) : hens.getArrivalDate();
+        // Solo semanas completas: el periodo debe haber terminado a más tardar hoy
+        while (!startDate.plusDays(FoodCostCalculator.DAYS_PER_PERIOD - 1L).isAfter(today)) {
+            periods.add(last != null
+                    ? continuePeriod(last, hens, startDate)
+                    : defaultPeriod(request, hens, startDate));
+            startDate = startDate.plusDays(FoodCostCalculator.DAYS_PER_PERIOD);
+        }
+        return periods;
+    }
+
+    private FoodCost continuePeriod(FoodCost last, HensDto hens, LocalDate startDate) {
+        FoodCost foodCost = newPeriod(hens, startDate);
+        foodCost.setFoodType(last.getFoodType());
+        foodCost.setGramsPerChicken(last.getGramsPerChicken());
+        foodCost.setTotalKg(last.getTotalKg());
+        foodCost.setTotalCost(last.getTotalCost());
+        foodCost.setShedName(last.getShedName());
+        foodCost.setHensId(last.getHensId());
+        return foodCost;
+    }
+
+    private FoodCost defaultPeriod(BackfillRequestDto request, HensDto hens, LocalDate startDate) {
+        BigDecimal totalKg = FoodCostCalculator.calculateTotalKg(request.getGramsPerChicken(), request.getQuantity());
+        FoodCost foodCost = newPeriod(hens, startDate);
+        foodCost.setFoodType(request.getFoodType());
+        foodCost.setGramsPerChicken(request.getGramsPerChicken());
+        foodCost.setTotalKg(totalKg);
+        foodCost.setTotalCost(FoodCostCalculator.calculateTotalCost(totalKg, request.getCostPerKg()));
+        foodCost.setShedName("Galpón " + hens.getShedId());
+        foodCost.setHensId(hens.getId());
+        return foodCost;
+    }
+
+    private FoodCost newPeriod(HensDto hens, LocalDate startDate) {
+        FoodCost foodCost = new FoodCost();
+        long week = ChronoUnit.DAYS.between(hens.getArrivalDate(), startDate) / FoodCostCalculator.DAYS_PER_PERIOD + 1;
+        foodCost.setWeekNumber("Semana " + week);
+        foodCost.setStartDate(startDate);
+        foodCost.setEndDate(startDate.plusDays(FoodCostCalculator.DAYS_PER_PERIOD - 1L));
+        foodCost.setShedId(hens.getShedId());
+        foodCost.setStatus("A");
+        return foodCost;
+    }
+
+    private boolean hasDefaults(BackfillRequestDto request) {
+        return request.getFoodType() != null && request.getGramsPerChicken() != null
+                && request.getQuantity() != null && request.getCostPerKg() != null;
+    }
+
+    private BackfillReportDto buildReport(boolean dryRun, List<ShedBackfillDto> results, long elapsedNanos) {
+        backfillTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        results.sort(Comparator.comparing(ShedBackfillDto::getShedId));
+        long periodsMissing = results.stream().mapToLong(ShedBackfillDto::getPeriods).sum();
+        long inserted = results.stream().mapToLong(ShedBackfillDto::getInsertedRows).sum();
+        int withGaps = (int) results.stream().filter(result -> result.getPeriods() > 0).count();
+        int skipped = (int) results.stream().filter(result -> result.getStatus().startsWith("SKIPPED")).count();
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        double rowsPerSecond = elapsedNanos > 0 ? inserted * 1_000_000_000d / elapsedNanos : 0;
+        System.out.println("Backfill " + (dryRun ? "(simulado) " : "") + "completado: " + inserted + " registros en " + elapsedMillis + " ms");
+        return new BackfillReportDto(dryRun, results.size(), withGaps, skipped, periodsMissing, inserted,
+                elapsedMillis, rowsPerSecond, results);
+    }
+}
@@ -0,0 +1,226 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionReportDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionRequestDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionScenarioDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionScenarioTotalDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ProjectionWeekDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShedProjectionDto;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidProjectionRequestException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Result;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Scenario;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Seed;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Proyección "qué pasaría si" del costo de alimento de las próximas semanas. Cada galpón parte de su
+ * último periodo activo: gramos por gallina, cantidad de gallinas (deducida de total_kg) y costo por
+ * kg (total_cost / total_kg). Cada escenario puede reemplazar esos valores y aplicar una mortalidad y
+ * una variación de precio semanales. El cálculo corre en FeedCostProjectionEngine; aquí solo se
+ * validan los escenarios, se convierten a punto fijo y se arma la respuesta.
+ */
+@Service
+public class FeedCostProjectionService {
+
+    // Límites que mantienen el cálculo en long sin desbordes con horizontes y escenarios válidos
+    private static final BigDecimal MAX_GRAMS_PER_CHICKEN = new BigDecimal("1000");
+    private static final int MAX_QUANTITY = 10_000_000;
+    private static final BigDecimal MAX_COST_PER_KG = new BigDecimal("100000");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final FeedCostProjectionEngine projectionEngine;
+    private final int maxWeeks;
+    private final int maxScenarios;
+    private final Timer projectionTimer;
+
+    public FeedCostProjectionService(FoodCostsRepository foodCostsRepository,
+                                     ShardRouter shardRouter,
+                                     FeedCostProjectionEngine projectionEngine,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${projection.max-weeks:104}") int maxWeeks,
+                                     @Value("${projection.max-scenarios:100}") int maxScenarios) {
+        this.foodCostsRepository = foodCostsRepository;
+        this.shardRouter = shardRouter;
+        this.projectionEngine = projectionEngine;
+        this.maxWeeks = maxWeeks;
+        this.maxScenarios = maxScenarios;
+        this.projectionTimer = Timer.builder("projection.duration").register(meterRegistry);
+    }
+
+    public Mono<ProjectionReportDto> project(ProjectionRequestDto request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            validate(request);
+            List<String> names = scenarioNames(request.getScenarios());
+            Scenario[] scenarios = request.getScenarios().stream().map(this::toScenario).toArray(Scenario[]::new);
+            Set<Long> shedIds = request.getShedIds() == null || request.getShedIds().isEmpty()
+                    ? null : new HashSet<>(request.getShedIds());
+
+            return shardRouter.scatter(shard -> foodCostsRepository.findLatestActivePerShed())
+                    .filter(latest -> shedIds == null || shedIds.contains(latest.getShedId()))
+                    .sort(Comparator.comparing(FoodCost::getShedId))
+                    .collectList()
+                    .flatMap(latest -> Mono.fromFuture(projectionEngine.projectAsync(
+                                    latest.stream().map(FeedCostProjectionService::toSeed).toArray(Seed[]::new),
+                                    scenarios, request.getWeeks(), request.isIncludeWeeks()))
+                            .map(result -> buildReport(latest, names, result, System.nanoTime() - start)))
+                    .onErrorMap(ArithmeticException.class, error -> new InvalidProjectionRequestException(
+                            "La proyección excede el rango numérico admitido; reduzca el horizonte o la variación de precio"));
+        });
+    }
+
+    private void validate(ProjectionRequestDto request) {
+        if (request.getWeeks() < 1 || request.getWeeks() > maxWeeks) {
+            throw new InvalidProjectionRequestException("Las semanas deben estar entre 1 y " + maxWeeks);
+        }
+        if (request.getScenarios() == null || request.getScenarios().isEmpty()) {
+            throw new InvalidProjectionRequestException("Debe indicar al menos un escenario");
+        }
+        if (request.getScenarios().size() > maxScenarios) {
+            throw new InvalidProjectionRequestException("Se admiten hasta " + maxScenarios + " escenarios");
+        }
+        for (ProjectionScenarioDto scenario : request.getScenarios()) {
+            if (scenario == null) {
+                throw new InvalidProjectionRequestException("Los escenarios no pueden ser nulos");
+            }
+            if (outOfRange(scenario.getGramsPerChicken(), MAX_GRAMS_PER_CHICKEN)) {
+                throw new InvalidProjectionRequestException("Los gramos por gallina deben ser mayores a 0 y hasta " + MAX_GRAMS_PER_CHICKEN);
+            }
+            if (scenario.getQuantity() != null && (scenario.getQuantity() <= 0 || scenario.getQuantity() > MAX_QUANTITY)) {
+                throw new InvalidProjectionRequestException("La cantidad de gallinas debe ser mayor a 0 y hasta " + MAX_QUANTITY);
+            }
+            if (outOfRange(scenario.getCostPerKg(), MAX_COST_PER_KG)) {
+                throw new InvalidProjectionRequestException("El costo por Kg debe ser mayor a 0 y hasta " + MAX_COST_PER_KG);
+            }
+            BigDecimal mortality = scenario.getWeeklyMortalityPercent();
+            if (mortality != null && (mortality.signum() < 0 || mortality.compareTo(HUNDRED) >= 0)) {
+                throw new InvalidProjectionRequestException("La mortalidad semanal debe ser de 0 a menos de 100%");
+            }
+            BigDecimal priceChange = scenario.getWeeklyPriceChangePercent();
+            if (priceChange != null && (priceChange.compareTo(HUNDRED.negate()) <= 0 || priceChange.compareTo(HUNDRED) > 0)) {
+                throw new InvalidProjectionRequestException("La variación semanal de precio debe ser mayor a -100% y hasta 100%");
+            }
+        }
+    }
+
+    // Nulo es válido: se usa el valor del galpón
+    private static boolean outOfRange(BigDecimal value, BigDecimal max) {
+        return value != null && (value.signum() <= 0 || value.compareTo(max) > 0);
+    }
+
+    // Los escenarios sin nombre se numeran; los nombres repetidos se rechazan para que los totales no se mezclen
+    private static List<String> scenarioNames(List<ProjectionScenarioDto> scenarios) {
+        List<String> names = new ArrayList<>(scenarios.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            String name = scenarios.get(i).getName();
+            name = name == null || name.isBlank() ? "Escenario " + (i + 1) : name.trim();
+            if (!seen.add(name)) {
+                throw new InvalidProjectionRequestException("Nombre de escenario repetido: " + name);
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private Scenario toScenario(ProjectionScenarioDto scenario) {
+        return new Scenario(
+                centi(scenario.getGramsPerChicken()),
+                scenario.getQuantity() != null ? scenario.getQuantity() : FeedCostProjectionEngine.UNSET,
+                scenario.getWeeklyMortalityPercent() != null ? centi(scenario.getWeeklyMortalityPercent()) : 0,
+                centi(scenario.getCostPerKg()),
+                scenario.getWeeklyPriceChangePercent() != null ? centi(scenario.getWeeklyPriceChangePercent()) : 0);
+    }
+
+    // La cantidad de gallinas no se guarda: se deduce de total_kg = gramos x cantidad x 7 / 1000
+    private static Seed toSeed(FoodCost latest) {
+        BigDecimal grams = latest.getGramsPerChicken();
+        BigDecimal totalKg = latest.getTotalKg();
+        long quantity = FeedCostProjectionEngine.UNSET;
+        if (grams != null && grams.signum() > 0 && totalKg != null) {
+            quantity = totalKg.multiply(BigDecimal.valueOf(1000))
+                    .divide(grams.multiply(BigDecimal.valueOf(FoodCostCalculator.DAYS_PER_PERIOD)), 0, RoundingMode.HALF_UP)
+                    .longValue();
+        }
+        long costPerKg = FeedCostProjectionEngine.UNSET;
+        if (totalKg != null && totalKg.signum() > 0 && latest.getTotalCost() != null) {
+            costPerKg = centi(latest.getTotalCost().divide(totalKg, 2, RoundingMode.HALF_UP));
+        }
+        return new Seed(grams != null && grams.signum() > 0 ? centi(grams) : FeedCostProjectionEngine.UNSET, quantity, costPerKg);
+    }
+
+    // Valores con 2 decimales (y porcentajes en puntos básicos) como long en centésimas
+    private static long centi(BigDecimal value) {
+        return value == null
+                ? FeedCostProjectionEngine.UNSET
+                : value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private ProjectionReportDto buildReport(List<FoodCost> latest, List<String> names, Result result, long elapsedNanos) {
+        int scenarios = names.size();
+        long[] scenarioKg = new long[scenarios];
+        long[] scenarioCost = new long[scenarios];
+        int[] scenarioSheds = new int[scenarios];
+        List<ShedProjectionDto> results = new ArrayList<>();
+        for (int cell = 0; cell < result.cells(); cell++) {
+            if (!result.isProjected(cell)) {
+                continue;
+            }
+            FoodCost shed = latest.get(cell / scenarios);
+            int scenario = cell % scenarios;
+            scenarioKg[scenario] = Math.addExact(scenarioKg[scenario], result.totalKgCenti(cell));
+            scenarioCost[scenario] = Math.addExact(scenarioCost[scenario], result.totalCostCenti(cell));
+            scenarioSheds[scenario]++;
+            LocalDate fromDate = nextPeriodStart(shed);
+            results.add(new ShedProjectionDto(shed.getShedId(), shed.getShedName(), names.get(scenario), fromDate,
+                    fromDate.plusDays((long) result.weeks() * FoodCostCalculator.DAYS_PER_PERIOD - 1),
+                    result.endQuantity(cell), BigDecimal.valueOf(result.totalKgCenti(cell), 2),
+                    BigDecimal.valueOf(result.totalCostCenti(cell), 2), result.hasWeeks() ? weeks(result, cell, fromDate) : null));
+        }
+        List<ProjectionScenarioTotalDto> totals = new ArrayList<>(scenarios);
+        for (int i = 0; i < scenarios; i++) {
+            totals.add(new ProjectionScenarioTotalDto(names.get(i), scenarioSheds[i],
+                    BigDecimal.valueOf(scenarioKg[i], 2), BigDecimal.valueOf(scenarioCost[i], 2)));
+        }
+        projectionTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        return new ProjectionReportDto(result.weeks(), latest.size(), scenarios, results.size(),
+                result.cells() - results.size(), elapsedNanos / 1_000_000, totals, results);
+    }
+
+    // La proyección empieza el día siguiente al último periodo (end_date puede faltar en datos antiguos)
+    private static LocalDate nextPeriodStart(FoodCost latest) {
+        return latest.getEndDate() != null
+                ? latest.getEndDate().plusDays(1)
+                : latest.getStartDate().plusDays(FoodCostCalculator.DAYS_PER_PERIOD);
+    }
+
+    private static List<ProjectionWeekDto> weeks(Result result, int cell, LocalDate fromDate) {
+        List<ProjectionWeekDto> weeks = new ArrayList<>(result.weeks());
+        for (int week = 0; week < result.weeks(); week++) {
+            weeks.add(new ProjectionWeekDto(fromDate.plusDays((long) week * FoodCostCalculator.DAYS_PER_PERIOD),
+                    BigDecimal.valueOf(result.weekKgCenti(cell, week), 2), BigDecimal.valueOf(result.weekCostCenti(cell, week), 2)));
+        }
+        return weeks;
+    }
+}
@@ -0,0 +1,64 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.util.Comparator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostAuditDto;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.model.FoodCostAudit;
+import pe.edu.vallegrande.foodcost.repository.FoodCostAuditRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+
+@Service
+@RequiredArgsConstructor
+public class FoodCostAuditService {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final Comparator<FoodCostAudit> NEWEST_FIRST = Comparator
+            .comparing(FoodCostAudit::getChangedAt).thenComparing(FoodCostAudit::getIdAudit).reversed();
+
+    private final FoodCostAuditRepository foodCostAuditRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+
+    // Método para obtener el historial de un registro; si cambió de galpón su historia puede estar en varios shards
+    public Flux<FoodCostAuditDto> getByFoodCost(Long idFoodCosts, int limit) {
+        int boundedLimit = bounded(limit);
+        return shardRouter.scatterSorted(shard -> foodCostAuditRepository.findLatestByFoodCost(idFoodCosts, boundedLimit), NEWEST_FIRST)
+                .take(boundedLimit)
+                .map(this::toDto);
+    }
+
+    // Método para obtener los últimos cambios de un galpón (también en shards anteriores a un rebalanceo)
+    public Flux<FoodCostAuditDto> getByShed(Long shedId, int limit) {
+        int boundedLimit = bounded(limit);
+        return shardRouter.scatterSorted(shard -> foodCostAuditRepository.findLatestByShed(shedId, boundedLimit), NEWEST_FIRST)
+                .take(boundedLimit)
+                .map(this::toDto);
+    }
+
+    private int bounded(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private FoodCostAuditDto toDto(FoodCostAudit audit) {
+        return new FoodCostAuditDto(audit.getIdAudit(), audit.getIdFoodCosts(), audit.getShedId(), audit.getAction(),
+                audit.getActor(), audit.getChangedAt(), fromJson(audit.getBeforeImage()), fromJson(audit.getAfterImage()));
+    }
+
+    private FoodCost fromJson(String image) {
+        if (image == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(image, FoodCost.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Imagen de auditoría inválida", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fórmulas de cálculo de costos de alimento compartidas por la inserción,
+ * la actualización y el recálculo masivo, para que todos redondeen igual.
+ */
+public final class FoodCostCalculator {
+
+    public static final int DAYS_PER_PERIOD = 7;
+
+    private FoodCostCalculator() {
+    }
+
+    // Kg consumidos en el periodo: gramos por gallina x cantidad x 7 días / 1000
+    public static BigDecimal calculateTotalKg(BigDecimal gramsPerChicken, int quantity) {
+        return gramsPerChicken.multiply(BigDecimal.valueOf(quantity))
+                .multiply(BigDecimal.valueOf(DAYS_PER_PERIOD)) // 7 días de consumo
+                .divide(BigDecimal.valueOf(1000), 2, RoundingMode.HALF_UP); // Conversión a Kg
+    }
+
+    // Costo por Kg: precio unitario del alimento / cantidad (Kg) que trae
+    public static BigDecimal calculateCostPerKg(BigDecimal unitPrice, BigDecimal amount) {
+        return unitPrice.divide(amount, 2, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal calculateTotalCost(BigDecimal totalKg, BigDecimal costPerKg) {
+        return totalKg.multiply(costPerKg).setScale(2, RoundingMode.HALF_UP);
+    }
+}
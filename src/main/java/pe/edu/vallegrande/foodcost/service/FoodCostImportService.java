@@ -0,0 +1,206 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pe.edu.vallegrande.foodcost.csvimport.FoodCostCsvParser;
+import pe.edu.vallegrande.foodcost.csvimport.FoodCostCsvParser.ParsedLine;
+import pe.edu.vallegrande.foodcost.dto.transfer.CsvImportErrorDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.CsvImportReportDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostsBulkChangedEvent;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidCsvImportException;
+import pe.edu.vallegrande.foodcost.repository.FoodCostImportRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Importa costos históricos desde un CSV sin cargarlo entero en memoria: las líneas se decodifican,
+ * validan y normalizan a medida que llegan, las válidas se copian por COPY a food_costs_import
+ * (un flujo por shard, según el galpón) y al terminar cada shard las pasa a food_costs con una
+ * sola sentencia. Con validateOnly solo se valida y se reporta, sin tocar la base.
+ */
+@Service
+public class FoodCostImportService {
+
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int HEAP_SAMPLE_EVERY = 1000;
+
+    private final FoodCostImportRepository foodCostImportRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkloadExecutor workloadExecutor;
+    private final int maxErrors;
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final Counter mergedRowsCounter;
+    private final Counter rejectedRowsCounter;
+    private final Timer importTimer;
+
+    public FoodCostImportService(FoodCostImportRepository foodCostImportRepository,
+                                 ShardRouter shardRouter,
+                                 ApplicationEventPublisher eventPublisher,
+                                 WorkloadExecutor workloadExecutor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${csv-import.max-errors:100}") int maxErrors) {
+        this.foodCostImportRepository = foodCostImportRepository;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.workloadExecutor = workloadExecutor;
+        this.maxErrors = maxErrors;
+        this.mergedRowsCounter = Counter.builder("import.rows.merged").register(meterRegistry);
+        this.rejectedRowsCounter = Counter.builder("import.rows.rejected").register(meterRegistry);
+        this.importTimer = Timer.builder("import.duration").register(meterRegistry);
+    }
+
+    // Método para importar un archivo local (modo CLI)
+    public Mono<CsvImportReportDto> importFile(Path path, boolean validateOnly) {
+        return workloadExecutor.on(WorkloadClass.BULK, importCsv(
+                DataBufferUtils.read(path, DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE), validateOnly));
+    }
+
+    public Mono<CsvImportReportDto> importCsv(Flux<DataBuffer> content, boolean validateOnly) {
+        return Mono.defer(() -> {
+            ImportProgress progress = new ImportProgress(UUID.randomUUID(), validateOnly, heapUsed());
+            Flux<ParsedLine> validLines = parse(content)
+                    .doOnNext(progress::record)
+                    .filter(ParsedLine::isValid);
+
+            Mono<Tuple2<Long, Long>> loaded = validateOnly
+                    ? validLines.then(Mono.just(Tuples.of(0L, 0L)))
+                    : load(progress.importId, validLines);
+            return loaded
+                    .doOnNext(counts -> {
+                        if (counts.getT2() > 0) {
+                            eventPublisher.publishEvent(new FoodCostsBulkChangedEvent("csv-import", counts.getT2()));
+                        }
+                    })
+                    .map(counts -> buildReport(progress, counts.getT1(), counts.getT2()));
+        });
+    }
+
+    // La línea 1 es la cabecera; las líneas en blanco se ignoran pero conservan su número
+    private Flux<ParsedLine> parse(Flux<DataBuffer> content) {
+        return lineDecoder.decode(content, STRING, null, null)
+                .index()
+                .switchOnFirst((first, lines) -> {
+                    if (first.hasError()) {
+                        return Flux.error(first.getThrowable());
+                    }
+                    if (!first.hasValue()) {
+                        return Flux.error(new InvalidCsvImportException("El archivo CSV está vacío"));
+                    }
+                    FoodCostCsvParser parser = FoodCostCsvParser.forHeader(first.get().getT2());
+                    return lines.skip(1)
+                            .filter(line -> !line.getT2().isBlank())
+                            .map(line -> parser.parse(line.getT1() + 1, line.getT2()));
+                });
+    }
+
+    // Devuelve {filas copiadas al staging, filas insertadas en food_costs}
+    private Mono<Tuple2<Long, Long>> load(UUID importId, Flux<ParsedLine> validLines) {
+        // Todos los grupos deben consumirse a la vez: la concurrencia cubre todos los shards posibles
+        // y el COPY no pasa por el regulador BULK, que podría dejar un grupo esperando permiso
+        return validLines.groupBy(line -> shardRouter.shardFor(line.row().getShedId()))
+                .flatMap(shard -> shardRouter.onShard(shard.key(), foodCostImportRepository.copyIn(importId, shard))
+                                .flatMap(staged -> workloadExecutor.governed(
+                                                shardRouter.onShard(shard.key(), foodCostImportRepository.merge(importId)))
+                                        .map(merged -> Tuples.of(staged, merged))),
+                        shardRouter.shards().size())
+                .reduce(Tuples.of(0L, 0L), (total, shard) -> Tuples.of(total.getT1() + shard.getT1(), total.getT2() + shard.getT2()))
+                .onErrorResume(error -> discard(importId).then(Mono.error(error)))
+                .doOnCancel(() -> discard(importId).subscribe());
+    }
+
+    // Limpia lo que haya quedado en staging en cualquier shard; un fallo aquí no oculta el error original
+    private Mono<Void> discard(UUID importId) {
+        return Flux.fromIterable(shardRouter.shards())
+                .flatMap(shard -> shardRouter.onShard(shard, foodCostImportRepository.discard(importId)))
+                .onErrorResume(error -> {
+                    System.out.println("Error al limpiar el staging de la importación " + importId + ": " + error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private CsvImportReportDto buildReport(ImportProgress progress, long staged, long merged) {
+        long elapsedNanos = System.nanoTime() - progress.startNanos;
+        importTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        mergedRowsCounter.increment(merged);
+        rejectedRowsCounter.increment(progress.rejected);
+        progress.sampleHeap(heapUsed());
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        double rowsPerSecond = elapsedNanos > 0 ? progress.total * 1_000_000_000d / elapsedNanos : 0;
+        System.out.println("Importación CSV " + progress.importId + (progress.validateOnly ? " (solo validación)" : "")
+                + ": " + progress.total + " líneas, " + merged + " insertadas en " + elapsedMillis + " ms");
+        return new CsvImportReportDto(progress.importId, progress.validateOnly, progress.total, progress.total - progress.rejected,
+                progress.rejected, staged, merged, staged - merged, elapsedMillis, rowsPerSecond,
+                toMb(progress.heapStart), toMb(progress.heapPeak), progress.errors);
+    }
+
+    private long heapUsed() {
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long toMb(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    // Conteos de una importación; record() se llama en orden desde un único flujo
+    private final class ImportProgress {
+        private final UUID importId;
+        private final boolean validateOnly;
+        private final long startNanos = System.nanoTime();
+        private final long heapStart;
+        private final List<CsvImportErrorDto> errors = new ArrayList<>();
+        private long heapPeak;
+        private long total;
+        private long rejected;
+
+        private ImportProgress(UUID importId, boolean validateOnly, long heapStart) {
+            this.importId = importId;
+            this.validateOnly = validateOnly;
+            this.heapStart = heapStart;
+            this.heapPeak = heapStart;
+        }
+
+        private void record(ParsedLine line) {
+            total++;
+            if (!line.isValid()) {
+                rejected++;
+                if (errors.size() < maxErrors) {
+                    errors.add(new CsvImportErrorDto(line.lineNumber(), line.error()));
+                }
+            }
+            if (total % HEAP_SAMPLE_EVERY == 0) {
+                sampleHeap(heapUsed());
+            }
+        }
+
+        private void sampleHeap(long used) {
+            heapPeak = Math.max(heapPeak, used);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostPageDto;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidPageRequestException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostSearchRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Búsqueda paginada por galpón y/o rango de fechas. La paginación es por cursor (start_date, id):
+ * cada página continúa después de la última fila entregada, así el costo no crece con la
+ * profundidad como con OFFSET y las inserciones concurrentes no duplican ni saltan filas.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodCostSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Comparator<FoodCost> KEYSET_ORDER = Comparator
+            .comparing(FoodCost::getStartDate).thenComparing(FoodCost::getIdFoodCosts);
+
+    private final FoodCostSearchRepository foodCostSearchRepository;
+    private final ShardRouter shardRouter;
+
+    // Método para buscar costos; sin galpón se exige un rango de fechas para no recorrer toda la tabla
+    public Mono<FoodCostPageDto> search(Long shedId, LocalDate from, LocalDate to, String foodType, String cursor, int limit) {
+        if (shedId == null && from == null && to == null) {
+            return Mono.error(new InvalidPageRequestException("Debe indicar shedId o un rango de fechas (from/to)"));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Mono.error(new InvalidPageRequestException("El rango de fechas es inválido"));
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidPageRequestException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE));
+        }
+        FoodCost after;
+        try {
+            after = decodeCursor(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Mono.error(new InvalidPageRequestException("Cursor inválido"));
+        }
+        LocalDate afterStartDate = after != null ? after.getStartDate() : null;
+        Long afterId = after != null ? after.getIdFoodCosts() : null;
+
+        // Se pide una fila de más para saber si existe una página siguiente
+        Flux<FoodCost> rows = shedId != null
+                ? shardRouter.onShed(shedId, foodCostSearchRepository.search(shedId, from, to, foodType, "A", afterStartDate, afterId, limit + 1))
+                : shardRouter.scatterSorted(shard -> foodCostSearchRepository.search(null, from, to, foodType, "A", afterStartDate, afterId, limit + 1), KEYSET_ORDER);
+        return rows.take(limit + 1L)
+                .collectList()
+                .map(page -> toPage(page, limit));
+    }
+
+    private FoodCostPageDto toPage(List<FoodCost> page, int limit) {
+        if (page.size() <= limit) {
+            return new FoodCostPageDto(page, null);
+        }
+        List<FoodCost> items = page.subList(0, limit);
+        return new FoodCostPageDto(items, encodeCursor(items.get(limit - 1)));
+    }
+
+    static String encodeCursor(FoodCost last) {
+        String key = last.getStartDate() + "|" + last.getIdFoodCosts();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static FoodCost decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        if (key.length != 2) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        FoodCost after = new FoodCost();
+        after.setStartDate(LocalDate.parse(key[0]));
+        after.setIdFoodCosts(Long.parseLong(key[1]));
+        return after;
+    }
+}
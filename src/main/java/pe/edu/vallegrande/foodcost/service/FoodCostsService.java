@@ -1,11 +1,19 @@
 package pe.edu.vallegrande.foodcost.service;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
 import pe.edu.vallegrande.foodcost.exception.service.FoodCostInactiveException;
 import pe.edu.vallegrande.foodcost.exception.service.FoodCostNotFoundException;
 import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostProjectionRepository;
 import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -15,32 +23,71 @@ public class FoodCostsService {
 
     public static final String RECORD_NOT_FOUND_MESSAGE = "Record not found";
 
+    private static final Comparator<FoodCost> BY_ID = Comparator.comparing(FoodCost::getIdFoodCosts);
+    private static final Comparator<Map<String, Object>> PROJECTION_BY_ID =
+            Comparator.comparing(row -> (Long) row.get(FoodCostProjectionRepository.ID_PROPERTY));
+
 
     private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FoodCostProjectionRepository foodCostProjectionRepository;
 
     // Método para obtener costo de alimentos activos
     public Flux<FoodCost> getAllActiveCosts() {
-        return foodCostsRepository.findAllByStatusOrderByIdFoodCostsAsc("A");
+        return shardRouter.scatterSorted(shard -> foodCostsRepository.findAllByStatusOrderByIdFoodCostsAsc("A"), BY_ID);
     }
 
     // Método para obtener costo de alimentos inactivos
     public Flux<FoodCost> getAllInactiveCosts() {
-        return foodCostsRepository.findAllByStatusOrderByIdFoodCostsAsc("I");
+        return shardRouter.scatterSorted(shard -> foodCostsRepository.findAllByStatusOrderByIdFoodCostsAsc("I"), BY_ID);
     }
 
     // Método para obtener costo de alimentos por semana (week_number)
     public Flux<FoodCost> getByWeekNumber(String weekNumber){
-        return foodCostsRepository.findByWeekNumber(weekNumber);
+        return shardRouter.scatter(shard -> foodCostsRepository.findByWeekNumber(weekNumber));
+    }
+
+    // Métodos con fields=: solo se leen y se devuelven las columnas pedidas
+    public Flux<Map<String, Object>> getAllActiveCosts(String fields) {
+        return getCostsByStatus("A", fields);
+    }
+
+    public Flux<Map<String, Object>> getAllInactiveCosts(String fields) {
+        return getCostsByStatus("I", fields);
+    }
+
+    public Flux<Map<String, Object>> getByWeekNumber(String weekNumber, String fields) {
+        List<String> selected = foodCostProjectionRepository.resolveFields(fields);
+        return shardRouter.scatter(shard -> foodCostProjectionRepository.findByWeekNumber(selected, weekNumber))
+                .map(row -> withoutUnrequestedId(row, selected));
+    }
+
+    private Flux<Map<String, Object>> getCostsByStatus(String status, String fields) {
+        List<String> selected = foodCostProjectionRepository.resolveFields(fields);
+        return shardRouter.scatterSorted(shard -> foodCostProjectionRepository.findByStatus(selected, status), PROJECTION_BY_ID)
+                .map(row -> withoutUnrequestedId(row, selected));
+    }
+
+    // El id se lee siempre para mezclar los shards en orden, pero solo se devuelve si se pidió
+    private Map<String, Object> withoutUnrequestedId(Map<String, Object> row, List<String> selected) {
+        if (!selected.contains(FoodCostProjectionRepository.ID_PROPERTY)) {
+            row.remove(FoodCostProjectionRepository.ID_PROPERTY);
+        }
+        return row;
     }
 
     // Método para eliminar un costo de alimento lógicamente
     public Mono<FoodCost> deleteFoodCost(Long id) {
-        return foodCostsRepository.findById(id)
+        return shardRouter.locate(shard -> foodCostsRepository.findById(id))
                 .switchIfEmpty(Mono.error(new FoodCostNotFoundException(RECORD_NOT_FOUND_MESSAGE)))
-                .flatMap(existingFoodCosts -> {
+                .flatMap(located -> {
+                    FoodCost existingFoodCosts = located.getT2();
                     if ("A".equals(existingFoodCosts.getStatus())) {
+                        FoodCost before = FoodCostChangedEvent.copyOf(existingFoodCosts);
                         existingFoodCosts.setStatus("I");
-                        return foodCostsRepository.save(existingFoodCosts);
+                        return shardRouter.onShard(located.getT1(), foodCostsRepository.save(existingFoodCosts))
+                                .doOnSuccess(saved -> eventPublisher.publishEvent(FoodCostChangedEvent.statusChanged(before, saved)));
                     }
                     return Mono.error(new FoodCostInactiveException("The registration is already inactive"));
                 });
@@ -48,12 +95,15 @@ public class FoodCostsService {
 
     // Método para restaurar el costo de alimento (cambiar estado de 'I' a 'A')
     public Mono<FoodCost> restoreFoodCosts(Long id) {
-        return foodCostsRepository.findById(id)
+        return shardRouter.locate(shard -> foodCostsRepository.findById(id))
                 .switchIfEmpty(Mono.error(new FoodCostNotFoundException(RECORD_NOT_FOUND_MESSAGE)))
-                .flatMap(existingFoodCosts -> {
+                .flatMap(located -> {
+                    FoodCost existingFoodCosts = located.getT2();
                     if ("I".equals(existingFoodCosts.getStatus())) {
+                        FoodCost before = FoodCostChangedEvent.copyOf(existingFoodCosts);
                         existingFoodCosts.setStatus("A");
-                        return foodCostsRepository.save(existingFoodCosts);
+                        return shardRouter.onShard(located.getT1(), foodCostsRepository.save(existingFoodCosts))
+                                .doOnSuccess(saved -> eventPublisher.publishEvent(FoodCostChangedEvent.statusChanged(before, saved)));
                     }
                     return Mono.error(new FoodCostInactiveException("Record is already active"));
                 });
@@ -61,8 +111,9 @@ public class FoodCostsService {
 
     // Método para eliminar un costo de alimento físicamente
     public Mono<Void> deleteFoodCostPhysically(Long id) {
-        return foodCostsRepository.findById(id)
+        return shardRouter.locate(shard -> foodCostsRepository.findById(id))
                 .switchIfEmpty(Mono.error(new FoodCostNotFoundException(RECORD_NOT_FOUND_MESSAGE)))
-                .flatMap(existingFoodCost -> foodCostsRepository.deleteById(id));
+                .flatMap(located -> shardRouter.onShard(located.getT1(), foodCostsRepository.deleteById(id))
+                        .doOnSuccess(deleted -> eventPublisher.publishEvent(FoodCostChangedEvent.deleted(located.getT2()))));
     }
 }
@@ -0,0 +1,103 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import lombok.RequiredArgsConstructor;
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodPriceRequestDto;
+import pe.edu.vallegrande.foodcost.exception.service.FoodPriceNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodPriceException;
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import pe.edu.vallegrande.foodcost.pricing.FoodPriceIndex;
+import pe.edu.vallegrande.foodcost.repository.FoodPriceRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class FoodPriceService {
+
+    private final FoodPriceRepository foodPriceRepository;
+    private final FoodPriceIndex foodPriceIndex;
+    private final ShardRouter shardRouter;
+    private final TransactionalOperator transactionalOperator;
+
+    // Método para obtener el historial de precios de un alimento
+    public Flux<FoodPrice> getHistory(Long foodId) {
+        return shardRouter.onShard(shardRouter.referenceShard(), foodPriceRepository.findByFoodIdOrderByEffectiveFromAsc(foodId));
+    }
+
+    // Método para obtener el precio vigente en una fecha; se resuelve en memoria una vez cargado el índice
+    public Mono<BigDecimal> resolveUnitPrice(Long foodId, LocalDate date) {
+        Mono<BigDecimal> price = foodPriceIndex.isLoaded()
+                ? Mono.justOrEmpty(foodPriceIndex.priceAt(foodId, date))
+                : shardRouter.onShard(shardRouter.referenceShard(), foodPriceRepository.findEffective(foodId, date))
+                        .map(FoodPrice::getUnitPrice);
+        return price.switchIfEmpty(Mono.error(new FoodPriceNotFoundException(
+                "El alimento con ID " + foodId + " no tiene un precio vigente para el " + date)));
+    }
+
+    // Método para registrar un precio: cierra el precio abierto anterior e inserta el nuevo en una transacción,
+    // y solo después del commit reemplaza el timeline del alimento en el índice. Un precio con fin dentro de
+    // un precio abierto lo parte: el abierto se reanuda al día siguiente del fin con su mismo precio
+    public Mono<FoodPrice> addPrice(Long foodId, FoodPriceRequestDto request) {
+        return Mono.fromRunnable(() -> validate(request))
+                .then(Mono.defer(() -> shardRouter.onShard(shardRouter.referenceShard(), foodPriceRepository
+                        .findOpenPriceStartingBefore(foodId, request.getEffectiveFrom())
+                        .flatMap(open -> splitOpenPrice(open, request))
+                        .then(foodPriceRepository.save(newPrice(foodId, request)))
+                        .<Mono<FoodPrice>>as(operation -> transactionalOperator.transactional(operation)))))
+                .onErrorMap(DataIntegrityViolationException.class, error -> new InvalidFoodPriceException(
+                        "La vigencia desde " + request.getEffectiveFrom() + " se superpone con otro precio del alimento " + foodId))
+                .flatMap(saved -> getHistory(foodId)
+                        .collectList()
+                        .doOnNext(rows -> foodPriceIndex.replace(foodId, rows))
+                        .thenReturn(saved))
+                .doOnSuccess(saved -> System.out.println("Precio registrado para el alimento " + foodId + ": " + saved));
+    }
+
+    // Cierra el precio abierto el día anterior al nuevo; si el nuevo tiene fin, el abierto se reanuda al día siguiente
+    private Mono<Void> splitOpenPrice(FoodPrice open, FoodPriceRequestDto request) {
+        FoodPrice resumed = request.getEffectiveTo() != null ? resumedAfter(open, request.getEffectiveTo()) : null;
+        open.setEffectiveTo(request.getEffectiveFrom().minusDays(1));
+        Mono<FoodPrice> closed = foodPriceRepository.save(open);
+        return (resumed != null ? closed.then(foodPriceRepository.save(resumed)) : closed).then();
+    }
+
+    private FoodPrice resumedAfter(FoodPrice open, LocalDate effectiveTo) {
+        FoodPrice resumed = new FoodPrice();
+        resumed.setFoodId(open.getFoodId());
+        resumed.setUnitPrice(open.getUnitPrice());
+        resumed.setEffectiveFrom(effectiveTo.plusDays(1));
+        resumed.setCreatedAt(Instant.now());
+        return resumed;
+    }
+
+    private void validate(FoodPriceRequestDto request) {
+        if (request.getUnitPrice() == null || request.getUnitPrice().signum() <= 0) {
+            throw new InvalidFoodPriceException("El precio unitario debe ser mayor a cero");
+        }
+        if (request.getEffectiveFrom() == null) {
+            throw new InvalidFoodPriceException("La fecha de inicio de vigencia es obligatoria");
+        }
+        if (request.getEffectiveTo() != null && request.getEffectiveTo().isBefore(request.getEffectiveFrom())) {
+            throw new InvalidFoodPriceException("La vigencia termina antes de empezar");
+        }
+    }
+
+    private FoodPrice newPrice(Long foodId, FoodPriceRequestDto request) {
+        FoodPrice price = new FoodPrice();
+        price.setFoodId(foodId);
+        price.setUnitPrice(request.getUnitPrice());
+        price.setEffectiveFrom(request.getEffectiveFrom());
+        price.setEffectiveTo(request.getEffectiveTo());
+        price.setCreatedAt(Instant.now());
+        return price;
+    }
+}
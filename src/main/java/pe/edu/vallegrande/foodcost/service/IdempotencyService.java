@@ -0,0 +1,105 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import pe.edu.vallegrande.foodcost.exception.service.IdempotencyKeyConflictException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Soporte del header Idempotency-Key para POST y PUT. El primer request con una clave ejecuta la
+ * operación y su resultado queda en memoria durante el TTL; los reintentos con la misma clave
+ * reciben ese resultado sin volver a llamar a FOOD/HENS ni a la base de datos, y los duplicados
+ * concurrentes se unen a la ejecución en curso. Si la operación falla la clave se libera para
+ * que el cliente pueda reintentar. Las claves son por usuario (sub del JWT): dos usuarios que
+ * envían la misma clave no comparten resultados.
+ */
+@Service
+public class IdempotencyService {
+
+    // Orden de inserción = orden de vencimiento, porque todas las entradas usan el mismo TTL
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public IdempotencyService(@Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    // Ejecuta la acción una sola vez por (usuario, scope, clave); sin clave se ejecuta siempre
+    public <T> Mono<T> execute(String idempotencyKey, String subject, String scope, Object fingerprint,
+                               Supplier<Mono<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return Mono.defer(action);
+        }
+        return Mono.defer(() -> resolve(subject + ":" + scope + ":" + idempotencyKey, fingerprint, action));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> resolve(String storeKey, Object fingerprint, Supplier<Mono<T>> action) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry current = entries.get(storeKey);
+            if (current != null && current.expiresAt > now) {
+                if (!Objects.equals(current.fingerprint, fingerprint)) {
+                    return Mono.error(new IdempotencyKeyConflictException(
+                            "El Idempotency-Key ya fue usado con un contenido distinto"));
+                }
+                return (Mono<T>) current.result;
+            }
+            Entry candidate = new Entry(fingerprint, now + ttlMillis);
+            candidate.result = Mono.defer(action)
+                    .doOnSuccess(value -> candidate.completed = true)
+                    .doOnError(error -> release(storeKey, candidate))
+                    .cache();
+            // Una clave vencida se quita antes de insertar para que quede al final del orden
+            entries.remove(storeKey);
+            entries.put(storeKey, candidate);
+            evictIfFull(now);
+            return (Mono<T>) candidate.result;
+        }
+    }
+
+    private void release(String storeKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(storeKey, entry);
+        }
+    }
+
+    // Se llama con el lock tomado. Primero caen las vencidas (todas al inicio del mapa); si aún
+    // sobra, las completadas más antiguas. Las que están en curso se conservan para que un
+    // duplicado concurrente siga uniéndose a la ejecución en lugar de repetirla
+    private void evictIfFull(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Iterator<Entry> oldestFirst = entries.values().iterator();
+        while (entries.size() > maxEntries && oldestFirst.hasNext()) {
+            Entry entry = oldestFirst.next();
+            if (entry.expiresAt <= now || entry.completed) {
+                oldestFirst.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Object fingerprint;
+        private final long expiresAt;
+        private volatile boolean completed;
+        private Mono<?> result;
+
+        private Entry(Object fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
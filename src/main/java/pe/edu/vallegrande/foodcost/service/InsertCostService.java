@@ -1,31 +1,37 @@
 package pe.edu.vallegrande.foodcost.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import lombok.RequiredArgsConstructor;
 import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
 import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
 import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostRequestDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
 import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodAmountException;
 import pe.edu.vallegrande.foodcost.model.FoodCost;
 import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
 import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
 import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
 import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class InsertCostService {
 
     private final FoodClient foodClient;
     private final HensClient hensClient;
     private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FoodPriceService foodPriceService;
+    private final TransactionalOperator transactionalOperator;
 
     public Mono<Void> addFoodCost(FoodCostRequestDto request) {
         System.out.println("Request recibido: " + request);
@@ -46,29 +52,40 @@ public class InsertCostService {
         BigDecimal totalKg = calculateTotalKg(request.getGramsPerChicken(), request.getQuantity());
         System.out.println("Total de Kg calculado: " + totalKg);
 
-        BigDecimal costPerKg = calculateCostPerKg(request.getUnitPrice(), BigDecimal.valueOf(food.getAmount()));
-        System.out.println("Costo por Kg calculado: " + costPerKg);
-
-        BigDecimal totalCost = calculateTotalCost(totalKg, costPerKg);
-        System.out.println("Costo total calculado: " + totalCost);
+        return saveFoodCost(request, food, totalKg, hens);
+    }
 
-        return saveFoodCost(request, totalKg, totalCost, hens);
+    // Sin unitPrice en la solicitud se usa el precio vigente del alimento en la fecha de inicio del periodo
+    private Mono<BigDecimal> totalCostFor(FoodCostRequestDto request, FoodDto food, BigDecimal totalKg, LocalDate startDate) {
+        Mono<BigDecimal> unitPrice = request.getUnitPrice() != null
+                ? Mono.just(request.getUnitPrice())
+                : foodPriceService.resolveUnitPrice(request.getFoodId(), startDate);
+        return unitPrice.map(price -> {
+            BigDecimal costPerKg = calculateCostPerKg(price, BigDecimal.valueOf(food.getAmount()));
+            System.out.println("Costo por Kg calculado: " + costPerKg);
+
+            BigDecimal totalCost = calculateTotalCost(totalKg, costPerKg);
+            System.out.println("Costo total calculado: " + totalCost);
+            return totalCost;
+        });
     }
 
     private BigDecimal calculateTotalKg(BigDecimal gramsPerChicken, int quantity) {
-        return gramsPerChicken.multiply(BigDecimal.valueOf(quantity)).multiply(BigDecimal.valueOf(7)).divide(BigDecimal.valueOf(1000), 2, RoundingMode.HALF_UP);
+        return FoodCostCalculator.calculateTotalKg(gramsPerChicken, quantity);
     }
 
     private BigDecimal calculateCostPerKg(BigDecimal unitPrice, BigDecimal amount) {
-        return unitPrice.divide(amount, 2, RoundingMode.HALF_UP);
+        return FoodCostCalculator.calculateCostPerKg(unitPrice, amount);
     }
 
     private BigDecimal calculateTotalCost(BigDecimal totalKg, BigDecimal costPerKg) {
-        return totalKg.multiply(costPerKg).setScale(2, RoundingMode.HALF_UP);
+        return FoodCostCalculator.calculateTotalCost(totalKg, costPerKg);
     }
 
-    private Mono<Void> saveFoodCost(FoodCostRequestDto request, BigDecimal totalKg, BigDecimal totalCost, HensDto hens) {
-        return foodCostsRepository.findTopByShedIdOrderByStartDateDesc(hens.getShedId())
+    // La lectura del último periodo y el guardado son una transacción en el shard del galpón;
+    // el evento se publica después del commit
+    private Mono<Void> saveFoodCost(FoodCostRequestDto request, FoodDto food, BigDecimal totalKg, HensDto hens) {
+        return shardRouter.onShed(hens.getShedId(), foodCostsRepository.findTopByShedIdOrderByStartDateDesc(hens.getShedId())
                 .flatMap(lastFoodCost -> {
                     LocalDate expectedStartDate = lastFoodCost.getEndDate().plusDays(1);
                     if (lastFoodCost.getStartDate().equals(expectedStartDate)) {
@@ -77,18 +94,29 @@ public class InsertCostService {
                     }
 
                     LocalDate endDate = calculateEndDate(expectedStartDate);
-                    FoodCost foodCost = buildFoodCost(request, totalKg, totalCost, expectedStartDate, endDate, hens);
+                    return totalCostFor(request, food, totalKg, expectedStartDate).flatMap(totalCost -> {
+                        FoodCost foodCost = buildFoodCost(request, totalKg, totalCost, expectedStartDate, endDate, hens);
 
-                    System.out.println("Registro FoodCost nuevo para galpón " + hens.getShedId() + ": " + foodCost);
-                    return saveAndLogFoodCost(foodCost, false);
+                        System.out.println("Registro FoodCost nuevo para galpón " + hens.getShedId() + ": " + foodCost);
+                        return saveAndLogFoodCost(foodCost, false);
+                    });
                 }).switchIfEmpty(Mono.defer(() -> {
                     LocalDate startDate = hens.getArrivalDate();
                     LocalDate endDate = calculateEndDate(startDate);
-                    FoodCost foodCost = buildFoodCost(request, totalKg, totalCost, startDate, endDate, hens);
-
-                    System.out.println("Registro FoodCost inicial para galpón " + hens.getShedId() + ": " + foodCost);
-                    return saveAndLogFoodCost(foodCost, true);
-                })).then();
+                    return totalCostFor(request, food, totalKg, startDate).flatMap(totalCost -> {
+                        FoodCost foodCost = buildFoodCost(request, totalKg, totalCost, startDate, endDate, hens);
+
+                        System.out.println("Registro FoodCost inicial para galpón " + hens.getShedId() + ": " + foodCost);
+                        return saveAndLogFoodCost(foodCost, true);
+                    });
+                })).<Mono<FoodCost>>as(operation -> transactionalOperator.transactional(operation)))
+                // Otra alta o un backfill guardó el mismo periodo entre la lectura y el guardado (índice único de V007)
+                .onErrorResume(DuplicateKeyException.class, ex -> {
+                    System.out.println("Registro ya existente para el periodo del galpón " + hens.getShedId() + ": " + ex.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(saved -> eventPublisher.publishEvent(FoodCostChangedEvent.created(saved)))
+                .then();
     }
 
     private LocalDate calculateEndDate(LocalDate startDate) {
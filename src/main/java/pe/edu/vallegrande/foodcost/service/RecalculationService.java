@@ -0,0 +1,223 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.RecalculationJobDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.RecalculationRequestDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostsBulkChangedEvent;
+import pe.edu.vallegrande.foodcost.exception.service.FoodNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodAmountException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidRecalculationRequestException;
+import pe.edu.vallegrande.foodcost.exception.service.RecalculationCapacityException;
+import pe.edu.vallegrande.foodcost.exception.service.RecalculationJobNotFoundException;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Recalcula total_cost de todos los registros de un tipo de alimento dentro de un rango de fechas
+ * cuando cambia el precio del proveedor. El trabajo se divide en rangos de id que se actualizan con
+ * una sola sentencia UPDATE cada uno, con concurrencia acotada, para que el tiempo sea predecible
+ * incluso con millones de filas y el progreso quede visible por trabajo. Corre como carga BULK:
+ * cada bloque espera un permiso del regulador para no degradar las altas y ediciones interactivas.
+ * Solo se actualizan registros activos y corren a lo sumo recalculation.max-running trabajos a la vez.
+ */
+@Service
+public class RecalculationService {
+
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final FoodClient foodClient;
+    private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkloadExecutor workloadExecutor;
+    private final long chunkSize;
+    private final int concurrency;
+    private final Duration timeout;
+    private final int maxRunning;
+
+    private final Map<String, RecalculationJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public RecalculationService(FoodClient foodClient,
+                                FoodCostsRepository foodCostsRepository,
+                                ShardRouter shardRouter,
+                                ApplicationEventPublisher eventPublisher,
+                                WorkloadExecutor workloadExecutor,
+                                @Value("${recalculation.chunk-size:10000}") long chunkSize,
+                                @Value("${recalculation.concurrency:4}") int concurrency,
+                                @Value("${recalculation.timeout:30m}") Duration timeout,
+                                @Value("${recalculation.max-running:2}") int maxRunning) {
+        this.foodClient = foodClient;
+        this.foodCostsRepository = foodCostsRepository;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.workloadExecutor = workloadExecutor;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.maxRunning = maxRunning;
+    }
+
+    // Método para iniciar un recálculo; responde de inmediato con el trabajo en estado RUNNING
+    public Mono<RecalculationJobDto> startRecalculation(RecalculationRequestDto request) {
+        return Mono.fromRunnable(() -> validate(request))
+                .then(Mono.defer(() -> foodClient.findFoodById(request.getFoodId())))
+                .switchIfEmpty(Mono.error(() -> new FoodNotFoundException("No se encontró el alimento con ID: " + request.getFoodId())))
+                .map(food -> {
+                    BigDecimal costPerKg = FoodCostCalculator.calculateCostPerKg(request.getUnitPrice(), validAmount(food));
+                    RecalculationJob job = register(request, costPerKg);
+                    run(job);
+                    return job.toDto();
+                });
+    }
+
+    // Método para consultar el progreso de un recálculo
+    public Mono<RecalculationJobDto> getJob(String jobId) {
+        RecalculationJob job = jobs.get(jobId);
+        if (job == null) {
+            return Mono.error(new RecalculationJobNotFoundException("No se encontró el recálculo con ID: " + jobId));
+        }
+        return Mono.just(job.toDto());
+    }
+
+    private void validate(RecalculationRequestDto request) {
+        if (request.getFoodType() == null || request.getFoodType().isBlank()) {
+            throw new InvalidRecalculationRequestException("El tipo de alimento es obligatorio");
+        }
+        if (request.getFoodId() == null) {
+            throw new InvalidRecalculationRequestException("El ID del alimento es obligatorio");
+        }
+        if (request.getUnitPrice() == null || request.getUnitPrice().signum() <= 0) {
+            throw new InvalidRecalculationRequestException("El precio unitario debe ser mayor a cero");
+        }
+        if (request.getFromDate() == null || request.getToDate() == null || request.getFromDate().isAfter(request.getToDate())) {
+            throw new InvalidRecalculationRequestException("El rango de fechas es inválido");
+        }
+    }
+
+    private BigDecimal validAmount(FoodDto food) {
+        if (food.getAmount() == null || food.getAmount() <= 0) {
+            throw new InvalidFoodAmountException("Cantidad inválida de alimento con ID: " + food.getIdFood());
+        }
+        return BigDecimal.valueOf(food.getAmount());
+    }
+
+    // El cupo se toma antes de registrar y lo devuelve finish(); los terminados se descartan del más antiguo
+    private RecalculationJob register(RecalculationRequestDto request, BigDecimal costPerKg) {
+        if (running.incrementAndGet() > maxRunning) {
+            running.decrementAndGet();
+            throw new RecalculationCapacityException("Ya hay " + maxRunning + " recálculos en curso, intente más tarde");
+        }
+        if (jobs.size() >= MAX_TRACKED_JOBS) {
+            jobs.values().stream()
+                    .filter(job -> job.finishedAt != null)
+                    .min(Comparator.comparing(job -> job.finishedAt))
+                    .ifPresent(oldest -> jobs.remove(oldest.jobId));
+        }
+        RecalculationJob job = new RecalculationJob(UUID.randomUUID().toString(), request.getFoodType(),
+                request.getFromDate(), request.getToDate(), costPerKg);
+        jobs.put(job.jobId, job);
+        return job;
+    }
+
+    // El trabajo corre desacoplado de la petición HTTP; cada rango de ids se confirma por separado
+    private void run(RecalculationJob job) {
+        workloadExecutor.on(WorkloadClass.BULK, Flux.fromIterable(shardRouter.shards())
+                        .concatMap(shard -> shardRouter.onShard(shard, recalculateShard(job))))
+                .timeout(timeout)
+                .then()
+                .subscribe(
+                        unused -> { },
+                        error -> {
+                            System.out.println("Error en recálculo " + job.jobId + ": " + error.getMessage());
+                            job.finish("FAILED", error.getMessage());
+                            running.decrementAndGet();
+                            eventPublisher.publishEvent(new FoodCostsBulkChangedEvent("recalculation", job.updatedRows.get()));
+                        },
+                        () -> {
+                            System.out.println("Recálculo " + job.jobId + " completado: " + job.updatedRows.get() + " registros");
+                            job.finish("COMPLETED", null);
+                            running.decrementAndGet();
+                            eventPublisher.publishEvent(new FoodCostsBulkChangedEvent("recalculation", job.updatedRows.get()));
+                        });
+    }
+
+    // Cada shard tiene sus propios ids, por lo que los rangos se calculan por shard
+    private Flux<Long> recalculateShard(RecalculationJob job) {
+        return Mono.zip(
+                foodCostsRepository.findMinIdForRecalculation(job.foodType, job.fromDate, job.toDate),
+                foodCostsRepository.findMaxIdForRecalculation(job.foodType, job.fromDate, job.toDate)
+        ).flatMapMany(bounds -> {
+            long minId = bounds.getT1();
+            long maxId = bounds.getT2();
+            if (maxId == 0) {
+                return Flux.empty();
+            }
+            long chunks = (maxId - minId) / chunkSize + 1;
+            job.totalChunks.addAndGet(chunks);
+            return Flux.range(0, Math.toIntExact(chunks))
+                    .flatMap(chunk -> {
+                        long fromId = minId + chunk * chunkSize;
+                        long toId = Math.min(fromId + chunkSize - 1, maxId);
+                        return workloadExecutor.governed(foodCostsRepository.recalculateTotalCost(job.foodType,
+                                        job.fromDate, job.toDate, job.costPerKg, fromId, toId))
+                                .doOnNext(job.updatedRows::addAndGet)
+                                .doOnTerminate(job.processedChunks::incrementAndGet);
+                    }, concurrency);
+        });
+    }
+
+    private static final class RecalculationJob {
+        private final String jobId;
+        private final String foodType;
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final BigDecimal costPerKg;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong totalChunks = new AtomicLong();
+        private final AtomicLong processedChunks = new AtomicLong();
+        private final AtomicLong updatedRows = new AtomicLong();
+        private volatile String status = "RUNNING";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private RecalculationJob(String jobId, String foodType, LocalDate fromDate, LocalDate toDate, BigDecimal costPerKg) {
+            this.jobId = jobId;
+            this.foodType = foodType;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.costPerKg = costPerKg;
+        }
+
+        private void finish(String finalStatus, String errorMessage) {
+            this.error = errorMessage;
+            this.status = finalStatus;
+            this.finishedAt = Instant.now();
+        }
+
+        private RecalculationJobDto toDto() {
+            return new RecalculationJobDto(jobId, status, foodType, fromDate, toDate, costPerKg,
+                    totalChunks.get(), processedChunks.get(), updatedRows.get(), startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package pe.edu.vallegrande.foodcost.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.ReconciliationDiscrepancyDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.ReconciliationReportDto;
+import pe.edu.vallegrande.foodcost.exception.service.ReconciliationCapacityException;
+import pe.edu.vallegrande.foodcost.exception.service.ReconciliationJobNotFoundException;
+import pe.edu.vallegrande.foodcost.reconciliation.KgBucket;
+import pe.edu.vallegrande.foodcost.reconciliation.ReconciliationMerger;
+import pe.edu.vallegrande.foodcost.repository.FoodCostReconciliationRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Concilia los kg consumidos registrados en food_costs con los kg entregados según el catálogo del
+ * servicio Food, por tipo de alimento y mes. El catálogo se lee una sola vez y se acumula por
+ * (tipo, mes); el consumo llega ya agregado y ordenado desde cada shard en paralelo y se mezcla en
+ * orden. Un único recorrido (ReconciliationMerger) compara ambos lados, de modo que la memoria
+ * depende de la cantidad de tipos y meses, no de la cantidad de registros. Corre como carga BULK y
+ * a lo sumo reconciliation.max-running conciliaciones a la vez, porque cada una recorre todos los shards.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final int MAX_TRACKED_JOBS = 20;
+
+    private final FoodClient foodClient;
+    private final FoodCostReconciliationRepository reconciliationRepository;
+    private final ShardRouter shardRouter;
+    private final WorkloadExecutor workloadExecutor;
+    private final BigDecimal toleranceKg;
+    private final int maxDiscrepancies;
+    private final int maxRunning;
+
+    private final Map<String, ReconciliationJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    public ReconciliationService(FoodClient foodClient,
+                                 FoodCostReconciliationRepository reconciliationRepository,
+                                 ShardRouter shardRouter,
+                                 WorkloadExecutor workloadExecutor,
+                                 @Value("${reconciliation.tolerance-kg:1.0}") BigDecimal toleranceKg,
+                                 @Value("${reconciliation.max-discrepancies:1000}") int maxDiscrepancies,
+                                 @Value("${reconciliation.max-running:1}") int maxRunning) {
+        this.foodClient = foodClient;
+        this.reconciliationRepository = reconciliationRepository;
+        this.shardRouter = shardRouter;
+        this.workloadExecutor = workloadExecutor;
+        this.toleranceKg = toleranceKg;
+        this.maxDiscrepancies = maxDiscrepancies;
+        this.maxRunning = maxRunning;
+    }
+
+    // Método para iniciar una conciliación; responde de inmediato con el trabajo en estado RUNNING
+    public Mono<ReconciliationReportDto> startReconciliation() {
+        return Mono.fromSupplier(() -> {
+            ReconciliationJob job = register();
+            run(job);
+            return job.toDto();
+        });
+    }
+
+    // Método para consultar el reporte de una conciliación (parcial mientras sigue en curso)
+    public Mono<ReconciliationReportDto> getReport(String jobId) {
+        ReconciliationJob job = jobs.get(jobId);
+        if (job == null) {
+            return Mono.error(new ReconciliationJobNotFoundException("No se encontró la conciliación con ID: " + jobId));
+        }
+        return Mono.just(job.toDto());
+    }
+
+    // El cupo se toma antes de registrar y se devuelve al terminar; los terminados se descartan del más antiguo
+    private ReconciliationJob register() {
+        if (running.incrementAndGet() > maxRunning) {
+            running.decrementAndGet();
+            throw new ReconciliationCapacityException("Ya hay " + maxRunning + " conciliaciones en curso, intente más tarde");
+        }
+        if (jobs.size() >= MAX_TRACKED_JOBS) {
+            jobs.values().stream()
+                    .filter(job -> job.finishedAt != null)
+                    .min(Comparator.comparing(job -> job.finishedAt))
+                    .ifPresent(oldest -> jobs.remove(oldest.jobId));
+        }
+        ReconciliationJob job = new ReconciliationJob(UUID.randomUUID().toString(), maxDiscrepancies);
+        jobs.put(job.jobId, job);
+        return job;
+    }
+
+    private void run(ReconciliationJob job) {
+        workloadExecutor.on(WorkloadClass.BULK, catalogSupplies(job)
+                        .flatMapMany(supplies -> {
+                            ReconciliationMerger merger = new ReconciliationMerger(supplies, toleranceKg);
+                            return consumption()
+                                    .concatMapIterable(merger::accept)
+                                    .doOnNext(job::add)
+                                    .doOnComplete(() -> job.periodsCompared = merger.getPeriodsCompared());
+                        }))
+                .then()
+                .subscribe(
+                        unused -> { },
+                        error -> {
+                            System.out.println("Error en conciliación " + job.jobId + ": " + error.getMessage());
+                            job.finish("FAILED", error.getMessage());
+                            running.decrementAndGet();
+                        },
+                        () -> {
+                            System.out.println("Conciliación " + job.jobId + " completada: " + job.discrepancyCount.get() + " discrepancias");
+                            job.finish("COMPLETED", null);
+                            running.decrementAndGet();
+                        });
+    }
+
+    // Una sola lectura del catálogo; se guarda un acumulado por (tipo, mes), no cada entrada
+    private Mono<List<KgBucket>> catalogSupplies(ReconciliationJob job) {
+        return foodClient.findAllFoods()
+                .filter(food -> food.getFoodType() != null && !food.getFoodType().isBlank() && food.getAmount() != null)
+                .doOnNext(food -> job.catalogEntries.incrementAndGet())
+                .map(food -> new KgBucket(KgBucket.normalize(food.getFoodType()),
+                        food.getEntryDate() != null ? food.getEntryDate().withDayOfMonth(1) : null,
+                        BigDecimal.valueOf(food.getAmount())))
+                .collect(HashMap<KgBucket.Key, KgBucket>::new, (buckets, entry) -> buckets.merge(entry.key(), entry, KgBucket::plus))
+                .map(buckets -> buckets.values().stream().sorted(KgBucket.ORDER).toList());
+    }
+
+    // Cada shard entrega su consumo ordenado; al mezclar, una misma clave de varios shards queda contigua y se suma
+    private Flux<KgBucket> consumption() {
+        return shardRouter.scatterSorted(shard -> reconciliationRepository.findConsumptionByFoodTypeAndMonth(), KgBucket.ORDER)
+                .bufferUntilChanged(KgBucket::key)
+                .map(sameKey -> sameKey.stream().reduce(KgBucket::plus).orElseThrow());
+    }
+
+    private static final class ReconciliationJob {
+        private final String jobId;
+        private final int maxDiscrepancies;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong catalogEntries = new AtomicLong();
+        private final AtomicLong discrepancyCount = new AtomicLong();
+        private final List<ReconciliationDiscrepancyDto> discrepancies = new ArrayList<>();
+        private volatile long periodsCompared;
+        private volatile String status = "RUNNING";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private ReconciliationJob(String jobId, int maxDiscrepancies) {
+            this.jobId = jobId;
+            this.maxDiscrepancies = maxDiscrepancies;
+        }
+
+        private void add(ReconciliationDiscrepancyDto discrepancy) {
+            discrepancyCount.incrementAndGet();
+            synchronized (discrepancies) {
+                if (discrepancies.size() < maxDiscrepancies) {
+                    discrepancies.add(discrepancy);
+                }
+            }
+        }
+
+        private void finish(String finalStatus, String errorMessage) {
+            this.error = errorMessage;
+            this.status = finalStatus;
+            this.finishedAt = Instant.now();
+        }
+
+        private ReconciliationReportDto toDto() {
+            List<ReconciliationDiscrepancyDto> snapshot;
+            synchronized (discrepancies) {
+                snapshot = List.copyOf(discrepancies);
+            }
+            return new ReconciliationReportDto(jobId, status, startedAt, finishedAt, catalogEntries.get(), periodsCompared,
+                    discrepancyCount.get(), snapshot, error);
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package pe.edu.vallegrande.foodcost.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import lombok.RequiredArgsConstructor;
 import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
 import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
 import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostRequestDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.exception.DomainException;
 import pe.edu.vallegrande.foodcost.exception.client.FoodClientException;
 import pe.edu.vallegrande.foodcost.exception.client.HensClientException;
 import pe.edu.vallegrande.foodcost.exception.service.FoodCostNotFoundException;
@@ -17,6 +19,8 @@ import pe.edu.vallegrande.foodcost.exception.service.FoodNotFoundException;
 import pe.edu.vallegrande.foodcost.exception.service.InvalidFoodAmountException;
 import pe.edu.vallegrande.foodcost.model.FoodCost;
 import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRebalanceService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
 import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
 import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
 import reactor.core.publisher.Mono;
@@ -24,17 +28,21 @@ import reactor.util.function.Tuple2;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class UpdateCostService {
 
     private final FoodClient foodClient;
     private final HensClient hensClient;
     private final FoodCostsRepository foodCostsRepository;
+    private final ShardRouter shardRouter;
+    private final ShardRebalanceService shardRebalanceService;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FoodPriceService foodPriceService;
 
     public Mono<Void> updateFoodCost(Long idFoodCosts, FoodCostRequestDto request) {
-        return foodCostsRepository.findById(idFoodCosts)
+        return shardRouter.locate(shard -> foodCostsRepository.findById(idFoodCosts))
                 .switchIfEmpty(Mono.error(new FoodCostNotFoundException("No se encontró el registro con ID: " + idFoodCosts)))
-                .flatMap(existing -> getFoodAndHensData(request)
+                .flatMap(located -> getFoodAndHensData(request)
                         .flatMap(tuple -> {
                             FoodDto food = tuple.getT1();
                             HensDto hens = tuple.getT2();
@@ -48,27 +56,54 @@ public class UpdateCostService {
                             BigDecimal totalKg = calculateTotalKg(request.getGramsPerChicken(), request.getQuantity());
                             System.out.println("📦 Total de Kg calculado: " + totalKg);
 
-                            BigDecimal costPerKg = calculateCostPerKg(request.getUnitPrice(), BigDecimal.valueOf(food.getAmount()));
-                            System.out.println("💰 Costo por Kg calculado: " + costPerKg);
+                            FoodCost existing = located.getT2();
+                            return unitPriceFor(request, existing).flatMap(unitPrice -> {
+                                BigDecimal costPerKg = calculateCostPerKg(unitPrice, BigDecimal.valueOf(food.getAmount()));
+                                System.out.println("💰 Costo por Kg calculado: " + costPerKg);
 
-                            BigDecimal totalCost = calculateTotalCost(totalKg, costPerKg);
-                            System.out.println("💸 Costo total calculado: " + totalCost);
+                                BigDecimal totalCost = calculateTotalCost(totalKg, costPerKg);
+                                System.out.println("💸 Costo total calculado: " + totalCost);
 
-                            updateEditableFields(existing, request, totalKg, totalCost, hens);
+                                FoodCost before = FoodCostChangedEvent.copyOf(existing);
+                                updateEditableFields(existing, request, totalKg, totalCost, hens);
 
-                            return foodCostsRepository.save(existing)
-                                    .doOnSuccess(updated -> System.out.println("✅ Registro actualizado con éxito: ID " + updated.getIdFoodCosts()))
-                                    .then();
+                                return saveOnShard(located.getT1(), existing)
+                                        .doOnSuccess(updated -> {
+                                            System.out.println("✅ Registro actualizado con éxito: ID " + updated.getIdFoodCosts());
+                                            eventPublisher.publishEvent(FoodCostChangedEvent.updated(before, updated));
+                                        })
+                                        .then();
+                            });
                         }));
     }
 
+    // Sin unitPrice en la solicitud se usa el precio vigente del alimento en la fecha de inicio del periodo
+    private Mono<BigDecimal> unitPriceFor(FoodCostRequestDto request, FoodCost existing) {
+        return request.getUnitPrice() != null
+                ? Mono.just(request.getUnitPrice())
+                : foodPriceService.resolveUnitPrice(request.getFoodId(), existing.getStartDate());
+    }
+
+    // Se guarda en el shard actual y, si el nuevo galpón pertenece a otro shard, se mueve conservando
+    // su id (copia, verificación y borrado del origen); si el movimiento falla el rebalanceo lo completa
+    private Mono<FoodCost> saveOnShard(String currentShard, FoodCost existing) {
+        Mono<FoodCost> saved = shardRouter.onShard(currentShard, foodCostsRepository.save(existing)
+                .<Mono<FoodCost>>as(operation -> transactionalOperator.transactional(operation)));
+        String targetShard = shardRouter.shardFor(existing.getShedId());
+        if (targetShard.equals(currentShard)) {
+            return saved;
+        }
+        System.out.println("Moviendo registro " + existing.getIdFoodCosts() + " del shard " + currentShard + " a " + targetShard);
+        return saved.flatMap(updated -> shardRebalanceService.moveToOwner(currentShard, updated.getIdFoodCosts()));
+    }
+
     private Mono<Tuple2<FoodDto, HensDto>> getFoodAndHensData(FoodCostRequestDto request) {
         return Mono.zip(
                 foodClient.findFoodById(request.getFoodId())
                         .switchIfEmpty(Mono.error(new FoodNotFoundException("No se encontró el alimento con ID: " + request.getFoodId())))
-                        .onErrorMap(ex -> new FoodClientException("Error en la consulta del alimento: " + ex.getMessage())),
+                        .onErrorMap(ex -> !(ex instanceof DomainException), ex -> new FoodClientException("Error en la consulta del alimento: " + ex.getMessage())),
                 hensClient.findHensById(request.getHensId())
-                        .onErrorMap(ex -> new HensClientException("Error en la consulta de las gallinas: " + ex.getMessage()))
+                        .onErrorMap(ex -> !(ex instanceof DomainException), ex -> new HensClientException("Error en la consulta de las gallinas: " + ex.getMessage()))
         );
     }
 
@@ -79,17 +114,15 @@ public class UpdateCostService {
     }
 
     private BigDecimal calculateTotalKg(BigDecimal gramsPerChicken, int quantity) {
-        return gramsPerChicken.multiply(BigDecimal.valueOf(quantity))
-                .multiply(BigDecimal.valueOf(7)) // 7 días de consumo
-                .divide(BigDecimal.valueOf(1000), 2, RoundingMode.HALF_UP); // Conversión a Kg
+        return FoodCostCalculator.calculateTotalKg(gramsPerChicken, quantity);
     }
 
     private BigDecimal calculateCostPerKg(BigDecimal unitPrice, BigDecimal amount) {
-        return unitPrice.divide(amount, 2, RoundingMode.HALF_UP);
+        return FoodCostCalculator.calculateCostPerKg(unitPrice, amount);
     }
 
     private BigDecimal calculateTotalCost(BigDecimal totalKg, BigDecimal costPerKg) {
-        return totalKg.multiply(costPerKg).setScale(2, RoundingMode.HALF_UP);
+        return FoodCostCalculator.calculateTotalCost(totalKg, costPerKg);
     }
 
     private void updateEditableFields(FoodCost existing, FoodCostRequestDto request, BigDecimal totalKg,
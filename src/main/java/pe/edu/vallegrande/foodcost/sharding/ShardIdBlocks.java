@@ -0,0 +1,80 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import java.util.List;
+
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hace que los ids de food_costs sean únicos entre shards por construcción: el shard en la
+ * posición i de sharding.shards genera ids solo dentro del bloque [i * BLOCK_SIZE + 1, (i + 1) * BLOCK_SIZE].
+ * Al arrancar se acota la secuencia de cada shard a su bloque (y se reinicia al inicio del bloque si
+ * todavía no llegó); si ya generó ids fuera del bloque el arranque falla en lugar de arriesgar ids
+ * repetidos. Agregar un shard al final de la lista le asigna un bloque nuevo sin tocar los existentes;
+ * por eso los shards no se reordenan ni se quitan de la lista. Un registro movido por el rebalanceo
+ * conserva su id, que sigue siendo único porque su bloque no lo reutiliza ningún otro shard.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ShardIdBlocks {
+
+    public static final long BLOCK_SIZE = 1_000_000_000_000L;
+
+    private static final String SEQUENCE = "food_costs_id_food_costs_seq";
+
+    private final ShardRouter shardRouter;
+    private final DatabaseClient databaseClient;
+    private final ShardingProperties properties;
+
+    public ShardIdBlocks(ShardRouter shardRouter, DatabaseClient databaseClient, ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    // Corre antes de que el servidor acepte tráfico: ninguna alta usa la secuencia sin acotar
+    @PostConstruct
+    public void apply() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<String> shards = shardRouter.shards();
+        Flux.range(0, shards.size())
+                .concatMap(index -> shardRouter.onShard(shards.get(index), applyTo(shards.get(index), index)))
+                .blockLast();
+    }
+
+    public static long firstId(int shardIndex) {
+        return shardIndex * BLOCK_SIZE + 1;
+    }
+
+    public static long lastId(int shardIndex) {
+        return (shardIndex + 1) * BLOCK_SIZE;
+    }
+
+    private Mono<Void> applyTo(String shard, int index) {
+        long first = firstId(index);
+        long last = lastId(index);
+        return databaseClient.sql("SELECT last_value, is_called FROM " + SEQUENCE)
+                .map((row, metadata) -> Boolean.TRUE.equals(row.get("is_called", Boolean.class))
+                        ? row.get("last_value", Long.class) + 1
+                        : row.get("last_value", Long.class))
+                .one()
+                .flatMap(next -> {
+                    if (next > last + 1) {
+                        return Mono.error(new IllegalStateException("La secuencia de food_costs del shard " + shard
+                                + " ya generó ids fuera de su bloque [" + first + ", " + last + "]"));
+                    }
+                    String restart = next <= first ? " RESTART WITH " + first : "";
+                    System.out.println("Shard " + shard + ": ids de food_costs en [" + first + ", " + last + "]"
+                            + (restart.isEmpty() ? "" : ", secuencia reiniciada"));
+                    return databaseClient.sql("ALTER SEQUENCE " + SEQUENCE + " MINVALUE " + first + " MAXVALUE " + last
+                            + " START WITH " + first + restart).then();
+                });
+    }
+}
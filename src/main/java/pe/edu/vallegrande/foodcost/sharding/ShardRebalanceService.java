@@ -0,0 +1,123 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.ShardRebalanceReportDto;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Herramienta de rebalanceo: recorre cada shard en streaming y mueve a su shard correcto los
+ * registros cuyo galpón cambió de dueño en el anillo (p. ej. después de agregar un shard).
+ * Cada movimiento copia el registro al destino con el mismo id, verifica la copia contra el
+ * origen y recién entonces lo borra del origen; cada paso es una transacción en su shard. Si el
+ * proceso se corta a mitad, el registro queda en ambos shards y el siguiente rebalanceo repite
+ * el movimiento: la copia sobrescribe la del destino y el borrado de algo ya borrado no falla.
+ * Los ids no chocan entre shards porque cada uno genera ids en su propio bloque (ShardIdBlocks).
+ */
+@Service
+public class ShardRebalanceService {
+
+    private final ShardRouter shardRouter;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final FoodCostsRepository foodCostsRepository;
+    private final WorkloadExecutor workloadExecutor;
+    private final TransactionalOperator transactionalOperator;
+    private final int concurrency;
+
+    public ShardRebalanceService(ShardRouter shardRouter,
+                                 R2dbcEntityTemplate entityTemplate,
+                                 FoodCostsRepository foodCostsRepository,
+                                 WorkloadExecutor workloadExecutor,
+                                 TransactionalOperator transactionalOperator,
+                                 @Value("${sharding.rebalance-concurrency:4}") int concurrency) {
+        this.shardRouter = shardRouter;
+        this.entityTemplate = entityTemplate;
+        this.foodCostsRepository = foodCostsRepository;
+        this.workloadExecutor = workloadExecutor;
+        this.transactionalOperator = transactionalOperator;
+        this.concurrency = concurrency;
+    }
+
+    public Mono<ShardRebalanceReportDto> rebalance(boolean dryRun) {
+        long start = System.currentTimeMillis();
+        AtomicLong scanned = new AtomicLong();
+        Map<String, AtomicLong> moves = new ConcurrentHashMap<>();
+
+        return Flux.fromIterable(shardRouter.shards())
+                .concatMap(source -> shardRouter.onShard(source, entityTemplate.select(FoodCost.class).all())
+                        .doOnNext(foodCost -> scanned.incrementAndGet())
+                        .filter(foodCost -> !source.equals(shardRouter.shardFor(foodCost.getShedId())))
+                        .flatMap(foodCost -> move(source, foodCost, dryRun)
+                                .doOnSuccess(moved -> moves.computeIfAbsent(
+                                        source + "->" + shardRouter.shardFor(foodCost.getShedId()),
+                                        route -> new AtomicLong()).incrementAndGet()), concurrency))
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, Long> summary = new TreeMap<>();
+                    moves.forEach((route, count) -> summary.put(route, count.get()));
+                    long moved = summary.values().stream().mapToLong(Long::longValue).sum();
+                    System.out.println("Rebalanceo " + (dryRun ? "(simulado) " : "") + "completado: " + moved + " de " + scanned.get() + " registros");
+                    return new ShardRebalanceReportDto(dryRun, scanned.get(), moved, summary, System.currentTimeMillis() - start);
+                }));
+    }
+
+    private Mono<FoodCost> move(String source, FoodCost foodCost, boolean dryRun) {
+        if (dryRun) {
+            return Mono.just(foodCost);
+        }
+        return workloadExecutor.governed(moveToOwner(source, foodCost.getIdFoodCosts()));
+    }
+
+    // Mueve el registro desde source al shard que le corresponde según su galpón. Se relee del origen
+    // para copiar su versión confirmada; vacío si ya no está en el origen (movimiento ya terminado)
+    public Mono<FoodCost> moveToOwner(String source, Long idFoodCosts) {
+        return shardRouter.onShard(source, foodCostsRepository.findById(idFoodCosts))
+                .flatMap(original -> {
+                    String target = shardRouter.shardFor(original.getShedId());
+                    if (target.equals(source)) {
+                        return Mono.just(original);
+                    }
+                    return inTransaction(target, copy(original))
+                            .then(shardRouter.onShard(target, foodCostsRepository.findById(idFoodCosts)))
+                            .filter(original::equals)
+                            .switchIfEmpty(Mono.error(() -> new IllegalStateException("La copia del registro " + idFoodCosts
+                                    + " en el shard " + target + " no coincide con el origen " + source)))
+                            .flatMap(copied -> inTransaction(source, foodCostsRepository.deleteById(idFoodCosts))
+                                    .thenReturn(copied));
+                });
+    }
+
+    // Inserta o, si un movimiento anterior quedó a medias, sobrescribe la copia existente. Solo se
+    // sobrescribe el mismo registro lógico (mismo galpón y fecha de inicio); otro registro con el mismo
+    // id indica bloques de ids mal asignados (ver ShardIdBlocks) y el movimiento falla sin tocarlo
+    private Mono<FoodCost> copy(FoodCost original) {
+        return foodCostsRepository.findById(original.getIdFoodCosts())
+                .flatMap(existing -> sameRecord(existing, original)
+                        ? entityTemplate.update(original)
+                        : Mono.<FoodCost>error(new IllegalStateException("El id " + original.getIdFoodCosts()
+                                + " ya pertenece a otro registro en el shard " + shardRouter.shardFor(original.getShedId()))))
+                .switchIfEmpty(Mono.defer(() -> entityTemplate.insert(original)));
+    }
+
+    private static boolean sameRecord(FoodCost existing, FoodCost original) {
+        return Objects.equals(existing.getShedId(), original.getShedId())
+                && Objects.equals(existing.getStartDate(), original.getStartDate());
+    }
+
+    // La transacción se abre dentro del contexto del shard para que tome la conexión de ese shard
+    private <T> Mono<T> inTransaction(String shard, Mono<T> operation) {
+        return shardRouter.onShard(shard, operation.<Mono<T>>as(step -> transactionalOperator.transactional(step)));
+    }
+}
@@ -0,0 +1,96 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Decide en qué base de datos vive cada galpón (shedId) y ejecuta operaciones en uno o en
+ * todos los shards. El shard elegido viaja en el contexto de Reactor y lo lee
+ * ShardRoutingConnectionFactory al pedir la conexión, por lo que los repositorios no cambian.
+ * Con el sharding deshabilitado hay un único shard y el contexto no tiene efecto.
+ */
+public class ShardRouter {
+
+    public static final String SHARD_CONTEXT_KEY = ShardRouter.class.getName() + ".shard";
+    public static final String DEFAULT_SHARD = "default";
+
+    private final List<String> shards;
+    private final ConsistentHashRing<String> ring;
+
+    public ShardRouter(List<String> shards, int virtualNodes) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        shards.forEach(shard -> nodes.put(shard, shard));
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing<>(nodes, virtualNodes);
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter(List.of(DEFAULT_SHARD), 1);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    // Datos de referencia que no se particionan por galpón (p. ej. el historial de precios): viven en el primer shard
+    public String referenceShard() {
+        return shards.get(0);
+    }
+
+    public String shardFor(Long shedId) {
+        return shedId == null || shards.size() == 1 ? shards.get(0) : ring.nodeFor(shedId);
+    }
+
+    // Operaciones de un solo galpón: van únicamente a su shard
+    public <T> Mono<T> onShed(Long shedId, Mono<T> operation) {
+        return onShard(shardFor(shedId), operation);
+    }
+
+    public <T> Flux<T> onShed(Long shedId, Flux<T> operation) {
+        return onShard(shardFor(shedId), operation);
+    }
+
+    public <T> Mono<T> onShard(String shard, Mono<T> operation) {
+        return operation.contextWrite(ctx -> ctx.put(SHARD_CONTEXT_KEY, shard));
+    }
+
+    public <T> Flux<T> onShard(String shard, Flux<T> operation) {
+        return operation.contextWrite(ctx -> ctx.put(SHARD_CONTEXT_KEY, shard));
+    }
+
+    // Scatter-gather sin orden: intercala los resultados de todos los shards
+    public <T> Flux<T> scatter(Function<String, Flux<T>> query) {
+        if (shards.size() == 1) {
+            return onShard(shards.get(0), query.apply(shards.get(0)));
+        }
+        return Flux.merge(Flux.fromIterable(shards).map(shard -> onShard(shard, query.apply(shard))));
+    }
+
+    // Scatter-gather ordenado: cada shard devuelve su flujo ya ordenado y se mezclan sin reordenar en memoria
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> scatterSorted(Function<String, Flux<T>> query, Comparator<? super T> order) {
+        if (shards.size() == 1) {
+            return onShard(shards.get(0), query.apply(shards.get(0)));
+        }
+        Publisher<T>[] sources = shards.stream()
+                .map(shard -> onShard(shard, query.apply(shard)))
+                .toArray(Publisher[]::new);
+        return Flux.mergeComparing(order, sources);
+    }
+
+    // Busca un registro cuyo shard no se conoce (p. ej. por id) y devuelve también el shard donde está
+    public <T> Mono<Tuple2<String, T>> locate(Function<String, Mono<T>> lookup) {
+        return Flux.fromIterable(shards)
+                .concatMap(shard -> onShard(shard, lookup.apply(shard)).map(found -> Tuples.of(shard, found)))
+                .next();
+    }
+}
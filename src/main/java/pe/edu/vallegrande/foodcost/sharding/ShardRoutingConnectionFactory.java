@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * ConnectionFactory que entrega la conexión del shard indicado en el contexto de Reactor
+ * (ver ShardRouter.onShard). Sin shard en el contexto se usa el primer shard configurado.
+ */
+public class ShardRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.getOrEmpty(ShardRouter.SHARD_CONTEXT_KEY)));
+    }
+}
@@ -0,0 +1,138 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Option;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.r2dbc.ConnectionFactoryDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadProperties;
+import pe.edu.vallegrande.foodcost.workload.WorkloadRoutingConnectionFactory;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+@EnableConfigurationProperties({ShardingProperties.class, R2dbcProperties.class, WorkloadProperties.class})
+public class ShardingConfig {
+
+    // Pools y event loops creados aquí en lugar de la autoconfiguración: se liberan al cerrar el contexto
+    private final List<ConnectionPool> pools = new ArrayList<>();
+    private final List<LoopResources> loops = new ArrayList<>();
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        if (!properties.isEnabled()) {
+            return ShardRouter.single();
+        }
+        return new ShardRouter(properties.getShards().stream().map(ShardingProperties.Shard::getName).toList(),
+                properties.getVirtualNodes());
+    }
+
+    // Reemplaza la ConnectionFactory autoconfigurada: un juego de pools por clase de carga (INTERACTIVE/BULK) y,
+    // con sharding, un pool por shard dentro de cada juego, con la configuración de spring.r2dbc.pool.
+    // Los decoradores (p. ej. el de observaciones R2DBC que crea un span por sentencia) se aplican a cada pool
+    @Bean
+    public ConnectionFactory connectionFactory(ShardingProperties properties, R2dbcProperties r2dbcProperties,
+                                               WorkloadProperties workloadProperties,
+                                               ObjectProvider<ConnectionFactoryDecorator> decorators,
+                                               // R2dbcProperties.Pool no expone acquire-retry; se lee directamente
+                                               @Value("${spring.r2dbc.pool.acquire-retry:1}") int acquireRetry) {
+        if (properties.isEnabled() && properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true requiere al menos un shard en sharding.shards");
+        }
+        List<ConnectionFactoryDecorator> orderedDecorators = decorators.orderedStream().toList();
+        Map<Object, Object> workloads = new LinkedHashMap<>();
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            PoolSettings settings = new PoolSettings(workload, r2dbcProperties.getPool(), acquireRetry, r2dbcProperties.getProperties(),
+                    workloadProperties.resources(workload), orderedDecorators, loopResources(workload, workloadProperties));
+            workloads.put(workload, properties.isEnabled()
+                    ? sharded(properties, settings)
+                    : pooled("default", r2dbcProperties.getUrl(), r2dbcProperties.getUsername(), r2dbcProperties.getPassword(), settings));
+        }
+
+        WorkloadRoutingConnectionFactory routing = new WorkloadRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(workloads);
+        routing.setDefaultTargetConnectionFactory(workloads.get(WorkloadClass.INTERACTIVE));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private ConnectionFactory sharded(ShardingProperties properties, PoolSettings settings) {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        properties.getShards().forEach(shard -> targets.put(shard.getName(),
+                pooled(shard.getName(), shard.getUrl(), shard.getUsername(), shard.getPassword(), settings)));
+
+        ShardRoutingConnectionFactory routing = new ShardRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(targets);
+        routing.setDefaultTargetConnectionFactory(targets.values().iterator().next());
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    // Con db-event-loop-threads > 0 las conexiones de la clase usan event loops propios en lugar de los del servidor HTTP
+    private LoopResources loopResources(WorkloadClass workload, WorkloadProperties workloadProperties) {
+        int threads = workloadProperties.resources(workload).getDbEventLoopThreads();
+        if (threads <= 0) {
+            return null;
+        }
+        LoopResources loopResources = LoopResources.create("foodcost-" + workload.id() + "-db", threads, true);
+        loops.add(loopResources);
+        return loopResources;
+    }
+
+    private ConnectionFactory pooled(String name, String url, String username, String password, PoolSettings settings) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .configure(options -> {
+                    // spring.r2dbc.properties (p. ej. preparedStatementCacheQueries) igual que en la autoconfiguración
+                    settings.options().forEach((key, value) -> options.option(Option.valueOf(key), value));
+                    if (settings.loopResources() != null) {
+                        options.option(PostgresqlConnectionFactoryProvider.LOOP_RESOURCES, settings.loopResources());
+                    }
+                })
+                .decorators(settings.decorators())
+                .build();
+        R2dbcProperties.Pool pool = settings.pool();
+        int maxSize = settings.resources().getDbPoolMaxSize() > 0 ? settings.resources().getDbPoolMaxSize() : pool.getMaxSize();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("foodcost-" + settings.workload().id() + "-" + name)
+                .initialSize(Math.min(pool.getInitialSize(), maxSize))
+                .minIdle(Math.min(pool.getMinIdle(), maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(pool.getMaxIdleTime())
+                .acquireRetry(settings.acquireRetry());
+        if (pool.getValidationQuery() != null) {
+            builder.validationQuery(pool.getValidationQuery());
+        }
+        ConnectionPool connectionPool = new ConnectionPool(builder.build());
+        pools.add(connectionPool);
+        return connectionPool;
+    }
+
+    // Se destruye después del ConnectionFactory y de sus dependientes: primero se cierran las conexiones
+    // y luego se detienen los event loops que las atendían
+    @PreDestroy
+    public void dispose() {
+        pools.forEach(ConnectionPool::dispose);
+        loops.forEach(LoopResources::dispose);
+    }
+
+    private record PoolSettings(WorkloadClass workload, R2dbcProperties.Pool pool, int acquireRetry, Map<String, String> options,
+                                WorkloadProperties.Resources resources,
+                                List<ConnectionFactoryDecorator> decorators, LoopResources loopResources) {
+    }
+}
@@ -0,0 +1,29 @@
+package pe.edu.vallegrande.foodcost.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Shards de food_costs por galpón. La posición de cada shard en la lista fija su bloque de ids
+ * (ShardIdBlocks): los shards nuevos se agregan al final y los existentes no se reordenan.
+ */
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private int virtualNodes = 160;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
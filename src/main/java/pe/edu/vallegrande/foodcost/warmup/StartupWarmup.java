@@ -0,0 +1,307 @@
+package pe.edu.vallegrande.foodcost.warmup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostPageDto;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.pricing.FoodPriceIndex;
+import pe.edu.vallegrande.foodcost.repository.FoodCostAuditRepository;
+import pe.edu.vallegrande.foodcost.repository.FoodCostSearchRepository;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.repository.FoodPriceRepository;
+import pe.edu.vallegrande.foodcost.service.FoodCostCalculator;
+import pe.edu.vallegrande.foodcost.service.FoodCostSearchService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
+import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import pe.edu.vallegrande.foodcost.workload.WorkloadProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Calentamiento antes de recibir tráfico. Spring Boot publica ReadinessState.ACCEPTING_TRAFFIC
+ * recién cuando terminan los ApplicationRunner, así que mientras este corre /actuator/health/readiness
+ * responde OUT_OF_SERVICE. Pasos, en orden:
+ * <ul>
+ *   <li>database: abre en cada pool (por clase de carga y shard) tantas conexiones como su tamaño mínimo
+ *   y en cada una ejecuta las sentencias de los repositorios con parámetros que no coinciden con filas,
+ *   dentro de una transacción que se revierte; así quedan en la caché de sentencias preparadas de esa conexión.</li>
+ *   <li>indexes: carga el índice de precios vigentes.</li>
+ *   <li>remote: lee los catálogos de Food y Hens por los pools HTTP INTERACTIVE y BULK.</li>
+ *   <li>jwks: hace que el decodificador JWT descargue el JWKS con un token que luego rechaza.</li>
+ *   <li>code-paths: repite la búsqueda paginada, el cálculo de costos y la serialización JSON de las
+ *   respuestas para que el JIT compile esos caminos.</li>
+ * </ul>
+ * Cada paso es best-effort: si falla o supera warmup.step-timeout se registra y se sigue con el siguiente.
+ * Las duraciones quedan en los timers warmup.step.duration (step, outcome) y warmup.duration.
+ */
+@Component
+@ConditionalOnWebApplication
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final long NO_ID = -1L;
+    private static final String NO_MATCH = "warmup-no-match";
+    private static final int CODE_PATH_ROWS = 50;
+    // JWT bien formado con un kid inexistente: fuerza la descarga del JWKS y luego es rechazado
+    private static final String WARMUP_TOKEN = base64Url("{\"alg\":\"RS256\",\"kid\":\"warmup\"}") + "."
+            + base64Url("{\"sub\":\"warmup\"}") + "." + base64Url("warmup");
+
+    private final ShardRouter shardRouter;
+    private final WorkloadExecutor workloadExecutor;
+    private final TransactionalOperator transactionalOperator;
+    private final FoodCostsRepository foodCostsRepository;
+    private final FoodCostSearchRepository foodCostSearchRepository;
+    private final FoodCostAuditRepository foodCostAuditRepository;
+    private final FoodPriceRepository foodPriceRepository;
+    private final FoodPriceIndex foodPriceIndex;
+    private final FoodCostSearchService foodCostSearchService;
+    private final FoodClient foodClient;
+    private final HensClient hensClient;
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final ServerCodecConfigurer codecConfigurer;
+    private final R2dbcProperties r2dbcProperties;
+    private final WorkloadProperties workloadProperties;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration stepTimeout;
+    private final int iterations;
+    private final int connectionsPerPool;
+
+    public StartupWarmup(ShardRouter shardRouter,
+                         WorkloadExecutor workloadExecutor,
+                         TransactionalOperator transactionalOperator,
+                         FoodCostsRepository foodCostsRepository,
+                         FoodCostSearchRepository foodCostSearchRepository,
+                         FoodCostAuditRepository foodCostAuditRepository,
+                         FoodPriceRepository foodPriceRepository,
+                         FoodPriceIndex foodPriceIndex,
+                         FoodCostSearchService foodCostSearchService,
+                         FoodClient foodClient,
+                         HensClient hensClient,
+                         ReactiveJwtDecoder jwtDecoder,
+                         ServerCodecConfigurer codecConfigurer,
+                         R2dbcProperties r2dbcProperties,
+                         WorkloadProperties workloadProperties,
+                         MeterRegistry meterRegistry,
+                         @Value("${warmup.enabled:true}") boolean enabled,
+                         @Value("${warmup.step-timeout:20s}") Duration stepTimeout,
+                         @Value("${warmup.iterations:200}") int iterations,
+                         @Value("${warmup.connections-per-pool:0}") int connectionsPerPool) {
+        this.shardRouter = shardRouter;
+        this.workloadExecutor = workloadExecutor;
+        this.transactionalOperator = transactionalOperator;
+        this.foodCostsRepository = foodCostsRepository;
+        this.foodCostSearchRepository = foodCostSearchRepository;
+        this.foodCostAuditRepository = foodCostAuditRepository;
+        this.foodPriceRepository = foodPriceRepository;
+        this.foodPriceIndex = foodPriceIndex;
+        this.foodCostSearchService = foodCostSearchService;
+        this.foodClient = foodClient;
+        this.hensClient = hensClient;
+        this.jwtDecoder = jwtDecoder;
+        this.codecConfigurer = codecConfigurer;
+        this.r2dbcProperties = r2dbcProperties;
+        this.workloadProperties = workloadProperties;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.stepTimeout = stepTimeout;
+        this.iterations = iterations;
+        this.connectionsPerPool = connectionsPerPool;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            System.out.println("Warmup deshabilitado (warmup.enabled=false)");
+            return;
+        }
+        long start = System.nanoTime();
+        step("database", this::warmDatabase);
+        step("indexes", () -> foodPriceIndex.reload().then());
+        step("remote", this::warmRemoteServices);
+        step("jwks", this::warmJwks);
+        step("code-paths", this::warmCodePaths);
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("warmup.duration")
+                .description("Duración total del calentamiento previo a la disponibilidad")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Warmup completado en " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+    }
+
+    private void step(String name, Supplier<Mono<Void>> warmup) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Mono.defer(warmup).timeout(stepTimeout).block();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            System.out.println("Warmup: el paso " + name + " falló: " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("warmup.step.duration")
+                .tag("step", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        System.out.println("Warmup: " + name + " (" + outcome + ") en " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+    }
+
+    // Las conexiones se toman a la vez (una transacción cada una) para que sean distintas y todas queden preparadas
+    private Mono<Void> warmDatabase() {
+        return Flux.fromArray(WorkloadClass.values())
+                .flatMap(workload -> Flux.fromIterable(shardRouter.shards())
+                        .flatMap(shard -> Flux.range(0, connectionsFor(workload))
+                                .flatMap(lane -> workloadExecutor.on(workload,
+                                        shardRouter.onShard(shard, prepareStatements(shard))))))
+                .then();
+    }
+
+    private int connectionsFor(WorkloadClass workload) {
+        R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+        int maxSize = workloadProperties.resources(workload).getDbPoolMaxSize() > 0
+                ? workloadProperties.resources(workload).getDbPoolMaxSize()
+                : pool.getMaxSize();
+        int wanted = connectionsPerPool > 0 ? connectionsPerPool : Math.max(pool.getInitialSize(), pool.getMinIdle());
+        return Math.max(1, Math.min(wanted, maxSize));
+    }
+
+    // Solo lecturas y UPDATE que no afectan filas; las inserciones no se ejecutan porque consumirían la secuencia
+    private Mono<Void> prepareStatements(String shard) {
+        LocalDate today = LocalDate.now();
+        List<Mono<?>> statements = new ArrayList<>(List.of(
+                foodCostsRepository.findById(NO_ID),
+                foodCostsRepository.findByWeekNumber(NO_MATCH).then(),
+                foodCostsRepository.findAllByStatusOrderByIdFoodCostsAsc(NO_MATCH).then(),
+                foodCostsRepository.findTopByShedIdOrderByStartDateDesc(NO_ID),
+                foodCostsRepository.findMinIdForRecalculation(NO_MATCH, today, today),
+                foodCostsRepository.findMaxIdForRecalculation(NO_MATCH, today, today),
+                foodCostsRepository.recalculateTotalCost(NO_MATCH, today, today, BigDecimal.ONE, NO_ID, NO_ID),
+                foodCostSearchRepository.search(NO_ID, today, today, null, "A", null, null, 1).then(),
+                foodCostSearchRepository.search(null, today, today, null, "A", today, NO_ID, 1).then(),
+                foodCostAuditRepository.findLatestByFoodCost(NO_ID, 1).then(),
+                foodCostAuditRepository.findLatestByShed(NO_ID, 1).then()));
+        // Los precios viven solo en el shard de referencia
+        if (shard.equals(shardRouter.referenceShard())) {
+            statements.add(foodPriceRepository.findByFoodIdOrderByEffectiveFromAsc(NO_ID).then());
+            statements.add(foodPriceRepository.findEffective(NO_ID, today));
+            statements.add(foodPriceRepository.findOpenPriceStartingBefore(NO_ID, today));
+        }
+        return transactionalOperator.execute(status -> {
+                    status.setRollbackOnly();
+                    return Flux.concat(statements).then();
+                })
+                .then();
+    }
+
+    private Mono<Void> warmRemoteServices() {
+        return Flux.fromArray(WorkloadClass.values())
+                .flatMap(workload -> Mono.when(
+                        workloadExecutor.on(workload, foodClient.findAllFoods().count()),
+                        workloadExecutor.on(workload, hensClient.findAllHens().count())))
+                .then();
+    }
+
+    // El rechazo por firma es lo esperado; cualquier otro error (p. ej. JWKS inaccesible) marca el paso como fallido
+    private Mono<Void> warmJwks() {
+        return jwtDecoder.decode(WARMUP_TOKEN)
+                .then()
+                .onErrorResume(BadJwtException.class, rejected -> Mono.empty());
+    }
+
+    private Mono<Void> warmCodePaths() {
+        LocalDate today = LocalDate.now();
+        Encoder<Object> costEncoder = jsonEncoder(ResolvableType.forClass(FoodCost.class));
+        Encoder<Object> pageEncoder = jsonEncoder(ResolvableType.forClass(FoodCostPageDto.class));
+        Mono<Void> inMemory = Mono.fromRunnable(() -> {
+            for (int i = 0; i < iterations; i++) {
+                encode(costEncoder, Flux.fromIterable(sampleCosts(today)), FoodCost.class);
+            }
+        });
+        // La búsqueda pasa por el servicio, el repositorio y el encoder como lo hace GET /api/food-costs
+        Mono<Void> search = Flux.range(0, Math.max(1, iterations / 10))
+                .concatMap(i -> foodCostSearchService.search(null, today.minusDays(90), today, null, null, CODE_PATH_ROWS)
+                        .doOnNext(page -> encode(pageEncoder, Mono.just(page), FoodCostPageDto.class)))
+                .then();
+        return inMemory.then(search);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Encoder<Object> jsonEncoder(ResolvableType type) {
+        for (HttpMessageWriter<?> writer : codecConfigurer.getWriters()) {
+            if (writer instanceof EncoderHttpMessageWriter<?> encoderWriter && writer.canWrite(type, MediaType.APPLICATION_JSON)) {
+                return (Encoder<Object>) encoderWriter.getEncoder();
+            }
+        }
+        throw new IllegalStateException("No hay un encoder JSON para " + type);
+    }
+
+    private static void encode(Encoder<Object> encoder, Publisher<?> values, Class<?> type) {
+        encoder.encode(values, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(type),
+                        MediaType.APPLICATION_JSON, null)
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
+    }
+
+    // Mismas fórmulas que el alta de costos
+    private static List<FoodCost> sampleCosts(LocalDate today) {
+        List<FoodCost> costs = new ArrayList<>(CODE_PATH_ROWS);
+        for (int i = 0; i < CODE_PATH_ROWS; i++) {
+            BigDecimal totalKg = FoodCostCalculator.calculateTotalKg(new BigDecimal("115.50"), 100 + i);
+            BigDecimal costPerKg = FoodCostCalculator.calculateCostPerKg(new BigDecimal("120.00"), new BigDecimal("50"));
+            FoodCost foodCost = new FoodCost();
+            foodCost.setIdFoodCosts((long) i + 1);
+            foodCost.setWeekNumber("Semana " + (i + 1));
+            foodCost.setFoodType("Postura");
+            foodCost.setGramsPerChicken(new BigDecimal("115.50"));
+            foodCost.setTotalKg(totalKg);
+            foodCost.setTotalCost(FoodCostCalculator.calculateTotalCost(totalKg, costPerKg));
+            foodCost.setStartDate(today.minusWeeks(i));
+            foodCost.setEndDate(today.minusWeeks(i).plusDays(FoodCostCalculator.DAYS_PER_PERIOD - 1L));
+            foodCost.setShedName("Galpon " + i);
+            foodCost.setShedId((long) i);
+            foodCost.setHensId((long) i);
+            foodCost.setStatus("A");
+            costs.add(foodCost);
+        }
+        return costs;
+    }
+
+    private static String base64Url(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
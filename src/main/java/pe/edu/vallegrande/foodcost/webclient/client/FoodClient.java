@@ -4,28 +4,52 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
+import pe.edu.vallegrande.foodcost.exception.client.FoodClientException;
+import pe.edu.vallegrande.foodcost.exception.service.FoodNotFoundException;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @Component
 public class FoodClient {
 
     private final WebClient webClient;
+    private final WebClient bulkWebClient;
     private final String foodServiceUrl;
 
     public FoodClient(@Qualifier("foodWebClient") WebClient webClient,
+                      @Qualifier("foodBulkWebClient") WebClient bulkWebClient,
                       @Value("${api.food-service-url}") String foodServiceUrl) {
         this.webClient = webClient;
+        this.bulkWebClient = bulkWebClient;
         this.foodServiceUrl = foodServiceUrl;
     }
 
     public Mono<FoodDto> findFoodById(Long foodId) {
-        return webClient.get()
+        return Mono.deferContextual(ctx -> webClientFor(ctx).get()
                 .uri(foodServiceUrl)
                 .retrieve()
                 .bodyToFlux(FoodDto.class)
                 .filter(f -> f.getIdFood().equals(foodId))
                 .next()
-                .switchIfEmpty(Mono.error(new RuntimeException("No se encontró alimento con ID: " + foodId)));
+                .switchIfEmpty(Mono.error(new FoodNotFoundException("No se encontró alimento con ID: " + foodId)))
+                .onErrorMap(WebClientRequestException.class, ex -> new FoodClientException("No se pudo consultar Food API: " + ex.getMessage())));
+    }
+
+    // Catálogo completo de alimentos; se decodifica como flujo, sin cargar la respuesta entera en memoria
+    public Flux<FoodDto> findAllFoods() {
+        return Flux.deferContextual(ctx -> webClientFor(ctx).get()
+                .uri(foodServiceUrl)
+                .retrieve()
+                .bodyToFlux(FoodDto.class));
+    }
+
+    // Las llamadas hechas desde un proceso BULK usan su propio pool de conexiones
+    private WebClient webClientFor(ContextView ctx) {
+        return WorkloadExecutor.current(ctx) == WorkloadClass.BULK ? bulkWebClient : webClient;
     }
 }
@@ -6,28 +6,52 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
+import pe.edu.vallegrande.foodcost.exception.client.HensClientException;
+import pe.edu.vallegrande.foodcost.exception.service.HensNotFoundException;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @Component
 public class HensClient {
 
     private final WebClient webClient;
+    private final WebClient bulkWebClient;
     private final String hensServiceUrl;
 
     public HensClient(@Qualifier("hensWebClient") WebClient webClient,
+                      @Qualifier("hensBulkWebClient") WebClient bulkWebClient,
                       @Value("${api.hens-service-url}") String hensServiceUrl) {
         this.webClient = webClient;
+        this.bulkWebClient = bulkWebClient;
         this.hensServiceUrl = hensServiceUrl;
     }
 
     public Mono<HensDto> findHensById(Long hensId) {
-        return webClient.get()
+        return Mono.deferContextual(ctx -> webClientFor(ctx).get()
                 .uri(hensServiceUrl)
                 .retrieve()
                 .bodyToFlux(HensDto.class)
                 .filter(h -> h.getId().equals(hensId) && !h.getArrivalDate().isAfter(LocalDate.now()))
                 .next()
-                .switchIfEmpty(Mono.error(new RuntimeException("No se encontró gallina con ID: " + hensId)));
+                .switchIfEmpty(Mono.error(new HensNotFoundException("No se encontró gallina con ID: " + hensId)))
+                .onErrorMap(WebClientRequestException.class, ex -> new HensClientException("No se pudo consultar Hens API: " + ex.getMessage())));
+    }
+
+    // Todas las gallinas registradas (se usa para recorrer los galpones en procesos batch)
+    public Flux<HensDto> findAllHens() {
+        return Flux.deferContextual(ctx -> webClientFor(ctx).get()
+                .uri(hensServiceUrl)
+                .retrieve()
+                .bodyToFlux(HensDto.class));
+    }
+
+    // Las llamadas hechas desde un proceso BULK usan su propio pool de conexiones
+    private WebClient webClientFor(ContextView ctx) {
+        return WorkloadExecutor.current(ctx) == WorkloadClass.BULK ? bulkWebClient : webClient;
     }
 }
@@ -1,40 +1,107 @@
 package pe.edu.vallegrande.foodcost.webclient.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 import pe.edu.vallegrande.foodcost.exception.client.FoodClientException;
 import pe.edu.vallegrande.foodcost.exception.client.HensClientException;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadProperties;
 
 @Configuration
 public class WebClientConfig {
 
+    // ConnectionProvider y event loops de los cuatro clientes: se liberan al cerrar el contexto
+    private final List<ConnectionProvider> providers = new ArrayList<>();
+    private final List<LoopResources> loops = new ArrayList<>();
+
+    // Un cliente por servicio y clase de carga: cada uno con su propio ConnectionProvider, para que un
+    // proceso BULK que agota sus conexiones no deje esperando a las altas interactivas
+    @Bean
+    public WebClient foodWebClient(WebClient.Builder builder, WorkloadProperties workloadProperties,
+                                   @Value("${api.food-service-url}") String foodServiceUrl) {
+        return foodClient(builder, WorkloadClass.INTERACTIVE, workloadProperties, foodServiceUrl);
+    }
+
     @Bean
-    public WebClient foodWebClient(WebClient.Builder builder, @Value("${api.food-service-url}") String foodServiceUrl) {
+    public WebClient foodBulkWebClient(WebClient.Builder builder, WorkloadProperties workloadProperties,
+                                       @Value("${api.food-service-url}") String foodServiceUrl) {
+        return foodClient(builder, WorkloadClass.BULK, workloadProperties, foodServiceUrl);
+    }
+
+    @Bean
+    public WebClient hensWebClient(WebClient.Builder builder, WorkloadProperties workloadProperties,
+                                   @Value("${api.hens-service-url}") String hensServiceUrl) {
+        return hensClient(builder, WorkloadClass.INTERACTIVE, workloadProperties, hensServiceUrl);
+    }
+
+    @Bean
+    public WebClient hensBulkWebClient(WebClient.Builder builder, WorkloadProperties workloadProperties,
+                                       @Value("${api.hens-service-url}") String hensServiceUrl) {
+        return hensClient(builder, WorkloadClass.BULK, workloadProperties, hensServiceUrl);
+    }
+
+    private WebClient foodClient(WebClient.Builder builder, WorkloadClass workload, WorkloadProperties workloadProperties,
+                                 String foodServiceUrl) {
         return builder
                 .baseUrl(foodServiceUrl)
+                .clientConnector(connector("food", workload, workloadProperties.resources(workload)))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .filter(jwtPropagationFilter())                      // Propagación del token
                 .filter(errorHandlingFilterForFood())
                 .build();
     }
 
-    @Bean
-    public WebClient hensWebClient(WebClient.Builder builder, @Value("${api.hens-service-url}") String hensServiceUrl) {
+    private WebClient hensClient(WebClient.Builder builder, WorkloadClass workload, WorkloadProperties workloadProperties,
+                                 String hensServiceUrl) {
         return builder
                 .baseUrl(hensServiceUrl)
+                .clientConnector(connector("hens", workload, workloadProperties.resources(workload)))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .filter(jwtPropagationFilter())                      // Propagación del token
                 .filter(errorHandlingFilterForHens())
                 .build();
     }
 
+    private ReactorClientHttpConnector connector(String service, WorkloadClass workload, WorkloadProperties.Resources resources) {
+        String name = "foodcost-" + service + "-" + workload.id();
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(resources.getHttpMaxConnections())
+                .pendingAcquireTimeout(resources.getHttpPendingAcquireTimeout())
+                .metrics(true)
+                .build();
+        providers.add(provider);
+        HttpClient httpClient = HttpClient.create(provider);
+        if (resources.getHttpEventLoopThreads() > 0) {
+            LoopResources loopResources = LoopResources.create(name, resources.getHttpEventLoopThreads(), true);
+            loops.add(loopResources);
+            httpClient = httpClient.runOn(loopResources);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    // Se destruye después de los WebClient: primero se cierran las conexiones y luego los event loops
+    @PreDestroy
+    public void dispose() {
+        providers.forEach(ConnectionProvider::dispose);
+        loops.forEach(LoopResources::dispose);
+    }
+
+    // El builder autoconfigurado ya agrega traceparent al crear la petición; ClientRequest.from conserva esas cabeceras
     private ExchangeFilterFunction jwtPropagationFilter() {
         return (request, next) -> Mono.deferContextual(ctx -> {
             if (ctx.hasKey("Authorization")) {
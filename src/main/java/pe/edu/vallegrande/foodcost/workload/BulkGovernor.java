@@ -0,0 +1,93 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Regulador de los procesos BULK guiado por la latencia de las escrituras INTERACTIVE. Cada
+ * intervalo calcula el p99 de las altas/ediciones registradas desde la evaluación anterior: si
+ * supera el objetivo, los permisos de operaciones bulk simultáneas se reducen a la mitad; si queda
+ * holgadamente por debajo (o casi no hubo escrituras), se devuelve un permiso por intervalo.
+ */
+public final class BulkGovernor {
+
+    private static final int WINDOW = 4096;
+    private static final double RECOVERY_RATIO = 0.8;
+
+    private final int minPermits;
+    private final int maxPermits;
+    private final long targetNanos;
+    private final int minSamples;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long lastP99Nanos;
+
+    public BulkGovernor(int minPermits, int maxPermits, long targetNanos, int minSamples) {
+        this.minPermits = minPermits;
+        this.maxPermits = Math.max(minPermits, maxPermits);
+        this.targetNanos = targetNanos;
+        this.minSamples = minSamples;
+        // Arranque lento: el primer lote no debe competir a máxima concurrencia con las altas
+        this.permits = new AtomicInteger(Math.max(1, minPermits));
+    }
+
+    // Las muestras que exceden la ventana en un intervalo se descartan: el p99 sigue siendo representativo
+    public void recordInteractiveWrite(long latencyNanos) {
+        int index = recorded.getAndIncrement();
+        if (index < WINDOW) {
+            samples.set(index, latencyNanos);
+        }
+    }
+
+    // Una muestra escrita mientras se evalúa puede caer en la ventana siguiente; solo afecta a un intervalo
+    public void evaluate() {
+        int count = Math.min(recorded.getAndSet(0), WINDOW);
+        if (count < minSamples) {
+            permits.updateAndGet(current -> Math.min(maxPermits, current + 1));
+            return;
+        }
+        long[] window = new long[count];
+        for (int i = 0; i < count; i++) {
+            window[i] = samples.get(i);
+        }
+        Arrays.sort(window);
+        long p99 = window[(int) Math.ceil(count * 0.99) - 1];
+        lastP99Nanos = p99;
+        if (p99 > targetNanos) {
+            permits.updateAndGet(current -> Math.max(minPermits, current / 2));
+        } else if (p99 < targetNanos * RECOVERY_RATIO) {
+            permits.updateAndGet(current -> Math.min(maxPermits, current + 1));
+        }
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= permits.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getPermits() {
+        return permits.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getLastP99Nanos() {
+        return lastP99Nanos;
+    }
+}
@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un endpoint (o todo un controlador) con su clase de carga. Los endpoints sin anotación
+ * son INTERACTIVE, salvo que su ruta figure en workload.bulk-paths.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Workload {
+
+    WorkloadClass value();
+}
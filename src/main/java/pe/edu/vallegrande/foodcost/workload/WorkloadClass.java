@@ -0,0 +1,18 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+/**
+ * Clases de carga del servicio. INTERACTIVE son las operaciones de un registro (altas, ediciones,
+ * consultas puntuales) cuya latencia ve el usuario; BULK son los listados completos y los procesos
+ * por lotes (backfill, recálculos, rebalanceo). Cada clase tiene sus propios schedulers, pool de
+ * R2DBC y pool de conexiones HTTP, para que un proceso pesado no haga esperar a las altas.
+ */
+public enum WorkloadClass {
+    INTERACTIVE,
+    BULK;
+
+    public static final String CONTEXT_KEY = WorkloadClass.class.getName();
+
+    public String id() {
+        return name().toLowerCase();
+    }
+}
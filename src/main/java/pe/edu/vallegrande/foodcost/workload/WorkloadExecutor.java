@@ -0,0 +1,148 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+/**
+ * Ejecuta operaciones en su clase de carga: las suscribe en el scheduler acotado de la clase y deja
+ * la clase en el contexto de Reactor, de donde la leen WorkloadRoutingConnectionFactory (pool de
+ * R2DBC) y los clientes HTTP (pool de conexiones). Las operaciones pesadas de los procesos BULK
+ * pasan además por el BulkGovernor, que limita cuántas corren a la vez según la latencia de las
+ * escrituras INTERACTIVE.
+ */
+@Component
+public class WorkloadExecutor {
+
+    private static final Duration PERMIT_POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<WorkloadClass, Scheduler> schedulers;
+    private final BulkGovernor governor;
+    private final Duration evaluationInterval;
+    private Disposable evaluation;
+
+    @Autowired
+    public WorkloadExecutor(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        this.schedulers = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            WorkloadProperties.Resources resources = properties.resources(workload);
+            schedulers.put(workload, Schedulers.newBoundedElastic(resources.getSchedulerThreads(),
+                    resources.getSchedulerQueueSize(), "foodcost-" + workload.id()));
+        }
+        WorkloadProperties.Governor settings = properties.getGovernor();
+        this.governor = settings.isEnabled()
+                ? new BulkGovernor(settings.getMinPermits(), settings.getMaxPermits(),
+                        settings.getInteractiveP99Target().toNanos(), settings.getMinSamples())
+                : null;
+        this.evaluationInterval = settings.getInterval();
+
+        if (governor != null) {
+            Gauge.builder("workload.bulk.permits", governor, BulkGovernor::getPermits)
+                    .description("Operaciones bulk simultáneas permitidas por el regulador")
+                    .register(meterRegistry);
+            Gauge.builder("workload.bulk.in-flight", governor, BulkGovernor::getInFlight)
+                    .description("Operaciones bulk en curso")
+                    .register(meterRegistry);
+            Gauge.builder("workload.interactive.write.p99", governor, g -> TimeUnit.NANOSECONDS.toMillis(g.getLastP99Nanos()))
+                    .description("p99 de las escrituras interactivas en la última evaluación del regulador")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    private WorkloadExecutor(Map<WorkloadClass, Scheduler> schedulers, BulkGovernor governor, Duration evaluationInterval) {
+        this.schedulers = schedulers;
+        this.governor = governor;
+        this.evaluationInterval = evaluationInterval;
+    }
+
+    // Sin cambio de hilo ni regulador (pruebas y herramientas de línea de comandos)
+    public static WorkloadExecutor direct() {
+        Map<WorkloadClass, Scheduler> immediate = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            immediate.put(workload, Schedulers.immediate());
+        }
+        return new WorkloadExecutor(immediate, null, null);
+    }
+
+    public static WorkloadClass current(ContextView context) {
+        return context.getOrDefault(WorkloadClass.CONTEXT_KEY, WorkloadClass.INTERACTIVE);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (governor != null) {
+            evaluation = Flux.interval(evaluationInterval, evaluationInterval)
+                    .subscribe(tick -> governor.evaluate());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (evaluation != null) {
+            evaluation.dispose();
+        }
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+
+    public Scheduler scheduler(WorkloadClass workload) {
+        return schedulers.get(workload);
+    }
+
+    public <T> Mono<T> on(WorkloadClass workload, Mono<T> operation) {
+        return operation.subscribeOn(scheduler(workload))
+                .contextWrite(ctx -> ctx.put(WorkloadClass.CONTEXT_KEY, workload));
+    }
+
+    public <T> Flux<T> on(WorkloadClass workload, Flux<T> operation) {
+        return operation.subscribeOn(scheduler(workload))
+                .contextWrite(ctx -> ctx.put(WorkloadClass.CONTEXT_KEY, workload));
+    }
+
+    // Solo marca la clase de carga en el contexto (elige el pool de R2DBC) y sigue en el hilo actual
+    public <T> Mono<T> tagged(WorkloadClass workload, Mono<T> operation) {
+        return operation.contextWrite(ctx -> ctx.put(WorkloadClass.CONTEXT_KEY, workload));
+    }
+
+    // Espera un permiso del regulador sin bloquear el hilo y lo devuelve al terminar, fallar o cancelar
+    public <T> Mono<T> governed(Mono<T> operation) {
+        if (governor == null) {
+            return operation;
+        }
+        return Mono.usingWhen(acquirePermit(),
+                permit -> operation,
+                permit -> releasePermit(),
+                (permit, error) -> releasePermit(),
+                permit -> releasePermit());
+    }
+
+    public void recordInteractiveWrite(long latencyNanos) {
+        if (governor != null) {
+            governor.recordInteractiveWrite(latencyNanos);
+        }
+    }
+
+    private Mono<Boolean> acquirePermit() {
+        return Mono.fromCallable(governor::tryAcquire)
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(PERMIT_POLL_INTERVAL));
+    }
+
+    private Mono<Void> releasePermit() {
+        return Mono.fromRunnable(governor::release);
+    }
+}
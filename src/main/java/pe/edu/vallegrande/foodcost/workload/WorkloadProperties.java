@@ -0,0 +1,48 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Recursos de cada clase de carga. Un valor 0 en db-pool-max-size usa spring.r2dbc.pool.max-size y
+ * un valor 0 en los hilos de event loop usa los event loops compartidos de Reactor Netty.
+ */
+@Data
+@ConfigurationProperties(prefix = "workload")
+public class WorkloadProperties {
+
+    private Resources interactive = new Resources();
+    private Resources bulk = new Resources();
+    private List<String> bulkPaths = new ArrayList<>();
+    private Governor governor = new Governor();
+
+    public Resources resources(WorkloadClass workload) {
+        return workload == WorkloadClass.BULK ? bulk : interactive;
+    }
+
+    @Data
+    public static class Resources {
+        private int schedulerThreads = Runtime.getRuntime().availableProcessors();
+        private int schedulerQueueSize = 10_000;
+        private int dbPoolMaxSize;
+        private int dbEventLoopThreads;
+        private int httpMaxConnections = 50;
+        private int httpEventLoopThreads;
+        private Duration httpPendingAcquireTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Governor {
+        private boolean enabled = true;
+        private Duration interactiveP99Target = Duration.ofMillis(250);
+        private int minPermits = 1;
+        private int maxPermits = 8;
+        private int minSamples = 20;
+        private Duration interval = Duration.ofSeconds(1);
+    }
+}
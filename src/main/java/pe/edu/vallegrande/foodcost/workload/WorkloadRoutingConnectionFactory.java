@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * ConnectionFactory que entrega la conexión del pool de la clase de carga indicada en el contexto
+ * de Reactor (ver WorkloadExecutor.on). Sin clase en el contexto se usa el pool INTERACTIVE.
+ */
+public class WorkloadRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.getOrEmpty(WorkloadClass.CONTEXT_KEY)));
+    }
+}
@@ -0,0 +1,117 @@
+package pe.edu.vallegrande.foodcost.workload;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Clasifica cada petición en su clase de carga (anotación @Workload del endpoint o
+ * workload.bulk-paths) y la ejecuta con los recursos de esa clase. Las INTERACTIVE siguen en el
+ * event loop y solo llevan la clase en el contexto (pool de R2DBC propio); las BULK pasan a su
+ * scheduler y, si su cola está llena, se rechazan con 503. Mide la duración por clase en
+ * workload.requests y entrega al regulador la latencia de las escrituras INTERACTIVE.
+ */
+@Component
+@ConditionalOnWebApplication
+public class WorkloadWebFilter implements WebFilter {
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final WorkloadExecutor workloadExecutor;
+    private final List<RequestMappingInfo> bulkMappings;
+    private final List<PathPattern> bulkPaths;
+    private final Map<WorkloadClass, Timer> timers = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadWebFilter(WorkloadExecutor workloadExecutor,
+                             WorkloadProperties properties,
+                             @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                             MeterRegistry meterRegistry) {
+        this.workloadExecutor = workloadExecutor;
+        // Las anotaciones se resuelven una sola vez; por petición solo se evalúan las rutas BULK
+        this.bulkMappings = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(mapping -> workloadOf(mapping.getValue()) == WorkloadClass.BULK)
+                .map(Map.Entry::getKey)
+                .toList();
+        this.bulkPaths = properties.getBulkPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            timers.put(workload, Timer.builder("workload.requests")
+                    .tag("workload", workload.id())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        WorkloadClass workload = classify(exchange);
+        boolean interactiveWrite = workload == WorkloadClass.INTERACTIVE
+                && WRITE_METHODS.contains(exchange.getRequest().getMethod());
+        long start = System.nanoTime();
+        Mono<Void> handled = workload == WorkloadClass.BULK
+                ? workloadExecutor.on(workload, chain.filter(exchange))
+                        .onErrorResume(error -> error instanceof RejectedExecutionException
+                                && !exchange.getResponse().isCommitted(), error -> rejectBulk(exchange))
+                : workloadExecutor.tagged(workload, chain.filter(exchange));
+        return handled
+                .doFinally(signal -> {
+                    long elapsed = System.nanoTime() - start;
+                    timers.get(workload).record(elapsed, TimeUnit.NANOSECONDS);
+                    if (interactiveWrite) {
+                        workloadExecutor.recordInteractiveWrite(elapsed);
+                    }
+                });
+    }
+
+    // Cola del scheduler BULK llena: el rechazo llega al suscribir, antes de que el endpoint escriba nada
+    private Mono<Void> rejectBulk(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return exchange.getResponse().setComplete();
+    }
+
+    public WorkloadClass classify(ServerWebExchange exchange) {
+        for (RequestMappingInfo mapping : bulkMappings) {
+            if (mapping.getMatchingCondition(exchange) != null) {
+                return WorkloadClass.BULK;
+            }
+        }
+        for (PathPattern pattern : bulkPaths) {
+            if (pattern.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                return WorkloadClass.BULK;
+            }
+        }
+        return WorkloadClass.INTERACTIVE;
+    }
+
+    private static WorkloadClass workloadOf(HandlerMethod handlerMethod) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Workload.class);
+        }
+        return workload != null ? workload.value() : WorkloadClass.INTERACTIVE;
+    }
+}
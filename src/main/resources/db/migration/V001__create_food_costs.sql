@@ -0,0 +1,16 @@
+-- Tabla principal de costos semanales de alimento por galpón.
+-- Con sharding habilitado la aplicación acota la secuencia de cada shard a su bloque de ids al arrancar (ShardIdBlocks).
+CREATE TABLE IF NOT EXISTS food_costs (
+    id_food_costs     BIGSERIAL PRIMARY KEY,
+    week_number       VARCHAR(50)    NOT NULL,
+    food_type         VARCHAR(100),
+    grams_per_chicken NUMERIC(10, 2),
+    total_kg          NUMERIC(12, 3),
+    total_cost        NUMERIC(12, 2),
+    start_date        DATE,
+    end_date          DATE,
+    shed_name         VARCHAR(100),
+    shed_id           BIGINT,
+    hens_id           BIGINT,
+    status            VARCHAR(1)     NOT NULL DEFAULT 'A'
+);
@@ -0,0 +1,25 @@
+-- Índices que respaldan las consultas de FoodCostsRepository. Cada uno está cubierto por
+-- FoodCostsRepositoryQueryPlanTest: si una consulta cambia de forma, el test lo detecta.
+
+-- findAllByStatusOrderByIdFoodCostsAsc: filtra por estado y devuelve en orden de id sin ordenar en memoria
+CREATE INDEX IF NOT EXISTS idx_food_costs_status_id
+    ON food_costs (status, id_food_costs);
+
+-- findTopByShedIdOrderByStartDateDesc: último periodo de un galpón con un recorrido inverso del índice.
+-- Con id_food_costs al final también entrega el orden (start_date, id) del cursor de paginación
+-- de las búsquedas por galpón (GET /api/food-costs?shedId=) sin ordenar en memoria
+CREATE INDEX IF NOT EXISTS idx_food_costs_shed_start_date_id
+    ON food_costs (shed_id, start_date, id_food_costs);
+
+-- Bases creadas con la versión anterior de este script: el índice (shed_id, start_date) quedó cubierto por el de arriba
+DROP INDEX IF EXISTS idx_food_costs_shed_start_date;
+
+-- findMin/MaxIdForRecalculation y recalculateTotalCost: tipo de alimento + rango de fechas
+CREATE INDEX IF NOT EXISTS idx_food_costs_food_type_start_date
+    ON food_costs (food_type, start_date, id_food_costs);
+
+-- findByWeekNumber: LOWER(week_number) LIKE '%...%' solo puede usar un índice de trigramas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_food_costs_week_number_trgm
+    ON food_costs USING gin (LOWER(week_number) gin_trgm_ops);
@@ -0,0 +1,18 @@
+-- Historial de cambios de food_costs (solo inserciones). No tiene FK hacia food_costs para
+-- conservar la historia de los registros borrados físicamente. Vive en el mismo shard que el galpón.
+CREATE TABLE IF NOT EXISTS food_cost_audit (
+    id_audit      BIGSERIAL PRIMARY KEY,
+    id_food_costs BIGINT       NOT NULL,
+    shed_id       BIGINT,
+    action        VARCHAR(20)  NOT NULL,
+    actor         VARCHAR(255) NOT NULL,
+    before_image  JSONB,
+    after_image   JSONB,
+    changed_at    TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_food_cost_audit_record
+    ON food_cost_audit (id_food_costs, changed_at);
+
+CREATE INDEX IF NOT EXISTS idx_food_cost_audit_shed
+    ON food_cost_audit (shed_id, changed_at);
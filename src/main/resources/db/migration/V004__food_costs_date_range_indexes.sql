@@ -0,0 +1,5 @@
+-- Consultas por rango de fechas (GET /api/food-costs?from=&to=). food_costs se llena de forma
+-- cronológica, así que start_date sigue el orden físico y un BRIN de pocos KB descarta casi
+-- todos los bloques fuera del rango.
+CREATE INDEX IF NOT EXISTS idx_food_costs_start_date_brin
+    ON food_costs USING brin (start_date) WITH (pages_per_range = 32);
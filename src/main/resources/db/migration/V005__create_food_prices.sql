@@ -0,0 +1,17 @@
+-- Historial de precios por alimento (food_id del servicio Food) con vigencia inclusiva
+-- [effective_from, effective_to]; effective_to NULL es el precio vigente sin fecha de fin.
+-- La restricción de exclusión impide dos precios del mismo alimento con vigencias superpuestas.
+-- Son datos de referencia, no se particionan por galpón: con sharding viven en el primer shard.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE IF NOT EXISTS food_prices (
+    id_food_price  BIGSERIAL PRIMARY KEY,
+    food_id        BIGINT        NOT NULL,
+    unit_price     NUMERIC(12,2) NOT NULL CHECK (unit_price > 0),
+    effective_from DATE          NOT NULL,
+    effective_to   DATE,
+    created_at     TIMESTAMPTZ   NOT NULL DEFAULT now(),
+    CONSTRAINT food_prices_valid_range CHECK (effective_to IS NULL OR effective_to >= effective_from),
+    CONSTRAINT food_prices_no_overlap
+        EXCLUDE USING gist (food_id WITH =, daterange(effective_from, effective_to, '[]') WITH &&)
+);
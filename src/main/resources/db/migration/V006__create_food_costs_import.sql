@@ -0,0 +1,19 @@
+-- Tabla de staging para la importación masiva por COPY: cada importación escribe con su import_id
+-- y un único INSERT ... SELECT la pasa a food_costs, borrando al mismo tiempo sus filas de aquí.
+-- UNLOGGED y sin índices para que el COPY no pague WAL ni mantenimiento de índices; si la base
+-- se cae a mitad de una importación se pierde el staging, que de todas formas era descartable.
+CREATE UNLOGGED TABLE IF NOT EXISTS food_costs_import (
+    import_id         UUID          NOT NULL,
+    line_number       BIGINT        NOT NULL,
+    week_number       VARCHAR(50)   NOT NULL,
+    food_type         VARCHAR(100),
+    grams_per_chicken NUMERIC(10,2),
+    total_kg          NUMERIC(12,3),
+    total_cost        NUMERIC(12,2),
+    start_date        DATE,
+    end_date          DATE,
+    shed_name         VARCHAR(100),
+    shed_id           BIGINT,
+    hens_id           BIGINT,
+    status            VARCHAR(1)    NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Un galpón tiene a lo sumo un periodo activo por fecha de inicio. Lo garantiza la base, no la lectura previa
+-- de cada servicio: dos backfills solapados, o un backfill y un alta manual del mismo galpón, ya no duplican semanas.
+-- Las inserciones masivas (backfill, importación CSV) usan ON CONFLICT ... DO NOTHING para omitir los periodos existentes.
+
+-- Bases con duplicados previos: se conserva activo el registro más antiguo de cada periodo y los demás se desactivan
+UPDATE food_costs f
+SET status = 'I'
+WHERE f.status = 'A'
+  AND EXISTS (SELECT 1 FROM food_costs o
+              WHERE o.shed_id = f.shed_id AND o.start_date = f.start_date AND o.status = 'A'
+                AND o.id_food_costs < f.id_food_costs);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_food_costs_shed_start_date_active
+    ON food_costs (shed_id, start_date)
+    WHERE status = 'A';
@@ -0,0 +1,149 @@
+package pe.edu.vallegrande.foodcost.Analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pe.edu.vallegrande.foodcost.analytics.FoodCostTimeSeriesIndex;
+import pe.edu.vallegrande.foodcost.dto.transfer.ShedCostSummaryDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.WeeklyCostPointDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class FoodCostTimeSeriesIndexTest {
+
+    private static final LocalDate SEASON_START = LocalDate.of(2025, 1, 6);
+
+    @TempDir
+    Path tempDir;
+
+    private final FoodCostsRepository foodCostsRepository = mock(FoodCostsRepository.class);
+
+    private FoodCostTimeSeriesIndex newIndex() {
+        return new FoodCostTimeSeriesIndex(foodCostsRepository, ShardRouter.single(),
+                tempDir.resolve("series.bin").toString());
+    }
+
+    private static FoodCost week(long id, long shedId, int week, String totalCost) {
+        FoodCost foodCost = new FoodCost();
+        foodCost.setIdFoodCosts(id);
+        foodCost.setShedId(shedId);
+        foodCost.setStartDate(SEASON_START.plusWeeks(week));
+        foodCost.setEndDate(SEASON_START.plusWeeks(week).plusDays(6));
+        foodCost.setTotalKg(new BigDecimal("70.000"));
+        foodCost.setTotalCost(new BigDecimal(totalCost));
+        foodCost.setStatus("A");
+        return foodCost;
+    }
+
+    /**
+     * La carga desde la base arma una serie por galpón a medida que llegan las filas (ordenadas por
+     * galpón y fecha) y el rango es inclusivo en ambos extremos.
+     */
+    @Test
+    void testReload_buildsSortedSeriesPerShed() {
+        when(foodCostsRepository.findAllActiveOrderByShedAndStartDate()).thenReturn(Flux.just(
+                week(1, 1L, 0, "10.00"), week(2, 1L, 1, "20.00"), week(3, 1L, 2, "30.00"), week(4, 2L, 0, "99.00")));
+        FoodCostTimeSeriesIndex index = newIndex();
+
+        StepVerifier.create(index.reload()).expectNext(4L).verifyComplete();
+
+        List<WeeklyCostPointDto> points = index.range(1L, SEASON_START.plusWeeks(1), SEASON_START.plusWeeks(2));
+        assertEquals(2, points.size());
+        assertEquals(SEASON_START.plusWeeks(1), points.get(0).getWeekStart());
+        assertEquals(new BigDecimal("20.00"), points.get(0).getTotalCost());
+        assertEquals(new BigDecimal("30.00"), points.get(1).getTotalCost());
+        assertEquals(3, index.range(1L, null, null).size());
+    }
+
+    /**
+     * Los eventos de escritura mantienen el índice: edición, cambio de galpón e inactivación.
+     */
+    @Test
+    void testEvents_keepIndexCurrent() {
+        FoodCostTimeSeriesIndex index = newIndex();
+        FoodCost created = week(1, 1L, 0, "10.00");
+        index.onFoodCostChanged(FoodCostChangedEvent.created(created));
+
+        FoodCost edited = week(1, 1L, 0, "12.50");
+        index.onFoodCostChanged(FoodCostChangedEvent.updated(created, edited));
+        assertEquals(new BigDecimal("12.50"), index.range(1L, null, null).get(0).getTotalCost());
+
+        FoodCost moved = week(1, 2L, 0, "12.50");
+        index.onFoodCostChanged(FoodCostChangedEvent.updated(edited, moved));
+        assertTrue(index.range(1L, null, null).isEmpty());
+        assertEquals(1, index.range(2L, null, null).size());
+
+        FoodCost inactive = week(1, 2L, 0, "12.50");
+        inactive.setStatus("I");
+        index.onFoodCostChanged(FoodCostChangedEvent.statusChanged(moved, inactive));
+        assertTrue(index.range(2L, null, null).isEmpty());
+    }
+
+    /**
+     * El promedio móvil usa las semanas anteriores al rango para completar la ventana.
+     */
+    @Test
+    void testMovingAverage_usesPreviousWeeksForWindow() {
+        FoodCostTimeSeriesIndex index = newIndex();
+        String[] costs = {"10.00", "20.00", "30.00", "40.00"};
+        for (int i = 0; i < costs.length; i++) {
+            index.onFoodCostChanged(FoodCostChangedEvent.created(week(i + 1, 1L, i, costs[i])));
+        }
+
+        List<WeeklyCostPointDto> averages = index.movingAverage(1L, SEASON_START.plusWeeks(2), null, 2);
+
+        assertEquals(2, averages.size());
+        assertEquals(new BigDecimal("25.00"), averages.get(0).getTotalCost());
+        assertEquals(new BigDecimal("35.00"), averages.get(1).getTotalCost());
+    }
+
+    @Test
+    void testCompare_summarizesEachShed() {
+        FoodCostTimeSeriesIndex index = newIndex();
+        index.onFoodCostChanged(FoodCostChangedEvent.created(week(1, 1L, 0, "10.00")));
+        index.onFoodCostChanged(FoodCostChangedEvent.created(week(2, 1L, 1, "30.00")));
+        index.onFoodCostChanged(FoodCostChangedEvent.created(week(3, 2L, 0, "7.00")));
+
+        List<ShedCostSummaryDto> summaries = index.compare(List.of(2L, 1L), null, null);
+
+        assertEquals(1L, summaries.get(0).getShedId());
+        assertEquals(2, summaries.get(0).getWeeks());
+        assertEquals(new BigDecimal("40.00"), summaries.get(0).getTotalCost());
+        assertEquals(new BigDecimal("20.00"), summaries.get(0).getAverageWeeklyCost());
+        assertEquals(new BigDecimal("140.000"), summaries.get(0).getTotalKg());
+        assertEquals(new BigDecimal("7.00"), summaries.get(1).getTotalCost());
+    }
+
+    /**
+     * El snapshot en disco reproduce el mismo índice al reiniciar, sin consultar la base.
+     */
+    @Test
+    void testSnapshot_roundTrip() {
+        FoodCostTimeSeriesIndex index = newIndex();
+        for (int i = 0; i < 10; i++) {
+            index.onFoodCostChanged(FoodCostChangedEvent.created(week(i + 1, i % 3, i, (i + 1) + ".25")));
+        }
+        index.saveSnapshot();
+
+        FoodCostTimeSeriesIndex restarted = newIndex();
+
+        assertTrue(restarted.loadSnapshot());
+        for (long shedId = 0; shedId < 3; shedId++) {
+            assertEquals(index.range(shedId, null, null), restarted.range(shedId, null, null));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package pe.edu.vallegrande.foodcost.Audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.audit.MpscRingBuffer;
+
+class MpscRingBufferTest {
+
+    /**
+     * Lleno rechaza sin bloquear y, al vaciarse, entrega en orden FIFO reutilizando las celdas.
+     */
+    @Test
+    void testOfferAndPoll_fifoAndRejectsWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(round * 10 + i));
+            }
+            assertFalse(buffer.offer(99));
+            assertEquals(4, buffer.size());
+
+            List<Integer> drained = new ArrayList<>();
+            assertEquals(4, buffer.drainTo(drained, 10));
+            assertEquals(List.of(round * 10, round * 10 + 1, round * 10 + 2, round * 10 + 3), drained);
+            assertNull(buffer.poll());
+        }
+    }
+
+    /**
+     * Con varios productores concurrentes no se pierde ni se duplica nada: cada elemento se entrega
+     * una vez o se cuenta como rechazado, y el orden de cada productor se conserva.
+     */
+    @Test
+    void testConcurrentProducers_noLossNoDuplicates() throws Exception {
+        int producers = 4;
+        int perProducer = 200_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            pool.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    if (!buffer.offer(new long[]{producer, i})) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        start.countDown();
+
+        long[] lastSeen = {-1, -1, -1, -1};
+        long received = 0;
+        while (!pool.isTerminated() || buffer.size() > 0) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                continue;
+            }
+            int producer = (int) element[0];
+            assertTrue(element[1] > lastSeen[producer], "Orden alterado para el productor " + producer);
+            lastSeen[producer] = element[1];
+            received++;
+        }
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals((long) producers * perProducer, received + rejected.get());
+    }
+}
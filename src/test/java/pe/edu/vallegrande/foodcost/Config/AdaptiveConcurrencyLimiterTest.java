@@ -0,0 +1,102 @@
+package pe.edu.vallegrande.foodcost.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.config.AdaptiveConcurrencyLimiter;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET_NANOS = Duration.ofMillis(500).toNanos();
+    private static final long FAST = Duration.ofMillis(20).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    /**
+     * No admite más requests en curso que el límite actual.
+     */
+    @Test
+    void testTryAcquire_respectsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_NANOS, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    /**
+     * Con el límite en uso y respuestas rápidas crece de a uno, sin pasar del máximo.
+     */
+    @Test
+    void testRelease_additiveIncreaseUpToCeiling() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6, TARGET_NANOS, 0.5);
+
+        for (int round = 0; round < 5; round++) {
+            fillAndRelease(limiter, FAST, false);
+        }
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Si el límite casi no se usa no crece: un solo request rápido no lo sube.
+     */
+    @Test
+    void testRelease_doesNotGrowWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 20, TARGET_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    /**
+     * Latencia sobre el objetivo o error reducen multiplicativamente, sin bajar del mínimo.
+     */
+    @Test
+    void testRelease_multiplicativeDecreaseDownToFloor() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 3, 40, TARGET_NANOS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(8, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    /**
+     * Un permiso abandonado se devuelve sin mover el límite.
+     */
+    @Test
+    void testAbandon_releasesWithoutSample() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, TARGET_NANOS, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.abandon();
+
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private static void fillAndRelease(AdaptiveConcurrencyLimiter limiter, long latencyNanos, boolean overloaded) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latencyNanos, overloaded);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package pe.edu.vallegrande.foodcost.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import pe.edu.vallegrande.foodcost.config.CodecConfig;
+import pe.edu.vallegrande.foodcost.config.CollectingJackson2Encoder;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+
+/**
+ * Compara JSON contra CBOR y Smile para una respuesta grande de /actives:
+ * tiempo de codificación, tamaño del payload y throughput (listas por segundo).
+ */
+class BinaryCodecBenchmarkTest {
+
+    private static final int ROWS = 5000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private final ObjectMapper jsonMapper = mapper(new JsonFactory());
+    private final ObjectMapper cborMapper = mapper(new CBORFactory());
+    private final ObjectMapper smileMapper = mapper(new SmileFactory());
+
+    /**
+     * Un Flux se escribe como un único arreglo CBOR que se puede leer de vuelta sin pérdida.
+     */
+    @Test
+    void testCborEncoder_writesFluxAsSingleArray() {
+        List<FoodCost> costs = sampleCosts(50);
+        CollectingJackson2Encoder encoder = new CollectingJackson2Encoder(new Jackson2CborEncoder(cborMapper));
+
+        DataBuffer buffer = DataBufferUtils.join(encoder.encode(Flux.fromIterable(costs), DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forClass(FoodCost.class), MediaType.APPLICATION_CBOR, null)).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+
+        List<FoodCost> decoded = read(cborMapper, bytes);
+        assertEquals(costs, decoded);
+    }
+
+    // El tamaño del payload no depende de la máquina: se verifica en cada build
+    @Test
+    void testBinaryFormats_areMoreCompactThanJson() throws Exception {
+        List<FoodCost> costs = sampleCosts(ROWS);
+        int jsonSize = jsonMapper.writeValueAsBytes(costs).length;
+
+        assertTrue(cborMapper.writeValueAsBytes(costs).length < jsonSize, "CBOR debe ser más compacto que JSON");
+        assertTrue(smileMapper.writeValueAsBytes(costs).length < jsonSize, "Smile debe ser más compacto que JSON");
+        assertEquals(costs, read(smileMapper, smileMapper.writeValueAsBytes(costs)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkEncodeTimeAndPayloadSize() throws Exception {
+        List<FoodCost> costs = sampleCosts(ROWS);
+
+        report("JSON", jsonMapper, costs);
+        report("CBOR", cborMapper, costs);
+        report("Smile", smileMapper, costs);
+    }
+
+    private void report(String format, ObjectMapper mapper, List<FoodCost> costs) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(costs);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(costs);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(costs);
+        }
+        double msPerOp = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+        System.out.printf("%-5s | %8d bytes | %7.3f ms/lista | %8.1f listas/s%n",
+                format, payload.length, msPerOp, 1000.0 / msPerOp);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        // Misma configuración de fechas que aplica Spring Boot al ObjectMapper de JSON
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return CodecConfig.binaryMapper(builder, factory);
+    }
+
+    private static List<FoodCost> read(ObjectMapper mapper, byte[] bytes) {
+        try {
+            return mapper.readValue(bytes, new TypeReference<List<FoodCost>>() { });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<FoodCost> sampleCosts(int rows) {
+        List<FoodCost> costs = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            FoodCost foodCost = new FoodCost();
+            foodCost.setIdFoodCosts((long) i + 1);
+            foodCost.setWeekNumber("Semana " + (i % 52 + 1));
+            foodCost.setFoodType(i % 2 == 0 ? "Postura" : "Inicio de gallina ponedora");
+            foodCost.setGramsPerChicken(new BigDecimal("115.50"));
+            foodCost.setTotalKg(BigDecimal.valueOf(8085 + i, 2));
+            foodCost.setTotalCost(BigDecimal.valueOf(202125 + i * 7L, 2));
+            foodCost.setStartDate(start.plusWeeks(i % 52));
+            foodCost.setEndDate(start.plusWeeks(i % 52).plusDays(6));
+            foodCost.setShedName("Galpon " + (i % 20));
+            foodCost.setShedId((long) (i % 20));
+            foodCost.setHensId((long) (i % 40));
+            foodCost.setStatus("A");
+            costs.add(foodCost);
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,162 @@
+package pe.edu.vallegrande.foodcost.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.management.ThreadMXBean;
+
+import pe.edu.vallegrande.foodcost.config.FoodCostJsonEncoder;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * El encoder dedicado debe producir exactamente el JSON del ObjectMapper de Spring Boot, en pocos
+ * buffers, y asignar menos memoria por lista que el Jackson2JsonEncoder por defecto.
+ */
+class FoodCostJsonEncoderTest {
+
+    private static final ResolvableType FOOD_COST = ResolvableType.forClass(FoodCost.class);
+    private static final int ROWS = 5000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final FoodCostJsonEncoder encoder = new FoodCostJsonEncoder(8192);
+
+    /**
+     * Casos borde: nulos, escapes, caracteres no ASCII, decimales negativos, con ceros y en notación científica.
+     */
+    @Test
+    void testEncode_matchesJacksonOutput() throws Exception {
+        List<FoodCost> costs = new ArrayList<>(sampleCosts(3));
+        FoodCost edge = new FoodCost();
+        edge.setIdFoodCosts(-42L);
+        edge.setWeekNumber("Semana \"1\"\\\n\t\u0001 año 🐔");
+        edge.setGramsPerChicken(new BigDecimal("-0.0500"));
+        edge.setTotalKg(new BigDecimal("1E+3"));
+        edge.setTotalCost(new BigDecimal("0.00000001"));
+        edge.setStartDate(LocalDate.of(987, 3, 9));
+        edge.setShedName("Galpón Ñandú");
+        costs.add(edge);
+        costs.add(new FoodCost());
+
+        assertEquals(jsonMapper.writeValueAsString(costs), encodeToString(Flux.fromIterable(costs), encoder));
+        assertEquals(jsonMapper.writeValueAsString(edge), encodeToString(Mono.just(edge), encoder));
+    }
+
+    @Test
+    void testEncode_emptyFluxIsEmptyArray() {
+        assertEquals("[]", encodeToString(Flux.empty(), encoder));
+    }
+
+    /**
+     * Se emite un buffer por cada umbral alcanzado, no uno por elemento, y ninguno pasa del umbral
+     * (más el byte reservado para el ']'), es decir, ninguno creció copiando su contenido.
+     */
+    @Test
+    void testEncode_flushesOnSizeThreshold() throws Exception {
+        List<FoodCost> costs = sampleCosts(1000);
+        List<DataBuffer> buffers = encoder.encode(Flux.fromIterable(costs), DefaultDataBufferFactory.sharedInstance,
+                FOOD_COST, MediaType.APPLICATION_JSON, null).collectList().block();
+
+        int payload = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        int largest = buffers.stream().mapToInt(DataBuffer::capacity).max().orElse(0);
+        buffers.forEach(DataBufferUtils::release);
+        assertEquals(jsonMapper.writeValueAsBytes(costs).length, payload);
+        assertTrue(buffers.size() < costs.size() / 10, "Se esperaban pocos buffers, hubo " + buffers.size());
+        assertTrue(buffers.size() >= payload / 8192, "Cada buffer debe cortar cerca del umbral");
+        assertTrue(largest <= 8192 + 1, "Un buffer creció por encima del umbral: " + largest);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAllocationAndThroughput() {
+        List<FoodCost> costs = sampleCosts(ROWS);
+        Jackson2JsonEncoder jacksonEncoder = new Jackson2JsonEncoder(jsonMapper);
+
+        long[] jackson = measure("Jackson", () -> jacksonEncoder.encode(Flux.fromIterable(costs),
+                DefaultDataBufferFactory.sharedInstance, FOOD_COST, MediaType.APPLICATION_JSON, null));
+        long[] dedicated = measure("FoodCost", () -> encoder.encode(Flux.fromIterable(costs),
+                DefaultDataBufferFactory.sharedInstance, FOOD_COST, MediaType.APPLICATION_JSON, null));
+
+        assertTrue(dedicated[0] < jackson[0], "El encoder dedicado debe asignar menos memoria por lista");
+    }
+
+    // Devuelve {bytes asignados por lista, nanosegundos por lista}
+    private long[] measure(String name, Supplier<Flux<DataBuffer>> encodeOnce) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            drain(encodeOnce.get());
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            drain(encodeOnce.get());
+        }
+        long nanosPerOp = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        long bytesPerOp = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_ITERATIONS;
+        System.out.printf("%-8s | %10d bytes asignados/lista | %7.3f ms/lista | %8.1f listas/s%n",
+                name, bytesPerOp, nanosPerOp / 1_000_000.0, 1_000_000_000.0 / nanosPerOp);
+        return new long[] {bytesPerOp, nanosPerOp};
+    }
+
+    // Consume la codificación en el hilo actual liberando cada buffer, como lo haría el servidor al escribir
+    private static void drain(Flux<DataBuffer> buffers) {
+        buffers.doOnNext(DataBufferUtils::release).blockLast();
+    }
+
+    private static String encodeToString(Publisher<FoodCost> costs, FoodCostJsonEncoder target) {
+        DataBuffer buffer = DataBufferUtils.join(target.encode(costs, DefaultDataBufferFactory.sharedInstance,
+                FOOD_COST, MediaType.APPLICATION_JSON, null)).block();
+        String json = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return json;
+    }
+
+    private static List<FoodCost> sampleCosts(int rows) {
+        List<FoodCost> costs = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            FoodCost foodCost = new FoodCost();
+            foodCost.setIdFoodCosts((long) i + 1);
+            foodCost.setWeekNumber("Semana " + (i % 52 + 1));
+            foodCost.setFoodType(i % 2 == 0 ? "Postura" : "Inicio de gallina ponedora");
+            foodCost.setGramsPerChicken(new BigDecimal("115.50"));
+            foodCost.setTotalKg(BigDecimal.valueOf(8085 + i, 2));
+            foodCost.setTotalCost(BigDecimal.valueOf(202125 + i * 7L, 2));
+            foodCost.setStartDate(start.plusWeeks(i % 52));
+            foodCost.setEndDate(start.plusWeeks(i % 52).plusDays(6));
+            foodCost.setShedName("Galpon " + (i % 20));
+            foodCost.setShedId((long) (i % 20));
+            foodCost.setHensId((long) (i % 40));
+            foodCost.setStatus("A");
+            costs.add(foodCost);
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,58 @@
+package pe.edu.vallegrande.foodcost.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.config.TokenBucket;
+
+class TokenBucketTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * Arranca lleno: admite hasta la capacidad y luego rechaza sin que pase el tiempo.
+     */
+    @Test
+    void testTryConsume_startsFullAndEmpties() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(0));
+    }
+
+    /**
+     * Recarga en proporción al tiempo transcurrido y el Retry-After apunta al próximo token.
+     */
+    @Test
+    void testTryConsume_refillsOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 4, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(SECOND / 4, bucket.nanosUntilNextToken(0));
+        assertFalse(bucket.tryConsume(SECOND / 8));
+        assertTrue(bucket.tryConsume(SECOND / 4));
+        assertFalse(bucket.tryConsume(SECOND / 4));
+        assertEquals(SECOND / 4, bucket.lastActivityNanos());
+    }
+
+    /**
+     * Un cliente inactivo no acumula más tokens que la capacidad.
+     */
+    @Test
+    void testTryConsume_refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        long later = 60 * SECOND;
+        assertTrue(bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later));
+        assertFalse(bucket.tryConsume(later));
+    }
+}
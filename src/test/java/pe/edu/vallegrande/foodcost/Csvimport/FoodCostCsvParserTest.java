@@ -0,0 +1,87 @@
+package pe.edu.vallegrande.foodcost.Csvimport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.csvimport.CopyTextFormat;
+import pe.edu.vallegrande.foodcost.csvimport.FoodCostCsvParser;
+import pe.edu.vallegrande.foodcost.csvimport.FoodCostCsvParser.ParsedLine;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidCsvImportException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+
+class FoodCostCsvParserTest {
+
+    private static final String HEADER = "week_number,foodType,grams_per_chicken,total_kg,total_cost,start_date,shed_name,shed_id,status";
+
+    /**
+     * Cabecera en snake_case o camelCase, campos con comillas, decimales redondeados a la escala
+     * de la columna y end_date/status por defecto.
+     */
+    @Test
+    void testParse_normalizesValidLine() {
+        FoodCostCsvParser parser = FoodCostCsvParser.forHeader(HEADER);
+
+        ParsedLine line = parser.parse(2, "Semana 1,\"Inicio, \"\"premium\"\"\",115.505, 80.8500 ,2021.2,2024-01-01,Galpón 3,3,");
+
+        assertTrue(line.isValid(), line.error());
+        FoodCost row = line.row();
+        assertEquals("Inicio, \"premium\"", row.getFoodType());
+        assertEquals(new BigDecimal("115.51"), row.getGramsPerChicken());
+        assertEquals(new BigDecimal("80.850"), row.getTotalKg());
+        assertEquals(new BigDecimal("2021.20"), row.getTotalCost());
+        assertEquals(LocalDate.of(2024, 1, 7), row.getEndDate());
+        assertEquals(3L, row.getShedId());
+        assertNull(row.getHensId());
+        assertEquals("A", row.getStatus());
+    }
+
+    @Test
+    void testParse_rejectsInvalidLinesWithReason() {
+        FoodCostCsvParser parser = FoodCostCsvParser.forHeader(HEADER);
+
+        ParsedLine missingShed = parser.parse(3, "Semana 1,Postura,115,80,2000,2024-01-01,Galpón,,A");
+        ParsedLine badDate = parser.parse(4, "Semana 1,Postura,115,80,2000,01/01/2024,Galpón,3,A");
+        ParsedLine overflow = parser.parse(5, "Semana 1,Postura,115,80,12345678901,2024-01-01,Galpón,3,A");
+        ParsedLine badStatus = parser.parse(6, "Semana 1,Postura,115,80,2000,2024-01-01,Galpón,3,X");
+        ParsedLine shortLine = parser.parse(7, "Semana 1,Postura");
+
+        assertFalse(missingShed.isValid());
+        assertEquals(3, missingShed.lineNumber());
+        assertTrue(missingShed.error().contains("shed_id"));
+        assertTrue(badDate.error().contains("start_date"));
+        assertTrue(overflow.error().contains("total_cost"));
+        assertTrue(badStatus.error().contains("status"));
+        assertTrue(shortLine.error().contains("campos"));
+    }
+
+    @Test
+    void testForHeader_rejectsUnknownOrMissingColumns() {
+        assertThrows(InvalidCsvImportException.class, () -> FoodCostCsvParser.forHeader("week_number,start_date,shed_id,total_kg,price"));
+        assertThrows(InvalidCsvImportException.class, () -> FoodCostCsvParser.forHeader("week_number,start_date,total_kg"));
+    }
+
+    @Test
+    void testAppendRow_escapesCopyTextFormat() {
+        UUID importId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        FoodCost row = new FoodCost();
+        row.setWeekNumber("Semana\t1\\a");
+        row.setTotalKg(new BigDecimal("1E+2"));
+        row.setStartDate(LocalDate.of(2024, 1, 1));
+        row.setShedId(3L);
+        row.setStatus("A");
+        StringBuilder out = new StringBuilder();
+
+        CopyTextFormat.appendRow(out, importId, 9, row);
+
+        assertEquals(importId + "\t9\tSemana\\t1\\\\a\t\\N\t\\N\t100\t\\N\t2024-01-01\t\\N\t\\N\t3\t\\N\tA\n", out.toString());
+    }
+}
@@ -0,0 +1,162 @@
+package pe.edu.vallegrande.foodcost.Exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.vallegrande.foodcost.exception.ProblemResponses;
+import pe.edu.vallegrande.foodcost.exception.service.FoodCostNotFoundException;
+import reactor.core.publisher.Mono;
+
+class ProblemResponsesTest {
+
+    private static final int STACK_DEPTH = 128;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProblemResponses problemResponses = new ProblemResponses(meterRegistry);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testWrite_rendersProblemJsonAndCountsErrors() throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/api/food-costs/delete/7"));
+        FoodCostNotFoundException ex = new FoodCostNotFoundException("No existe el registro \"7\"");
+
+        problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex).block();
+        problemResponses.write(MockServerWebExchange.from(MockServerHttpRequest.get("/x")), HttpStatus.NOT_FOUND, ex).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, exchange.getResponse().getHeaders().getContentType());
+        JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals("urn:foodcost:problem:food-cost-not-found", body.get("type").asText());
+        assertEquals("Not Found", body.get("title").asText());
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("No existe el registro \"7\"", body.get("detail").asText());
+        assertEquals("/api/food-costs/delete/7", body.get("instance").asText());
+        assertEquals(2.0, meterRegistry.get("foodcost.errors")
+                .tag("type", "FoodCostNotFoundException").tag("status", "404").counter().count());
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
+    @Test
+    void testWrite_usesTheStatusOfEachCall() throws Exception {
+        FoodCostNotFoundException ex = new FoodCostNotFoundException("No existe el registro");
+        MockServerWebExchange notFound = MockServerWebExchange.from(MockServerHttpRequest.get("/x"));
+        MockServerWebExchange gone = MockServerWebExchange.from(MockServerHttpRequest.get("/y"));
+
+        problemResponses.write(notFound, HttpStatus.NOT_FOUND, ex).block();
+        problemResponses.write(gone, HttpStatus.GONE, ex).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getResponse().getStatusCode());
+        assertEquals(HttpStatus.GONE, gone.getResponse().getStatusCode());
+        JsonNode body = objectMapper.readTree(gone.getResponse().getBodyAsString().block());
+        assertEquals(410, body.get("status").asInt());
+        assertEquals("Gone", body.get("title").asText());
+        assertEquals(1.0, meterRegistry.get("foodcost.errors")
+                .tag("type", "FoodCostNotFoundException").tag("status", "410").counter().count());
+    }
+
+    /**
+     * Ruta de error completa (lanzar desde una pila profunda, capturar y escribir el cuerpo) con todos
+     * los núcleos a la vez: excepción con stack trace + ProblemDetail por Jackson contra excepción sin
+     * stack trace + plantilla pre-serializada.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkErrorPathUnderLoad() throws Exception {
+        double legacy = measure("Stack trace + Jackson", () -> {
+            RuntimeException ex = throwFrom(STACK_DEPTH, () -> new RuntimeException("No se encontró el registro con ID: 7"));
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/food-costs/7"));
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+            problem.setInstance(URI.create(exchange.getRequest().getPath().value()));
+            byte[] body = writeJson(problem);
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        });
+        double stackless = measure("Sin stack + plantilla", () -> {
+            FoodCostNotFoundException ex = throwFrom(STACK_DEPTH, () -> new FoodCostNotFoundException("No se encontró el registro con ID: 7"));
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/food-costs/7"));
+            return problemResponses.write(exchange, HttpStatus.NOT_FOUND, ex);
+        });
+
+        assertTrue(stackless < legacy, "La ruta de error sin stack trace debe ser más barata");
+    }
+
+    // Devuelve nanosegundos por error
+    private double measure(String name, Supplier<Mono<Void>> errorPath) throws Exception {
+        run(errorPath, OPERATIONS_PER_THREAD / 4);
+        long start = System.nanoTime();
+        run(errorPath, OPERATIONS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+        double nanosPerError = (double) elapsed / OPERATIONS_PER_THREAD;
+        System.out.printf("%-22s | %d hilos | %8.2f µs/error por hilo | %10.0f errores/s%n",
+                name, THREADS, nanosPerError / 1000.0, THREADS * OPERATIONS_PER_THREAD * 1_000_000_000.0 / elapsed);
+        return nanosPerError;
+    }
+
+    private static void run(Supplier<Mono<Void>> errorPath, int operations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < operations; i++) {
+                        errorPath.get().block();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Simula la profundidad de pila de un operador de Reactor al fallar
+    private static <E extends RuntimeException> E throwFrom(int depth, Supplier<E> error) {
+        try {
+            descend(depth, error);
+            throw new IllegalStateException("No se lanzó la excepción");
+        } catch (RuntimeException ex) {
+            @SuppressWarnings("unchecked")
+            E caught = (E) ex;
+            return caught;
+        }
+    }
+
+    private static void descend(int depth, Supplier<? extends RuntimeException> error) {
+        if (depth == 0) {
+            throw error.get();
+        }
+        descend(depth - 1, error);
+    }
+
+    private byte[] writeJson(ProblemDetail problem) {
+        try {
+            return objectMapper.writeValueAsBytes(problem);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
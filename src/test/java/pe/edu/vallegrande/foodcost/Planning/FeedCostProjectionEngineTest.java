@@ -0,0 +1,167 @@
+package pe.edu.vallegrande.foodcost.Planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Result;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Scenario;
+import pe.edu.vallegrande.foodcost.planning.FeedCostProjectionEngine.Seed;
+import pe.edu.vallegrande.foodcost.service.FoodCostCalculator;
+
+class FeedCostProjectionEngineTest {
+
+    private static final long UNSET = FeedCostProjectionEngine.UNSET;
+    private static final int SHEDS = 500;
+    private static final int SCENARIOS = 50;
+    private static final int WEEKS = 52;
+    private static final int MEASURED_RUNS = 10;
+
+    private final FeedCostProjectionEngine engine = new FeedCostProjectionEngine(0, 4);
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    /**
+     * Cada semana debe redondear igual que FoodCostCalculator con BigDecimal, incluida la mortalidad
+     * y la variación de precio acumuladas.
+     */
+    @Test
+    void testProject_matchesFoodCostCalculatorWeekByWeek() {
+        Seed[] seeds = sampleSeeds(37);
+        Scenario[] scenarios = sampleScenarios(7);
+
+        Result result = engine.project(seeds, scenarios, WEEKS, true);
+
+        for (int cell = 0; cell < result.cells(); cell++) {
+            Seed seed = seeds[cell / scenarios.length];
+            Scenario scenario = scenarios[cell % scenarios.length];
+            BigDecimal grams = BigDecimal.valueOf(scenario.gramsCenti() != UNSET ? scenario.gramsCenti() : seed.gramsCenti(), 2);
+            long quantity = scenario.quantity() != UNSET ? scenario.quantity() : seed.quantity();
+            BigDecimal costPerKg = BigDecimal.valueOf(scenario.costPerKgCenti() != UNSET ? scenario.costPerKgCenti() : seed.costPerKgCenti(), 2);
+            BigDecimal totalCost = BigDecimal.ZERO.setScale(2);
+            for (int week = 0; week < WEEKS; week++) {
+                BigDecimal totalKg = FoodCostCalculator.calculateTotalKg(grams, Math.toIntExact(quantity));
+                BigDecimal cost = FoodCostCalculator.calculateTotalCost(totalKg, costPerKg);
+                assertEquals(totalKg, BigDecimal.valueOf(result.weekKgCenti(cell, week), 2), "kg celda " + cell + " semana " + week);
+                assertEquals(cost, BigDecimal.valueOf(result.weekCostCenti(cell, week), 2), "costo celda " + cell + " semana " + week);
+                totalCost = totalCost.add(cost);
+                quantity -= BigDecimal.valueOf(quantity).multiply(BigDecimal.valueOf(scenario.mortalityBasisPoints(), 4))
+                        .setScale(0, RoundingMode.HALF_UP).longValueExact();
+                costPerKg = costPerKg.multiply(BigDecimal.ONE.add(BigDecimal.valueOf(scenario.priceChangeBasisPoints(), 4)))
+                        .setScale(2, RoundingMode.HALF_UP);
+            }
+            assertEquals(totalCost, BigDecimal.valueOf(result.totalCostCenti(cell), 2));
+            assertEquals(quantity, result.endQuantity(cell));
+        }
+    }
+
+    // Sin costo en el galpón ni en el escenario la celda se omite; otro escenario que lo informa sí se proyecta
+    @Test
+    void testProject_skipsCellsWithoutSeedValues() {
+        Seed[] seeds = {new Seed(11550, 1000, UNSET)};
+        Scenario[] scenarios = {new Scenario(UNSET, UNSET, 0, UNSET, 0), new Scenario(UNSET, UNSET, 0, 250, 0)};
+
+        Result result = engine.project(seeds, scenarios, 4, false);
+
+        assertFalse(result.isProjected(0));
+        assertTrue(result.isProjected(1));
+        assertFalse(result.hasWeeks());
+        // 115.50 g x 1000 x 7 / 1000 = 808.50 kg por semana a 2.50
+        assertEquals(4 * 80850, result.totalKgCenti(1));
+        assertEquals(4 * 202125, result.totalCostCenti(1));
+    }
+
+    // Partir en tareas no debe cambiar ningún valor respecto de calcular todo en un hilo
+    @Test
+    void testProject_forkJoinMatchesSingleThread() {
+        Seed[] seeds = sampleSeeds(200);
+        Scenario[] scenarios = sampleScenarios(13);
+        FeedCostProjectionEngine sequential = new FeedCostProjectionEngine(1, Integer.MAX_VALUE);
+        try {
+            Result expected = sequential.project(seeds, scenarios, 12, true);
+            Result actual = engine.project(seeds, scenarios, 12, true);
+            for (int cell = 0; cell < expected.cells(); cell++) {
+                assertEquals(expected.isProjected(cell), actual.isProjected(cell));
+                assertEquals(expected.totalCostCenti(cell), actual.totalCostCenti(cell));
+                for (int week = 0; week < 12; week++) {
+                    assertEquals(expected.weekKgCenti(cell, week), actual.weekKgCenti(cell, week));
+                }
+            }
+        } finally {
+            sequential.stop();
+        }
+    }
+
+    @Test
+    void testProject_overflowFailsInsteadOfWrapping() {
+        Seed[] seeds = {new Seed(100_000, 10_000_000, 10_000_000)};
+        Scenario[] scenarios = {new Scenario(UNSET, UNSET, 0, UNSET, 10_000)};
+
+        assertThrows(ArithmeticException.class, () -> engine.project(seeds, scenarios, 104, false));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkForkJoinAgainstSingleThread() throws Exception {
+        Seed[] seeds = sampleSeeds(SHEDS);
+        Scenario[] scenarios = sampleScenarios(SCENARIOS);
+        FeedCostProjectionEngine sequential = new FeedCostProjectionEngine(1, Integer.MAX_VALUE);
+        try {
+            double single = measure("1 hilo", sequential, seeds, scenarios);
+            double forkJoin = measure("fork-join", engine, seeds, scenarios);
+            System.out.printf("Aceleración: %.1fx con %d núcleos%n", single / forkJoin, Runtime.getRuntime().availableProcessors());
+        } finally {
+            sequential.stop();
+        }
+    }
+
+    // Devuelve milisegundos por proyección completa (con detalle semanal, como la peor respuesta)
+    private static double measure(String name, FeedCostProjectionEngine target, Seed[] seeds, Scenario[] scenarios) throws Exception {
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            target.projectAsync(seeds, scenarios, WEEKS, true).get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            target.projectAsync(seeds, scenarios, WEEKS, true).get();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS;
+        long weekPoints = (long) seeds.length * scenarios.length * WEEKS;
+        System.out.printf("%-9s | %d galpones x %d escenarios x %d semanas | %8.2f ms | %,.0f semanas/s%n",
+                name, seeds.length, scenarios.length, WEEKS, millis, weekPoints / (millis / 1000));
+        return millis;
+    }
+
+    private static Seed[] sampleSeeds(int sheds) {
+        Seed[] seeds = new Seed[sheds];
+        for (int i = 0; i < sheds; i++) {
+            seeds[i] = new Seed(10_000 + i * 37L % 3_000, 500 + i * 113L % 20_000, 180 + i * 7L % 150);
+        }
+        return seeds;
+    }
+
+    // Mezcla de escenarios que usan los valores del galpón y que los reemplazan
+    private static Scenario[] sampleScenarios(int count) {
+        Scenario[] scenarios = new Scenario[count];
+        for (int i = 0; i < count; i++) {
+            scenarios[i] = new Scenario(
+                    i % 3 == 0 ? UNSET : 9_500 + i * 41L,
+                    i % 4 == 0 ? 12_000 + i * 10L : UNSET,
+                    i % 5 * 15L,
+                    i % 2 == 0 ? UNSET : 200 + i,
+                    i % 7 * 25L - 50);
+        }
+        return scenarios;
+    }
+}
@@ -0,0 +1,104 @@
+package pe.edu.vallegrande.foodcost.Pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import pe.edu.vallegrande.foodcost.pricing.FoodPriceIndex;
+import pe.edu.vallegrande.foodcost.repository.FoodPriceRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class FoodPriceIndexTest {
+
+    private final FoodPriceRepository foodPriceRepository = mock(FoodPriceRepository.class);
+
+    private FoodPriceIndex newIndex() {
+        return new FoodPriceIndex(foodPriceRepository, ShardRouter.single(), Duration.ofMinutes(5));
+    }
+
+    private static FoodPrice price(long foodId, String unitPrice, LocalDate from, LocalDate to) {
+        FoodPrice price = new FoodPrice();
+        price.setFoodId(foodId);
+        price.setUnitPrice(new BigDecimal(unitPrice));
+        price.setEffectiveFrom(from);
+        price.setEffectiveTo(to);
+        return price;
+    }
+
+    /**
+     * Las vigencias son inclusivas en ambos extremos; entre dos vigencias puede haber un hueco sin
+     * precio y la última sin effective_to sigue vigente.
+     */
+    @Test
+    void testPriceAt_resolvesInclusiveRangesGapsAndOpenEnd() {
+        when(foodPriceRepository.findAllByOrderByFoodIdAscEffectiveFromAsc()).thenReturn(Flux.just(
+                price(1L, "100.00", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)),
+                price(1L, "110.00", LocalDate.of(2025, 2, 10), null),
+                price(2L, "80.00", LocalDate.of(2025, 1, 1), null)));
+        FoodPriceIndex index = newIndex();
+        assertFalse(index.isLoaded());
+
+        StepVerifier.create(index.reload()).expectNext(3L).verifyComplete();
+
+        assertTrue(index.isLoaded());
+        assertEquals(Optional.empty(), index.priceAt(1L, LocalDate.of(2024, 12, 31)));
+        assertEquals(Optional.of(new BigDecimal("100.00")), index.priceAt(1L, LocalDate.of(2025, 1, 1)));
+        assertEquals(Optional.of(new BigDecimal("100.00")), index.priceAt(1L, LocalDate.of(2025, 1, 31)));
+        assertEquals(Optional.empty(), index.priceAt(1L, LocalDate.of(2025, 2, 5)));
+        assertEquals(Optional.of(new BigDecimal("110.00")), index.priceAt(1L, LocalDate.of(2030, 6, 1)));
+        assertEquals(Optional.of(new BigDecimal("80.00")), index.priceAt(2L, LocalDate.of(2025, 3, 1)));
+        assertEquals(Optional.empty(), index.priceAt(3L, LocalDate.of(2025, 3, 1)));
+    }
+
+    /**
+     * Al confirmar un cambio se reemplaza el timeline completo del alimento sin tocar los demás.
+     */
+    @Test
+    void testReplace_swapsOnlyThatFood() {
+        when(foodPriceRepository.findAllByOrderByFoodIdAscEffectiveFromAsc()).thenReturn(Flux.just(
+                price(1L, "100.00", LocalDate.of(2025, 1, 1), null),
+                price(2L, "80.00", LocalDate.of(2025, 1, 1), null)));
+        FoodPriceIndex index = newIndex();
+        StepVerifier.create(index.reload()).expectNext(2L).verifyComplete();
+
+        index.replace(1L, List.of(
+                price(1L, "100.00", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)),
+                price(1L, "120.00", LocalDate.of(2025, 4, 1), null)));
+
+        assertEquals(Optional.of(new BigDecimal("100.00")), index.priceAt(1L, LocalDate.of(2025, 3, 31)));
+        assertEquals(Optional.of(new BigDecimal("120.00")), index.priceAt(1L, LocalDate.of(2025, 4, 1)));
+        assertEquals(Optional.of(new BigDecimal("80.00")), index.priceAt(2L, LocalDate.of(2025, 4, 1)));
+    }
+
+    /**
+     * Un reemplazo con una lectura más vieja (menor id máximo) que la ya aplicada se descarta.
+     */
+    @Test
+    void testReplace_ignoresStaleRead() {
+        FoodPriceIndex index = newIndex();
+        FoodPrice closed = price(1L, "100.00", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31));
+        closed.setIdFoodPrice(1L);
+        FoodPrice newer = price(1L, "120.00", LocalDate.of(2025, 4, 1), null);
+        newer.setIdFoodPrice(2L);
+        FoodPrice stale = price(1L, "100.00", LocalDate.of(2025, 1, 1), null);
+        stale.setIdFoodPrice(1L);
+
+        index.replace(1L, List.of(closed, newer));
+        index.replace(1L, List.of(stale));
+
+        assertEquals(Optional.of(new BigDecimal("120.00")), index.priceAt(1L, LocalDate.of(2025, 4, 1)));
+    }
+}
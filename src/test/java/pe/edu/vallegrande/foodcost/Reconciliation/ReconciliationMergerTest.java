@@ -0,0 +1,74 @@
+package pe.edu.vallegrande.foodcost.Reconciliation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.ReconciliationDiscrepancyDto;
+import pe.edu.vallegrande.foodcost.reconciliation.KgBucket;
+import pe.edu.vallegrande.foodcost.reconciliation.ReconciliationMerger;
+
+class ReconciliationMergerTest {
+
+    private static final LocalDate JAN = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FEB = LocalDate.of(2025, 2, 1);
+    private static final LocalDate MAR = LocalDate.of(2025, 3, 1);
+
+    private static KgBucket kg(String type, LocalDate period, String kg) {
+        return new KgBucket(type, period, new BigDecimal(kg));
+    }
+
+    /**
+     * El saldo se acumula entre meses del mismo tipo: el consumo de febrero usa lo que sobró de enero.
+     */
+    @Test
+    void testAccept_carriesBalanceAcrossMonths() {
+        ReconciliationMerger merger = new ReconciliationMerger(
+                List.of(kg("inicio", JAN, "100"), kg("inicio", MAR, "50")), BigDecimal.ONE);
+
+        assertTrue(merger.accept(kg("inicio", JAN, "60")).isEmpty());
+        assertTrue(merger.accept(kg("inicio", FEB, "40")).isEmpty());
+        List<ReconciliationDiscrepancyDto> march = merger.accept(kg("inicio", MAR, "80"));
+
+        assertEquals(1, march.size());
+        assertEquals(ReconciliationMerger.NEGATIVE_BALANCE, march.get(0).getReason());
+        assertEquals(new BigDecimal("-30"), march.get(0).getBalanceKg());
+        assertEquals(new BigDecimal("50"), march.get(0).getSuppliedKg());
+        assertEquals(3, merger.getPeriodsCompared());
+    }
+
+    /**
+     * Un saldo negativo dentro de la tolerancia no es discrepancia; el stock sin fecha cuenta desde el inicio.
+     */
+    @Test
+    void testAccept_undatedStockAndTolerance() {
+        ReconciliationMerger merger = new ReconciliationMerger(
+                List.of(kg("postura", null, "10"), kg("postura", FEB, "20")), BigDecimal.ONE);
+
+        assertTrue(merger.accept(kg("postura", JAN, "10.5")).isEmpty());
+        assertTrue(merger.accept(kg("postura", FEB, "20")).isEmpty());
+    }
+
+    /**
+     * Cada tipo reinicia el saldo; un tipo sin entregas en el catálogo se reporta como tal.
+     */
+    @Test
+    void testAccept_resetsPerTypeAndReportsUnknownTypes() {
+        ReconciliationMerger merger = new ReconciliationMerger(
+                List.of(kg("inicio", JAN, "100"), kg("postura", FEB, "10")), BigDecimal.ONE);
+
+        assertTrue(merger.accept(kg("inicio", JAN, "90")).isEmpty());
+        List<ReconciliationDiscrepancyDto> unknown = merger.accept(kg("levante", JAN, "5"));
+        List<ReconciliationDiscrepancyDto> early = merger.accept(kg("postura", JAN, "5"));
+
+        assertEquals(ReconciliationMerger.NOT_IN_CATALOG, unknown.get(0).getReason());
+        assertEquals(new BigDecimal("-5"), unknown.get(0).getBalanceKg());
+        // postura figura en el catálogo, pero su entrega es posterior al consumo
+        assertEquals(ReconciliationMerger.NEGATIVE_BALANCE, early.get(0).getReason());
+    }
+}
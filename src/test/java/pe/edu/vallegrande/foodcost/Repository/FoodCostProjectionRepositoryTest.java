@@ -0,0 +1,39 @@
+package pe.edu.vallegrande.foodcost.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import pe.edu.vallegrande.foodcost.exception.service.InvalidFieldSelectionException;
+import pe.edu.vallegrande.foodcost.repository.FoodCostProjectionRepository;
+
+class FoodCostProjectionRepositoryTest {
+
+    private final FoodCostProjectionRepository repository =
+            new FoodCostProjectionRepository(mock(DatabaseClient.class), new R2dbcMappingContext());
+
+    /**
+     * Los campos se validan contra el mapeo de FoodCost, conservando el orden pedido y sin repetidos.
+     */
+    @Test
+    void testResolveFields_keepsRequestedOrder() {
+        assertEquals(List.of("weekNumber", "shedName", "totalCost"),
+                repository.resolveFields("weekNumber, shedName,totalCost,weekNumber"));
+    }
+
+    @Test
+    void testResolveFields_rejectsUnknownOrEmpty() {
+        InvalidFieldSelectionException unknown = assertThrows(InvalidFieldSelectionException.class,
+                () -> repository.resolveFields("weekNumber,password"));
+        assertTrue(unknown.getMessage().contains("password"));
+
+        assertThrows(InvalidFieldSelectionException.class, () -> repository.resolveFields(" , "));
+    }
+}
@@ -0,0 +1,325 @@
+package pe.edu.vallegrande.foodcost.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.r2dbc.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+
+/**
+ * Ejecuta EXPLAIN (ANALYZE, BUFFERS) de cada consulta de FoodCostsRepository sobre un Postgres real
+ * con un volumen de datos realista y falla si una consulta cae en un Seq Scan de food_costs o
+ * supera su presupuesto de filas examinadas o de buffers. Los planes quedan en target/query-plans.
+ * Las consultas con @Query se leen de la anotación para que el test siga al repositorio; las
+ * derivadas se escriben tal como las genera Spring Data R2DBC.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FoodCostsRepositoryQueryPlanTest {
+
+    private static final int SHEDS = 400;
+    private static final int WEEKS_PER_SHED = 260;
+    private static final int BENCHMARK_RUNS = 15;
+    private static final Path PLAN_DIR = Paths.get("target", "query-plans");
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> SUMMARY = new ArrayList<>();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    private record PlanCase(String name, String sql, boolean modifying, boolean allowSeqScan,
+                            long maxRowsExamined, long maxBuffers) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        runScript("db/migration/V001__create_food_costs.sql");
+        runScript("db/migration/V002__food_costs_query_indexes.sql");
+        runScript("db/migration/V004__food_costs_date_range_indexes.sql");
+        seed();
+        Files.createDirectories(PLAN_DIR);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("| Consulta | Nodos | Filas examinadas | Buffers | Tiempo (ms) | Resultado |");
+        lines.add("|---|---|---|---|---|---|");
+        lines.addAll(SUMMARY);
+        Files.write(PLAN_DIR.resolve("summary.md"), lines, StandardCharsets.UTF_8);
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    // 400 galpones x 260 semanas (~104k filas), 4 tipos de alimento y ~5% de registros inactivos,
+    // insertados semana a semana como en producción (start_date sigue el orden físico)
+    private static void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO food_costs (week_number, food_type, grams_per_chicken, total_kg, total_cost,
+                                            start_date, end_date, shed_name, shed_id, hens_id, status)
+                    SELECT 'Semana ' || w,
+                           (ARRAY['Inicio', 'Crecimiento', 'Postura', 'Engorde'])[1 + (s + w) % 4],
+                           110.00, 77.000, 192.50,
+                           DATE '2020-01-06' + (w - 1) * 7,
+                           DATE '2020-01-06' + (w - 1) * 7 + 6,
+                           'Galpón ' || s, s, s,
+                           CASE WHEN (s * 31 + w) % 20 = 0 THEN 'I' ELSE 'A' END
+                    FROM generate_series(1, %d) AS w, generate_series(1, %d) AS s
+                    ORDER BY w, s
+                    """.formatted(WEEKS_PER_SHED, SHEDS));
+            statement.execute("VACUUM ANALYZE food_costs");
+        }
+    }
+
+    static Stream<PlanCase> planCases() throws NoSuchMethodException {
+        String fromDate = literal(LocalDate.of(2022, 1, 1));
+        String toDate = literal(LocalDate.of(2022, 3, 31));
+        return Stream.of(
+                new PlanCase("findByWeekNumber",
+                        bind(queryOf("findByWeekNumber", String.class), Map.of("weekNumber", "'Semana 123'")),
+                        false, false, 2_000, 1_500),
+                new PlanCase("findAllByStatusOrderByIdFoodCostsAsc-inactive",
+                        "SELECT food_costs.* FROM food_costs WHERE food_costs.status = 'I' ORDER BY food_costs.id_food_costs ASC",
+                        false, false, 6_000, 8_000),
+                // Listado completo de activos: leer toda la tabla es inherente, solo se acota el costo
+                new PlanCase("findAllByStatusOrderByIdFoodCostsAsc-active",
+                        "SELECT food_costs.* FROM food_costs WHERE food_costs.status = 'A' ORDER BY food_costs.id_food_costs ASC",
+                        false, true, 110_000, 5_000),
+                // Recarga del índice de series: también lee todos los activos, en el orden del índice por galpón
+                new PlanCase("findAllActiveOrderByShedAndStartDate", queryOf("findAllActiveOrderByShedAndStartDate"),
+                        false, true, 110_000, 120_000),
+                new PlanCase("findTopByShedIdOrderByStartDateDesc",
+                        "SELECT food_costs.* FROM food_costs WHERE food_costs.shed_id = 17 ORDER BY food_costs.start_date DESC LIMIT 1",
+                        false, false, 10, 20),
+                // 400 galpones: ~2 búsquedas de índice por galpón en lugar de leer las ~104k filas
+                new PlanCase("findLatestActivePerShed", queryOf("findLatestActivePerShed"),
+                        false, false, 2_000, 5_000),
+                new PlanCase("findById",
+                        "SELECT food_costs.* FROM food_costs WHERE food_costs.id_food_costs = 50000 LIMIT 2",
+                        false, false, 10, 20),
+                new PlanCase("findMinIdForRecalculation",
+                        bind(queryOf("findMinIdForRecalculation", String.class, LocalDate.class, LocalDate.class),
+                                Map.of("foodType", "'Postura'", "fromDate", fromDate, "toDate", toDate)),
+                        false, false, 2_000, 100),
+                new PlanCase("findMaxIdForRecalculation",
+                        bind(queryOf("findMaxIdForRecalculation", String.class, LocalDate.class, LocalDate.class),
+                                Map.of("foodType", "'Postura'", "fromDate", fromDate, "toDate", toDate)),
+                        false, false, 2_000, 100),
+                new PlanCase("recalculateTotalCost",
+                        bind(queryOf("recalculateTotalCost", String.class, LocalDate.class, LocalDate.class,
+                                        BigDecimal.class, Long.class, Long.class),
+                                Map.of("foodType", "'Postura'", "fromDate", fromDate, "toDate", toDate,
+                                        "costPerKg", "2.6000", "fromId", "1", "toId", "10000")),
+                        true, false, 12_000, 5_000),
+                // FoodCostSearchRepository: SQL equivalente al que genera R2dbcEntityTemplate
+                new PlanCase("search-shed-first-page", searchSql("food_costs.shed_id = 17 AND food_costs.start_date >= "
+                        + fromDate + " AND food_costs.start_date <= " + literal(LocalDate.of(2022, 12, 31))),
+                        false, false, 100, 150),
+                new PlanCase("search-shed-next-page", searchSql("food_costs.shed_id = 17 AND food_costs.start_date >= "
+                        + literal(LocalDate.of(2022, 6, 6)) + " AND (food_costs.start_date > " + literal(LocalDate.of(2022, 6, 6))
+                        + " OR food_costs.id_food_costs > 60000)"),
+                        false, false, 100, 150),
+                new PlanCase("search-date-range", searchSql("food_costs.start_date >= " + literal(LocalDate.of(2022, 3, 7))
+                        + " AND food_costs.start_date <= " + literal(LocalDate.of(2022, 3, 13))),
+                        false, false, 6_000, 300));
+    }
+
+    private static String searchSql(String where) {
+        return "SELECT food_costs.* FROM food_costs WHERE food_costs.status = 'A' AND " + where
+                + " ORDER BY food_costs.start_date ASC, food_costs.id_food_costs ASC LIMIT 51";
+    }
+
+    /**
+     * Compara las búsquedas por galpón y por rango de fechas con los índices contra la misma
+     * consulta forzada a recorrer toda la tabla (el filtrado que se hacía antes sobre /actives).
+     */
+    @Test
+    @Tag("benchmark")
+    void testSearchBenchmark_indexesBeatFullScan() throws Exception {
+        Map<String, String> searches = new LinkedHashMap<>();
+        searches.put("galpón + año", searchSql("food_costs.shed_id = 17 AND food_costs.start_date >= DATE '2022-01-01'"
+                + " AND food_costs.start_date <= DATE '2022-12-31'"));
+        searches.put("rango de una semana", searchSql("food_costs.start_date >= DATE '2022-03-07'"
+                + " AND food_costs.start_date <= DATE '2022-03-13'"));
+
+        List<String> lines = new ArrayList<>();
+        lines.add("| Búsqueda | Con índices (ms, mediana) | Recorrido completo (ms, mediana) | Aceleración |");
+        lines.add("|---|---|---|---|");
+        for (Map.Entry<String, String> search : searches.entrySet()) {
+            double indexed = medianExecutionMillis(search.getValue(), false);
+            double fullScan = medianExecutionMillis(search.getValue(), true);
+            lines.add("| " + search.getKey() + " | " + indexed + " | " + fullScan + " | " + Math.round(fullScan / indexed) + "x |");
+            assertTrue(indexed < fullScan, search.getKey() + ": con índices " + indexed + " ms, recorrido completo " + fullScan + " ms");
+        }
+        Files.write(PLAN_DIR.resolve("search-benchmark.md"), lines, StandardCharsets.UTF_8);
+    }
+
+    private static double medianExecutionMillis(String sql, boolean forceSeqScan) throws Exception {
+        String toggle = forceSeqScan ? "off" : "on";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_indexscan = " + toggle);
+            statement.execute("SET enable_bitmapscan = " + toggle);
+            statement.execute("SET enable_indexonlyscan = " + toggle);
+            double[] samples = new double[BENCHMARK_RUNS];
+            for (int i = 0; i < BENCHMARK_RUNS; i++) {
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN (ANALYZE, FORMAT JSON) " + sql)) {
+                    resultSet.next();
+                    samples[i] = MAPPER.readTree(resultSet.getString(1)).get(0).path("Execution Time").asDouble();
+                }
+            }
+            Arrays.sort(samples);
+            return samples[BENCHMARK_RUNS / 2];
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RESET enable_indexscan");
+                statement.execute("RESET enable_bitmapscan");
+                statement.execute("RESET enable_indexonlyscan");
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("planCases")
+    void testQueryPlan_staysWithinBudget(PlanCase planCase) throws Exception {
+        JsonNode explain = explain(planCase);
+        Files.writeString(PLAN_DIR.resolve(planCase.name() + ".json"), explain.toPrettyString());
+
+        JsonNode root = explain.get(0).get("Plan");
+        List<String> nodes = new ArrayList<>();
+        List<String> seqScans = new ArrayList<>();
+        long rowsExamined = walk(root, nodes, seqScans);
+        long buffers = root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+        double executionMillis = explain.get(0).path("Execution Time").asDouble();
+
+        List<String> failures = new ArrayList<>();
+        if (!planCase.allowSeqScan() && !seqScans.isEmpty()) {
+            failures.add("Seq Scan sobre " + seqScans);
+        }
+        if (rowsExamined > planCase.maxRowsExamined()) {
+            failures.add("filas examinadas " + rowsExamined + " > " + planCase.maxRowsExamined());
+        }
+        if (buffers > planCase.maxBuffers()) {
+            failures.add("buffers " + buffers + " > " + planCase.maxBuffers());
+        }
+        SUMMARY.add("| " + planCase.name() + " | " + String.join(" > ", nodes) + " | " + rowsExamined + " | " + buffers
+                + " | " + executionMillis + " | " + (failures.isEmpty() ? "OK" : String.join("; ", failures)) + " |");
+
+        assertTrue(failures.isEmpty(), planCase.name() + ": " + failures + "\n" + explain.toPrettyString());
+    }
+
+    // Las sentencias que modifican datos se ejecutan dentro de una transacción que se revierte
+    private static JsonNode explain(PlanCase planCase) throws Exception {
+        connection.setAutoCommit(!planCase.modifying());
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + planCase.sql())) {
+            resultSet.next();
+            return MAPPER.readTree(resultSet.getString(1));
+        } finally {
+            if (planCase.modifying()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Filas leídas por los nodos que acceden a la tabla, incluidas las descartadas por filtros
+    private static long walk(JsonNode node, List<String> nodes, List<String> seqScans) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText(null);
+        nodes.add(relation != null ? type + "(" + node.path("Index Name").asText(relation) + ")" : type);
+        if ("Seq Scan".equals(type) && "food_costs".equals(relation)) {
+            seqScans.add(relation);
+        }
+        long rows = 0;
+        if (relation != null && type.endsWith("Scan")) {
+            long loops = Math.max(1, node.path("Actual Loops").asLong());
+            rows += (node.path("Actual Rows").asLong()
+                    + node.path("Rows Removed by Filter").asLong()
+                    + node.path("Rows Removed by Index Recheck").asLong()) * loops;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            rows += walk(child, nodes, seqScans);
+        }
+        return rows;
+    }
+
+    private static String queryOf(String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return FoodCostsRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    // Reemplaza los parámetros :nombre por literales; Postgres planifica igual que las primeras ejecuciones preparadas
+    private static String bind(String sql, Map<String, String> literals) {
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        while (matcher.find()) {
+            String literal = literals.get(matcher.group(1));
+            if (literal == null) {
+                throw new IllegalArgumentException("Falta el valor del parámetro :" + matcher.group(1));
+            }
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(bound);
+        return bound.toString();
+    }
+
+    private static String literal(LocalDate date) {
+        return "DATE '" + date + "'";
+    }
+
+    private static void runScript(String resource) throws IOException, SQLException {
+        String script;
+        try (InputStream input = FoodCostsRepositoryQueryPlanTest.class.getClassLoader().getResourceAsStream(resource)) {
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.replaceAll("(?m)^\\s*--.*$", "").isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package pe.edu.vallegrande.foodcost.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.BackfillRequestDto;
+import pe.edu.vallegrande.foodcost.event.FoodCostChangedEvent;
+import pe.edu.vallegrande.foodcost.exception.service.BackfillInProgressException;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostBatchRepository;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.service.BackfillService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillServiceTest {
+
+    @Mock
+    private HensClient hensClient;
+
+    @Mock
+    private FoodCostsRepository foodCostsRepository;
+
+    @Mock
+    private FoodCostBatchRepository foodCostBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new BackfillService(hensClient, foodCostsRepository, foodCostBatchRepository,
+                ShardRouter.single(), eventPublisher, WorkloadExecutor.direct(), new SimpleMeterRegistry(), 2, 2);
+    }
+
+    /**
+     * Galpón sin historial que llegó hace 20 días: faltan 3 semanas completas, que en modo
+     * simulado solo se reportan.
+     */
+    @Test
+    void testBackfill_dryRunReportsMissingWeeks() {
+        when(hensClient.findAllHens()).thenReturn(Flux.just(hens(1L, 10L, LocalDate.now().minusDays(20))));
+        when(foodCostsRepository.findTopByShedIdOrderByStartDateDesc(10L)).thenReturn(Mono.empty());
+
+        BackfillRequestDto request = new BackfillRequestDto(true, "Postura", BigDecimal.valueOf(110), 1000, new BigDecimal("2.50"));
+
+        StepVerifier.create(backfillService.backfill(request))
+                .assertNext(report -> {
+                    assertEquals(1, report.getShedsScanned());
+                    assertEquals(3, report.getPeriodsMissing());
+                    assertEquals(0, report.getRowsInserted());
+                    assertEquals("PENDING", report.getSheds().get(0).getStatus());
+                    assertEquals(LocalDate.now(), report.getSheds().get(0).getToDate());
+                })
+                .verifyComplete();
+        verifyNoInteractions(foodCostBatchRepository);
+    }
+
+    /**
+     * Galpón con historial: continúa desde el último end_date con los valores del último periodo
+     * y se inserta en lotes del tamaño configurado.
+     */
+    @Test
+    void testBackfill_continuesFromLastPeriodInBatches() {
+        LocalDate arrival = LocalDate.now().minusDays(40);
+        FoodCost last = new FoodCost();
+        last.setFoodType("Postura");
+        last.setGramsPerChicken(BigDecimal.valueOf(110));
+        last.setTotalKg(new BigDecimal("770.00"));
+        last.setTotalCost(new BigDecimal("1925.00"));
+        last.setShedName("Galpon A");
+        last.setHensId(1L);
+        last.setStartDate(arrival);
+        last.setEndDate(arrival.plusDays(6));
+
+        when(hensClient.findAllHens()).thenReturn(Flux.just(hens(1L, 10L, arrival)));
+        when(foodCostsRepository.findTopByShedIdOrderByStartDateDesc(10L)).thenReturn(Mono.just(last));
+        when(foodCostBatchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<FoodCost>>getArgument(0).size()));
+
+        StepVerifier.create(backfillService.backfill(new BackfillRequestDto(false, null, null, null, null)))
+                .assertNext(report -> {
+                    assertEquals(4, report.getPeriodsMissing());
+                    assertEquals(4, report.getRowsInserted());
+                })
+                .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FoodCost>> batches = ArgumentCaptor.forClass(List.class);
+        verify(foodCostBatchRepository, times(2)).insertAll(batches.capture());
+        FoodCost first = batches.getAllValues().get(0).get(0);
+        assertEquals(arrival.plusDays(7), first.getStartDate());
+        assertEquals("Semana 2", first.getWeekNumber());
+        assertEquals(new BigDecimal("1925.00"), first.getTotalCost());
+    }
+
+    /**
+     * Sin historial ni valores por defecto el galpón se omite.
+     */
+    @Test
+    void testBackfill_skipsShedWithoutDefaults() {
+        when(hensClient.findAllHens()).thenReturn(Flux.just(hens(1L, 10L, LocalDate.now().minusDays(20))));
+        when(foodCostsRepository.findTopByShedIdOrderByStartDateDesc(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(backfillService.backfill(new BackfillRequestDto(false, null, null, null, null)))
+                .assertNext(report -> assertEquals(1, report.getShedsSkipped()))
+                .verifyComplete();
+    }
+
+    /**
+     * Mientras un backfill está en curso otro se rechaza; al terminar el primero se puede volver a correr.
+     */
+    @Test
+    void testBackfill_rejectsConcurrentRun() {
+        Sinks.Many<HensDto> pending = Sinks.many().unicast().onBackpressureBuffer();
+        when(hensClient.findAllHens()).thenReturn(pending.asFlux(), Flux.empty());
+        BackfillRequestDto request = new BackfillRequestDto(false, null, null, null, null);
+
+        Disposable first = backfillService.backfill(request).subscribe();
+        StepVerifier.create(backfillService.backfill(request))
+                .expectError(BackfillInProgressException.class)
+                .verify();
+
+        pending.tryEmitComplete();
+        assertTrue(first.isDisposed());
+        StepVerifier.create(backfillService.backfill(request))
+                .assertNext(report -> assertEquals(0, report.getShedsScanned()))
+                .verifyComplete();
+    }
+
+    /**
+     * Los periodos que ya existían (sin id tras la inserción) no generan evento de alta.
+     */
+    @Test
+    void testBackfill_publishesEventsOnlyForInsertedRows() {
+        when(hensClient.findAllHens()).thenReturn(Flux.just(hens(1L, 10L, LocalDate.now().minusDays(20))));
+        when(foodCostsRepository.findTopByShedIdOrderByStartDateDesc(10L)).thenReturn(Mono.empty());
+        when(foodCostBatchRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<FoodCost> batch = invocation.getArgument(0);
+            batch.get(0).setIdFoodCosts(1L);
+            return Mono.just(1L);
+        });
+
+        BackfillRequestDto request = new BackfillRequestDto(false, "Postura", BigDecimal.valueOf(110), 1000, new BigDecimal("2.50"));
+        StepVerifier.create(backfillService.backfill(request))
+                .assertNext(report -> assertEquals(2, report.getRowsInserted()))
+                .verifyComplete();
+
+        verify(eventPublisher, times(2)).publishEvent(any(FoodCostChangedEvent.class));
+    }
+
+    private HensDto hens(Long id, Long shedId, LocalDate arrivalDate) {
+        HensDto hens = new HensDto();
+        hens.setId(id);
+        hens.setShedId(shedId);
+        hens.setArrivalDate(arrivalDate);
+        return hens;
+    }
+}
@@ -0,0 +1,105 @@
+package pe.edu.vallegrande.foodcost.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import pe.edu.vallegrande.foodcost.dto.transfer.FoodPriceRequestDto;
+import pe.edu.vallegrande.foodcost.model.FoodPrice;
+import pe.edu.vallegrande.foodcost.pricing.FoodPriceIndex;
+import pe.edu.vallegrande.foodcost.repository.FoodPriceRepository;
+import pe.edu.vallegrande.foodcost.service.FoodPriceService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class FoodPriceServiceTest {
+
+    @Mock
+    private FoodPriceRepository foodPriceRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private FoodPriceIndex foodPriceIndex;
+    private FoodPriceService foodPriceService;
+
+    @BeforeEach
+    void setUp() {
+        foodPriceIndex = new FoodPriceIndex(foodPriceRepository, ShardRouter.single(), Duration.ofMinutes(5));
+        foodPriceService = new FoodPriceService(foodPriceRepository, foodPriceIndex, ShardRouter.single(), transactionalOperator);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(foodPriceRepository.save(any(FoodPrice.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    /**
+     * Un precio con fin dentro de un precio abierto lo parte: el abierto se cierra antes del nuevo y
+     * se reanuda al día siguiente del fin, así después de la promoción sigue habiendo precio.
+     */
+    @Test
+    void testAddPrice_boundedPriceSplitsOpenPrice() {
+        FoodPrice open = price("100.00", LocalDate.of(2025, 1, 1), null);
+        when(foodPriceRepository.findOpenPriceStartingBefore(1L, LocalDate.of(2025, 3, 1))).thenReturn(Mono.just(open));
+        when(foodPriceRepository.findByFoodIdOrderByEffectiveFromAsc(1L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(foodPriceService.addPrice(1L,
+                        new FoodPriceRequestDto(new BigDecimal("80.00"), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31))))
+                .assertNext(saved -> assertEquals(new BigDecimal("80.00"), saved.getUnitPrice()))
+                .verifyComplete();
+
+        ArgumentCaptor<FoodPrice> saved = ArgumentCaptor.forClass(FoodPrice.class);
+        verify(foodPriceRepository, times(3)).save(saved.capture());
+        assertEquals(LocalDate.of(2025, 2, 28), open.getEffectiveTo());
+        FoodPrice resumed = saved.getAllValues().stream()
+                .filter(row -> LocalDate.of(2025, 4, 1).equals(row.getEffectiveFrom()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(new BigDecimal("100.00"), resumed.getUnitPrice());
+        assertNull(resumed.getEffectiveTo());
+    }
+
+    /**
+     * Un precio sin fin solo cierra el abierto anterior.
+     */
+    @Test
+    void testAddPrice_openPriceClosesPrevious() {
+        FoodPrice open = price("100.00", LocalDate.of(2025, 1, 1), null);
+        FoodPrice added = price("120.00", LocalDate.of(2025, 4, 1), null);
+        when(foodPriceRepository.findOpenPriceStartingBefore(1L, LocalDate.of(2025, 4, 1))).thenReturn(Mono.just(open));
+        when(foodPriceRepository.findByFoodIdOrderByEffectiveFromAsc(1L)).thenReturn(Flux.just(open, added));
+
+        StepVerifier.create(foodPriceService.addPrice(1L,
+                        new FoodPriceRequestDto(new BigDecimal("120.00"), LocalDate.of(2025, 4, 1), null)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(foodPriceRepository, times(2)).save(any(FoodPrice.class));
+        assertEquals(LocalDate.of(2025, 3, 31), open.getEffectiveTo());
+        assertEquals(Optional.of(new BigDecimal("120.00")), foodPriceIndex.priceAt(1L, LocalDate.of(2025, 4, 1)));
+    }
+
+    private static FoodPrice price(String unitPrice, LocalDate from, LocalDate to) {
+        FoodPrice price = new FoodPrice();
+        price.setFoodId(1L);
+        price.setUnitPrice(new BigDecimal(unitPrice));
+        price.setEffectiveFrom(from);
+        price.setEffectiveTo(to);
+        return price;
+    }
+}
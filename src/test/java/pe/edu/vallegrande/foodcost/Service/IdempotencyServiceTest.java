@@ -0,0 +1,138 @@
+package pe.edu.vallegrande.foodcost.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.exception.service.IdempotencyKeyConflictException;
+import pe.edu.vallegrande.foodcost.service.IdempotencyService;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class IdempotencyServiceTest {
+
+    private static final String USER = "firebase-uid-1";
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(Duration.ofMinutes(5), 100);
+        executions = new AtomicInteger();
+    }
+
+    /**
+     * Un reintento con la misma clave devuelve el resultado original sin ejecutar de nuevo.
+     */
+    @Test
+    void testExecute_replaysStoredResult() {
+        StepVerifier.create(idempotencyService.execute("key-1", USER, "POST", "body", this::countedAction))
+                .expectNext("resultado-1")
+                .verifyComplete();
+        StepVerifier.create(idempotencyService.execute("key-1", USER, "POST", "body", this::countedAction))
+                .expectNext("resultado-1")
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Dos requests simultáneos con la misma clave comparten una sola ejecución.
+     */
+    @Test
+    void testExecute_coalescesConcurrentDuplicates() {
+        Sinks.One<String> pending = Sinks.one();
+
+        Mono<String> first = idempotencyService.execute("key-2", USER, "POST", "body", () -> {
+            executions.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<String> second = idempotencyService.execute("key-2", USER, "POST", "body", this::countedAction);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue("unico"))
+                .assertNext(tuple -> {
+                    assertEquals("unico", tuple.getT1());
+                    assertEquals("unico", tuple.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Reutilizar la clave con otro contenido es un conflicto.
+     */
+    @Test
+    void testExecute_conflictingPayload() {
+        idempotencyService.execute("key-3", USER, "POST", "body", this::countedAction).block();
+
+        StepVerifier.create(idempotencyService.execute("key-3", USER, "POST", "otro body", this::countedAction))
+                .expectError(IdempotencyKeyConflictException.class)
+                .verify();
+    }
+
+    /**
+     * Si la operación falla, la clave se libera y el reintento vuelve a ejecutar.
+     */
+    @Test
+    void testExecute_failureReleasesKey() {
+        StepVerifier.create(idempotencyService.execute("key-4", USER, "POST", "body",
+                        () -> Mono.<String>error(new RuntimeException("Error en Food API"))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        StepVerifier.create(idempotencyService.execute("key-4", USER, "POST", "body", this::countedAction))
+                .expectNext("resultado-1")
+                .verifyComplete();
+    }
+
+    /**
+     * La misma clave enviada por otro usuario no devuelve el resultado del primero.
+     */
+    @Test
+    void testExecute_keysAreScopedPerUser() {
+        idempotencyService.execute("key-5", USER, "POST", "body", this::countedAction).block();
+
+        StepVerifier.create(idempotencyService.execute("key-5", "firebase-uid-2", "POST", "body", this::countedAction))
+                .expectNext("resultado-2")
+                .verifyComplete();
+        assertEquals(2, executions.get());
+    }
+
+    /**
+     * Al superar el máximo se descartan las completadas más antiguas, nunca una en curso.
+     */
+    @Test
+    void testExecute_evictionKeepsInFlightEntries() {
+        idempotencyService = new IdempotencyService(Duration.ofMinutes(5), 2);
+        Sinks.One<String> pending = Sinks.one();
+        Mono<String> inFlight = idempotencyService.execute("en-curso", USER, "POST", "body", () -> {
+            executions.incrementAndGet();
+            return pending.asMono();
+        });
+        inFlight.subscribe();
+
+        idempotencyService.execute("a", USER, "POST", "body", this::countedAction).block();
+        idempotencyService.execute("b", USER, "POST", "body", this::countedAction).block();
+
+        // "a" fue descartada: se vuelve a ejecutar; "en-curso" sigue compartiendo la ejecución
+        StepVerifier.create(idempotencyService.execute("a", USER, "POST", "body", this::countedAction))
+                .expectNext("resultado-4")
+                .verifyComplete();
+        StepVerifier.create(idempotencyService.execute("en-curso", USER, "POST", "body", this::countedAction))
+                .then(() -> pending.tryEmitValue("unico"))
+                .expectNext("unico")
+                .verifyComplete();
+        assertEquals(4, executions.get());
+    }
+
+    private Mono<String> countedAction() {
+        return Mono.fromSupplier(() -> "resultado-" + executions.incrementAndGet());
+    }
+}
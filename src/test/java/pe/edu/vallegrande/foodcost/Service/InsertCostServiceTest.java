@@ -1,5 +1,6 @@
 package pe.edu.vallegrande.foodcost.Service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -9,9 +10,13 @@ import java.time.LocalDate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
@@ -19,7 +24,9 @@ import pe.edu.vallegrande.foodcost.dto.reception.HensDto;
 import pe.edu.vallegrande.foodcost.dto.transfer.FoodCostRequestDto;
 import pe.edu.vallegrande.foodcost.model.FoodCost;
 import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.service.FoodPriceService;
 import pe.edu.vallegrande.foodcost.service.InsertCostService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
 import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
 import pe.edu.vallegrande.foodcost.webclient.client.HensClient;
 import reactor.core.publisher.Mono;
@@ -40,6 +47,18 @@ class InsertCostServiceTest {
     @Mock
     private HensClient hensClient;
 
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FoodPriceService foodPriceService;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     @InjectMocks
     private InsertCostService insertCostService;
 
@@ -61,6 +80,8 @@ class InsertCostServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Sin base de datos la transacción no hace nada: devuelve la misma operación
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
         // Para el repositorio, stub para que al guardar retorne el objeto guardado
         lenient().when(foodCostsRepository.save(any(FoodCost.class)))
                 .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
@@ -247,4 +268,42 @@ class InsertCostServiceTest {
                                 throwable.getMessage().contains("No se encontró gallina"))
                 .verify();
     }
+
+    /**
+     * Sin unitPrice en la solicitud se usa el precio vigente del alimento en la fecha de inicio del
+     * periodo (la llegada de las gallinas cuando el galpón no tiene registros).
+     */
+    @Test
+    void testAddFoodCost_usesEffectivePriceWhenUnitPriceOmitted() {
+        FoodDto foodDto = new FoodDto();
+        foodDto.setIdFood(1L);
+        foodDto.setAmount(50);
+
+        HensDto hensDto = new HensDto();
+        hensDto.setId(1L);
+        hensDto.setArrivalDate(LocalDate.now().minusDays(5));
+        hensDto.setShedId(1L);
+
+        FoodCostRequestDto request = new FoodCostRequestDto();
+        request.setFoodId(1L);
+        request.setHensId(1L);
+        request.setGramsPerChicken(BigDecimal.valueOf(150));
+        request.setQuantity(10);
+        request.setFoodType("Postura");
+        request.setWeekNumber("Semana 1");
+        request.setShedName("Galpon A");
+
+        when(foodClient.findFoodById(1L)).thenReturn(Mono.just(foodDto));
+        when(hensClient.findHensById(1L)).thenReturn(Mono.just(hensDto));
+        when(foodCostsRepository.findTopByShedIdOrderByStartDateDesc(1L)).thenReturn(Mono.empty());
+        when(foodPriceService.resolveUnitPrice(1L, hensDto.getArrivalDate())).thenReturn(Mono.just(BigDecimal.valueOf(100)));
+
+        StepVerifier.create(insertCostService.addFoodCost(request))
+                .verifyComplete();
+
+        // 150 g x 10 x 7 días = 10.50 Kg; 100 / 50 = 2.00 por Kg
+        ArgumentCaptor<FoodCost> saved = ArgumentCaptor.forClass(FoodCost.class);
+        verify(foodCostsRepository).save(saved.capture());
+        assertEquals(new BigDecimal("21.00"), saved.getValue().getTotalCost());
+    }
 }
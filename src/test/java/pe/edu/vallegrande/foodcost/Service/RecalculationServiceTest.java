@@ -0,0 +1,136 @@
+package pe.edu.vallegrande.foodcost.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import pe.edu.vallegrande.foodcost.dto.reception.FoodDto;
+import pe.edu.vallegrande.foodcost.dto.transfer.RecalculationRequestDto;
+import pe.edu.vallegrande.foodcost.exception.service.FoodNotFoundException;
+import pe.edu.vallegrande.foodcost.exception.service.InvalidRecalculationRequestException;
+import pe.edu.vallegrande.foodcost.exception.service.RecalculationCapacityException;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.service.RecalculationService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class RecalculationServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 31);
+
+    @Mock
+    private FoodClient foodClient;
+
+    @Mock
+    private FoodCostsRepository foodCostsRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RecalculationService recalculationService;
+
+    @BeforeEach
+    void setUp() {
+        recalculationService = new RecalculationService(foodClient, foodCostsRepository, ShardRouter.single(), eventPublisher,
+                WorkloadExecutor.direct(), 10000, 2, Duration.ofMinutes(1), 1);
+    }
+
+    /**
+     * El rango de ids 1..25000 se divide en 3 bloques de 10000 y el costo por Kg
+     * se calcula igual que en la inserción (precio / cantidad, 2 decimales).
+     */
+    @Test
+    void testStartRecalculation_updatesAllChunks() {
+        FoodDto foodDto = new FoodDto();
+        foodDto.setIdFood(1L);
+        foodDto.setAmount(40);
+
+        when(foodClient.findFoodById(1L)).thenReturn(Mono.just(foodDto));
+        when(foodCostsRepository.findMinIdForRecalculation("Postura", FROM, TO)).thenReturn(Mono.just(1L));
+        when(foodCostsRepository.findMaxIdForRecalculation("Postura", FROM, TO)).thenReturn(Mono.just(25000L));
+        when(foodCostsRepository.recalculateTotalCost(eq("Postura"), eq(FROM), eq(TO), eq(new BigDecimal("2.50")), any(), any()))
+                .thenReturn(Mono.just(5L));
+
+        RecalculationRequestDto request = new RecalculationRequestDto("Postura", 1L, BigDecimal.valueOf(100), FROM, TO);
+
+        StepVerifier.create(recalculationService.startRecalculation(request)
+                        .flatMap(job -> recalculationService.getJob(job.getJobId())))
+                .assertNext(job -> {
+                    assertEquals("COMPLETED", job.getStatus());
+                    assertEquals(3, job.getTotalChunks());
+                    assertEquals(3, job.getProcessedChunks());
+                    assertEquals(15, job.getUpdatedRows());
+                })
+                .verifyComplete();
+
+        verify(foodCostsRepository).recalculateTotalCost(any(), any(), any(), any(), eq(1L), eq(10000L));
+        verify(foodCostsRepository).recalculateTotalCost(any(), any(), any(), any(), eq(10001L), eq(20000L));
+        verify(foodCostsRepository).recalculateTotalCost(any(), any(), any(), any(), eq(20001L), eq(25000L));
+    }
+
+    /**
+     * Sin tipo de alimento la solicitud se rechaza antes de consultar el microservicio FOOD.
+     */
+    @Test
+    void testStartRecalculation_invalidRequest() {
+        RecalculationRequestDto request = new RecalculationRequestDto(null, 1L, BigDecimal.valueOf(100), FROM, TO);
+
+        StepVerifier.create(recalculationService.startRecalculation(request))
+                .expectError(InvalidRecalculationRequestException.class)
+                .verify();
+        verifyNoInteractions(foodClient);
+    }
+
+    /**
+     * Si FOOD no encuentra el alimento el recálculo falla en lugar de responder vacío.
+     */
+    @Test
+    void testStartRecalculation_foodNotFound() {
+        when(foodClient.findFoodById(1L)).thenReturn(Mono.empty());
+        RecalculationRequestDto request = new RecalculationRequestDto("Postura", 1L, BigDecimal.valueOf(100), FROM, TO);
+
+        StepVerifier.create(recalculationService.startRecalculation(request))
+                .expectError(FoodNotFoundException.class)
+                .verify();
+        verifyNoInteractions(foodCostsRepository);
+    }
+
+    /**
+     * Con el máximo de trabajos en curso un nuevo recálculo se rechaza y no se registra.
+     */
+    @Test
+    void testStartRecalculation_rejectsWhenMaxRunningReached() {
+        FoodDto foodDto = new FoodDto();
+        foodDto.setIdFood(1L);
+        foodDto.setAmount(40);
+        when(foodClient.findFoodById(1L)).thenReturn(Mono.just(foodDto));
+        // El primer trabajo queda en curso: los límites de id nunca llegan
+        when(foodCostsRepository.findMinIdForRecalculation("Postura", FROM, TO)).thenReturn(Mono.never());
+        when(foodCostsRepository.findMaxIdForRecalculation("Postura", FROM, TO)).thenReturn(Mono.never());
+        RecalculationRequestDto request = new RecalculationRequestDto("Postura", 1L, BigDecimal.valueOf(100), FROM, TO);
+
+        StepVerifier.create(recalculationService.startRecalculation(request))
+                .assertNext(job -> assertEquals("RUNNING", job.getStatus()))
+                .verifyComplete();
+        StepVerifier.create(recalculationService.startRecalculation(request))
+                .expectError(RecalculationCapacityException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,55 @@
+package pe.edu.vallegrande.foodcost.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pe.edu.vallegrande.foodcost.exception.service.ReconciliationCapacityException;
+import pe.edu.vallegrande.foodcost.repository.FoodCostReconciliationRepository;
+import pe.edu.vallegrande.foodcost.service.ReconciliationService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.webclient.client.FoodClient;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+    @Mock
+    private FoodClient foodClient;
+
+    @Mock
+    private FoodCostReconciliationRepository reconciliationRepository;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(foodClient, reconciliationRepository, ShardRouter.single(),
+                WorkloadExecutor.direct(), BigDecimal.ONE, 100, 1);
+    }
+
+    /**
+     * Con el máximo de conciliaciones en curso una nueva se rechaza y no se registra.
+     */
+    @Test
+    void testStartReconciliation_rejectsWhenMaxRunningReached() {
+        // La primera conciliación queda en curso: el catálogo nunca termina de llegar
+        when(foodClient.findAllFoods()).thenReturn(Flux.never());
+
+        StepVerifier.create(reconciliationService.startReconciliation())
+                .assertNext(report -> assertEquals("RUNNING", report.getStatus()))
+                .verifyComplete();
+        StepVerifier.create(reconciliationService.startReconciliation())
+                .expectError(ReconciliationCapacityException.class)
+                .verify();
+    }
+}
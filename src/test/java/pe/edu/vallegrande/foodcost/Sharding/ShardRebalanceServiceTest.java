@@ -0,0 +1,272 @@
+package pe.edu.vallegrande.foodcost.Sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import pe.edu.vallegrande.foodcost.model.FoodCost;
+import pe.edu.vallegrande.foodcost.repository.FoodCostsRepository;
+import pe.edu.vallegrande.foodcost.sharding.ShardIdBlocks;
+import pe.edu.vallegrande.foodcost.sharding.ShardRebalanceService;
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import pe.edu.vallegrande.foodcost.sharding.ShardRoutingConnectionFactory;
+import pe.edu.vallegrande.foodcost.sharding.ShardingProperties;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import reactor.test.StepVerifier;
+
+/**
+ * Enrutamiento y rebalanceo contra dos Postgres reales, uno por shard, con la misma
+ * ShardRoutingConnectionFactory y transacciones R2DBC que usa la aplicación.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ShardRebalanceServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_0 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_1 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Map<String, PostgreSQLContainer<?>> CONTAINERS = new LinkedHashMap<>();
+
+    private static ShardRouter shardRouter;
+    private static FoodCostsRepository foodCostsRepository;
+    private static ShardRebalanceService shardRebalanceService;
+    private static long shedOnS0;
+    private static long shedOnS1;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        CONTAINERS.put("s0", SHARD_0);
+        CONTAINERS.put("s1", SHARD_1);
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        for (Map.Entry<String, PostgreSQLContainer<?>> shard : CONTAINERS.entrySet()) {
+            runScript(shard.getValue(), "db/migration/V001__create_food_costs.sql");
+            targets.put(shard.getKey(), connectionFactory(shard.getValue()));
+        }
+        ShardRoutingConnectionFactory routing = new ShardRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(targets);
+        routing.setDefaultTargetConnectionFactory(targets.get("s0"));
+        routing.afterPropertiesSet();
+
+        R2dbcEntityTemplate entityTemplate = new R2dbcEntityTemplate(routing);
+        shardRouter = new ShardRouter(List.of("s0", "s1"), 16);
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        new ShardIdBlocks(shardRouter, DatabaseClient.create(routing), properties).apply();
+        foodCostsRepository = new R2dbcRepositoryFactory(entityTemplate).getRepository(FoodCostsRepository.class);
+        shardRebalanceService = new ShardRebalanceService(shardRouter, entityTemplate, foodCostsRepository,
+                WorkloadExecutor.direct(), TransactionalOperator.create(new R2dbcTransactionManager(routing)), 4);
+
+        shedOnS0 = firstShedOn("s0");
+        shedOnS1 = firstShedOn("s1");
+    }
+
+    @BeforeEach
+    void cleanShards() throws Exception {
+        for (PostgreSQLContainer<?> container : CONTAINERS.values()) {
+            execute(container, "DELETE FROM food_costs");
+        }
+    }
+
+    /**
+     * Cada alta llega a la base del shard de su galpón.
+     */
+    @Test
+    void testOnShed_writesToTheShedShard() throws Exception {
+        StepVerifier.create(shardRouter.onShed(shedOnS0, foodCostsRepository.save(foodCost(shedOnS0))))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(shardRouter.onShed(shedOnS1, foodCostsRepository.save(foodCost(shedOnS1))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, count(SHARD_0, "shed_id = " + shedOnS0));
+        assertEquals(0, count(SHARD_0, "shed_id = " + shedOnS1));
+        assertEquals(1, count(SHARD_1, "shed_id = " + shedOnS1));
+        assertEquals(0, count(SHARD_1, "shed_id = " + shedOnS0));
+    }
+
+    /**
+     * El movimiento deja el registro solo en el shard dueño del galpón, con el mismo id.
+     */
+    @Test
+    void testMoveToOwner_copiesVerifiesAndDeletes() throws Exception {
+        FoodCost misplaced = shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS1))).block();
+
+        StepVerifier.create(shardRebalanceService.moveToOwner("s0", misplaced.getIdFoodCosts()))
+                .assertNext(moved -> assertEquals(misplaced.getIdFoodCosts(), moved.getIdFoodCosts()))
+                .verifyComplete();
+
+        assertEquals(0, count(SHARD_0, "id_food_costs = " + misplaced.getIdFoodCosts()));
+        assertEquals(1, count(SHARD_1, "id_food_costs = " + misplaced.getIdFoodCosts()));
+    }
+
+    /**
+     * Un movimiento cortado después de copiar (registro en ambos shards, copia desactualizada)
+     * se completa al repetirlo, y repetirlo otra vez no hace nada.
+     */
+    @Test
+    void testMoveToOwner_resumesInterruptedMove() throws Exception {
+        FoodCost misplaced = shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS1))).block();
+        long id = misplaced.getIdFoodCosts();
+        execute(SHARD_1, """
+                INSERT INTO food_costs (id_food_costs, week_number, total_cost, shed_id, start_date, status)
+                VALUES (%d, 'Semana vieja', 1.00, %d, '2024-01-01', 'A')
+                """.formatted(id, shedOnS1));
+
+        StepVerifier.create(shardRebalanceService.moveToOwner("s0", id))
+                .assertNext(moved -> assertEquals(0, new BigDecimal("2021.25").compareTo(moved.getTotalCost())))
+                .verifyComplete();
+        StepVerifier.create(shardRebalanceService.moveToOwner("s0", id))
+                .verifyComplete();
+
+        assertEquals(0, count(SHARD_0, "id_food_costs = " + id));
+        assertEquals(1, count(SHARD_1, "id_food_costs = " + id + " AND week_number = 'Semana 1'"));
+    }
+
+    /**
+     * Cada shard genera ids dentro de su propio bloque.
+     */
+    @Test
+    void testShardIdBlocks_keepIdsDisjoint() {
+        FoodCost onS0 = shardRouter.onShed(shedOnS0, foodCostsRepository.save(foodCost(shedOnS0))).block();
+        FoodCost onS1 = shardRouter.onShed(shedOnS1, foodCostsRepository.save(foodCost(shedOnS1))).block();
+
+        assertTrue(onS0.getIdFoodCosts() <= ShardIdBlocks.lastId(0));
+        assertTrue(onS1.getIdFoodCosts() >= ShardIdBlocks.firstId(1) && onS1.getIdFoodCosts() <= ShardIdBlocks.lastId(1));
+    }
+
+    /**
+     * Si en el destino el id pertenece a otro registro, el movimiento falla sin sobrescribirlo
+     * ni borrar el origen.
+     */
+    @Test
+    void testMoveToOwner_refusesToOverwriteAnotherRecord() throws Exception {
+        FoodCost misplaced = shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS1))).block();
+        long id = misplaced.getIdFoodCosts();
+        execute(SHARD_1, """
+                INSERT INTO food_costs (id_food_costs, week_number, total_cost, shed_id, start_date, status)
+                VALUES (%d, 'Otra semana', 1.00, %d, '2023-06-05', 'A')
+                """.formatted(id, shedOnS1));
+
+        StepVerifier.create(shardRebalanceService.moveToOwner("s0", id))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, count(SHARD_0, "id_food_costs = " + id));
+        assertEquals(1, count(SHARD_1, "id_food_costs = " + id + " AND week_number = 'Otra semana'"));
+    }
+
+    /**
+     * El rebalanceo mueve solo los registros fuera de lugar y los informa por ruta.
+     */
+    @Test
+    void testRebalance_movesMisplacedRows() throws Exception {
+        shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS0))).block();
+        shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS1))).block();
+        shardRouter.onShard("s0", foodCostsRepository.save(foodCost(shedOnS1))).block();
+
+        StepVerifier.create(shardRebalanceService.rebalance(false))
+                .assertNext(report -> {
+                    assertEquals(3, report.getScannedRows());
+                    assertEquals(2, report.getMovedRows());
+                    assertEquals(Map.of("s0->s1", 2L), report.getMoves());
+                })
+                .verifyComplete();
+
+        assertEquals(1, count(SHARD_0, "TRUE"));
+        assertEquals(2, count(SHARD_1, "shed_id = " + shedOnS1));
+        assertEquals(0, count(SHARD_1, "shed_id = " + shedOnS0));
+    }
+
+    private static FoodCost foodCost(long shedId) {
+        FoodCost foodCost = new FoodCost();
+        foodCost.setWeekNumber("Semana 1");
+        foodCost.setFoodType("Postura");
+        foodCost.setGramsPerChicken(new BigDecimal("115.50"));
+        foodCost.setTotalKg(new BigDecimal("80.850"));
+        foodCost.setTotalCost(new BigDecimal("2021.25"));
+        foodCost.setStartDate(LocalDate.of(2024, 1, 1));
+        foodCost.setEndDate(LocalDate.of(2024, 1, 7));
+        foodCost.setShedName("Galpón " + shedId);
+        foodCost.setShedId(shedId);
+        foodCost.setHensId(shedId);
+        foodCost.setStatus("A");
+        return foodCost;
+    }
+
+    private static long firstShedOn(String shard) {
+        long shedId = 1;
+        while (!shard.equals(shardRouter.shardFor(shedId))) {
+            shedId++;
+        }
+        return shedId;
+    }
+
+    private static PostgresqlConnectionFactory connectionFactory(PostgreSQLContainer<?> container) {
+        return new PostgresqlConnectionFactory(PostgresqlConnectionConfiguration.builder()
+                .host(container.getHost())
+                .port(container.getFirstMappedPort())
+                .database(container.getDatabaseName())
+                .username(container.getUsername())
+                .password(container.getPassword())
+                .build());
+    }
+
+    private static long count(PostgreSQLContainer<?> container, String condition) throws Exception {
+        try (Connection connection = jdbc(container);
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT count(*) FROM food_costs WHERE " + condition)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void execute(PostgreSQLContainer<?> container, String sql) throws Exception {
+        try (Connection connection = jdbc(container); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void runScript(PostgreSQLContainer<?> container, String resource) throws Exception {
+        String script;
+        try (InputStream input = ShardRebalanceServiceTest.class.getClassLoader().getResourceAsStream(resource)) {
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (String sql : script.split(";")) {
+            if (!sql.replaceAll("(?m)^\\s*--.*$", "").isBlank()) {
+                execute(container, sql);
+            }
+        }
+    }
+
+    private static Connection jdbc(PostgreSQLContainer<?> container) throws Exception {
+        return DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+}
@@ -0,0 +1,75 @@
+package pe.edu.vallegrande.foodcost.Sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import pe.edu.vallegrande.foodcost.sharding.ShardRouter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ShardRouterTest {
+
+    private static final int SHEDS = 30_000;
+
+    /**
+     * Con nodos virtuales los galpones se reparten de forma pareja entre los shards.
+     */
+    @Test
+    void testShardFor_distributesShedsEvenly() {
+        ShardRouter router = new ShardRouter(List.of("s0", "s1", "s2"), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long shedId = 1; shedId <= SHEDS; shedId++) {
+            counts.merge(router.shardFor(shedId), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - SHEDS / 3) < SHEDS / 3 * 0.15,
+                "Distribución desbalanceada: " + counts));
+    }
+
+    /**
+     * Al agregar un cuarto shard solo se mueve alrededor de 1/4 de los galpones, y todos hacia el nuevo.
+     */
+    @Test
+    void testShardFor_addingShardMovesOnlyItsShare() {
+        ShardRouter before = new ShardRouter(List.of("s0", "s1", "s2"), 160);
+        ShardRouter after = new ShardRouter(List.of("s0", "s1", "s2", "s3"), 160);
+
+        int moved = 0;
+        for (long shedId = 1; shedId <= SHEDS; shedId++) {
+            String oldShard = before.shardFor(shedId);
+            String newShard = after.shardFor(shedId);
+            if (!oldShard.equals(newShard)) {
+                moved++;
+                assertEquals("s3", newShard);
+            }
+        }
+        assertTrue(moved > SHEDS * 0.15 && moved < SHEDS * 0.35, "Movidos: " + moved);
+    }
+
+    /**
+     * El scatter-gather ordenado mezcla los flujos de cada shard manteniendo el orden global
+     * y cada consulta recibe su shard en el contexto.
+     */
+    @Test
+    void testScatterSorted_mergesShardStreamsInOrder() {
+        ShardRouter router = new ShardRouter(List.of("s0", "s1"), 16);
+        Map<String, List<Integer>> data = Map.of("s0", List.of(1, 4, 6), "s1", List.of(2, 3, 5));
+
+        Flux<Integer> merged = router.scatterSorted(shard -> Mono.deferContextual(ctx ->
+                        Mono.just(ctx.get(ShardRouter.SHARD_CONTEXT_KEY).toString()))
+                .flatMapMany(current -> Flux.fromIterable(data.get(current))), Integer::compare);
+
+        StepVerifier.create(merged)
+                .expectNext(1, 2, 3, 4, 5, 6)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,106 @@
+package pe.edu.vallegrande.foodcost.Workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.vallegrande.foodcost.workload.BulkGovernor;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import pe.edu.vallegrande.foodcost.workload.WorkloadProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class BulkGovernorTest {
+
+    private static final long TARGET_NANOS = Duration.ofMillis(100).toNanos();
+
+    /**
+     * Arranca con un permiso y, sin escrituras interactivas que proteger, suma uno por evaluación.
+     */
+    @Test
+    void testEvaluate_growsWithoutInteractiveLoad() {
+        BulkGovernor governor = new BulkGovernor(1, 4, TARGET_NANOS, 10);
+
+        assertTrue(governor.tryAcquire());
+        assertFalse(governor.tryAcquire());
+
+        for (int i = 0; i < 10; i++) {
+            governor.evaluate();
+        }
+        assertEquals(4, governor.getPermits());
+        assertTrue(governor.tryAcquire());
+    }
+
+    /**
+     * Si el p99 de las escrituras interactivas supera el objetivo, los permisos bajan a la mitad
+     * (sin pasar del mínimo) y se recuperan de a uno cuando la latencia vuelve a estar holgada.
+     */
+    @Test
+    void testEvaluate_halvesWhenInteractiveP99ExceedsTarget() {
+        BulkGovernor governor = new BulkGovernor(1, 8, TARGET_NANOS, 10);
+        for (int i = 0; i < 8; i++) {
+            governor.evaluate();
+        }
+        assertEquals(8, governor.getPermits());
+
+        recordWindow(governor, 95, Duration.ofMillis(10), 5, Duration.ofMillis(400));
+        governor.evaluate();
+        assertEquals(4, governor.getPermits());
+        assertEquals(Duration.ofMillis(400).toNanos(), governor.getLastP99Nanos());
+
+        recordWindow(governor, 95, Duration.ofMillis(10), 5, Duration.ofMillis(400));
+        governor.evaluate();
+        recordWindow(governor, 95, Duration.ofMillis(10), 5, Duration.ofMillis(400));
+        governor.evaluate();
+        recordWindow(governor, 95, Duration.ofMillis(10), 5, Duration.ofMillis(400));
+        governor.evaluate();
+        assertEquals(1, governor.getPermits());
+
+        recordWindow(governor, 100, Duration.ofMillis(20), 0, Duration.ZERO);
+        governor.evaluate();
+        assertEquals(2, governor.getPermits());
+    }
+
+    /**
+     * Con un solo permiso las operaciones gobernadas corren de a una y el permiso se devuelve
+     * también cuando la operación falla.
+     */
+    @Test
+    void testGoverned_serializesAndReleasesOnError() {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.getGovernor().setMinPermits(1);
+        properties.getGovernor().setMaxPermits(1);
+        WorkloadExecutor executor = new WorkloadExecutor(properties, new SimpleMeterRegistry());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Mono<Integer> failing = executor.governed(Mono.error(new IllegalStateException("falla")));
+        StepVerifier.create(failing).expectError(IllegalStateException.class).verify();
+
+        StepVerifier.create(Flux.range(0, 4)
+                        .flatMap(i -> executor.governed(Mono.delay(Duration.ofMillis(20))
+                                .doOnSubscribe(s -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+                                .doFinally(s -> running.decrementAndGet())
+                                .thenReturn(i))))
+                .expectNextCount(4)
+                .verifyComplete();
+        assertEquals(1, maxRunning.get());
+        executor.stop();
+    }
+
+    private static void recordWindow(BulkGovernor governor, int fast, Duration fastLatency, int slow, Duration slowLatency) {
+        for (int i = 0; i < fast; i++) {
+            governor.recordInteractiveWrite(fastLatency.toNanos());
+        }
+        for (int i = 0; i < slow; i++) {
+            governor.recordInteractiveWrite(slowLatency.toNanos());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pe.edu.vallegrande.foodcost.Workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pe.edu.vallegrande.foodcost.workload.WorkloadClass;
+import pe.edu.vallegrande.foodcost.workload.WorkloadExecutor;
+import pe.edu.vallegrande.foodcost.workload.WorkloadProperties;
+import pe.edu.vallegrande.foodcost.workload.WorkloadWebFilter;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class WorkloadWebFilterTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private WorkloadExecutor workloadExecutor;
+    private WorkloadWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.setBulkPaths(List.of("/api/food-costs/actives"));
+        properties.getBulk().setSchedulerThreads(1);
+        properties.getBulk().setSchedulerQueueSize(1);
+        properties.getGovernor().setEnabled(false);
+        workloadExecutor = new WorkloadExecutor(properties, new SimpleMeterRegistry());
+
+        RequestMappingHandlerMapping handlerMapping = mock(RequestMappingHandlerMapping.class);
+        when(handlerMapping.getHandlerMethods()).thenReturn(Map.of());
+        filter = new WorkloadWebFilter(workloadExecutor, properties, handlerMapping, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        workloadExecutor.stop();
+    }
+
+    /**
+     * Una petición INTERACTIVE no cambia de hilo: solo lleva su clase en el contexto.
+     */
+    @Test
+    void testFilter_interactiveStaysOnCallingThread() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/food-costs"));
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<WorkloadClass> workload = new AtomicReference<>();
+
+        StepVerifier.create(filter.filter(exchange, chained -> Mono.deferContextual(ctx -> {
+                    thread.set(Thread.currentThread().getName());
+                    workload.set(WorkloadExecutor.current(ctx));
+                    return Mono.empty();
+                })))
+                .verifyComplete();
+
+        assertEquals(Thread.currentThread().getName(), thread.get());
+        assertEquals(WorkloadClass.INTERACTIVE, workload.get());
+    }
+
+    /**
+     * Con la cola del scheduler BULK llena la petición se rechaza con 503 y Retry-After, no con 500.
+     */
+    @Test
+    void testFilter_bulkQueueFullRejectsWith503() throws InterruptedException {
+        // Un hilo ocupado y su único lugar de cola ocupado: la siguiente tarea BULK se rechaza
+        CountDownLatch started = new CountDownLatch(1);
+        workloadExecutor.scheduler(WorkloadClass.BULK).schedule(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await();
+        workloadExecutor.scheduler(WorkloadClass.BULK).schedule(this::awaitRelease);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/food-costs/actives"));
+
+        StepVerifier.create(filter.filter(exchange, chained -> Mono.empty()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}